@@ -0,0 +1,129 @@
+package benchmarks;
+
+import database.DBConnection;
+import database.EmbeddedDatabase;
+import database.StudentBalanceDAO;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.SplittableRandom;
+
+/**
+ * Seeds an in-memory H2 database (MySQL mode) and points {@link DBConnection} at it.
+ *
+ * <p>The schema comes from {@code database_setup/02_create_tables.sql}; data volume is chosen by
+ * the benchmark parameters and generated from a fixed seed so runs are comparable.
+ */
+final class BenchmarkDatabase {
+  static final String[] PROGRAMS = {"SOFTWARE ENGINEERING", "INFO MANAGEMENT", "NETWORKING"};
+  private static final String[] METHODS = {"MOMO", "BK"};
+  private static final int BATCH_SIZE = 1000;
+
+  private static Connection keepAlive;
+
+  private BenchmarkDatabase() {}
+
+  static void start(int students, int coursesPerProgram, int paymentsPerStudent, long seed)
+      throws SQLException, IOException {
+    stop();
+    String url = EmbeddedDatabase.memoryUrl("fees_bench_" + System.nanoTime());
+    // Holding one connection open keeps the in-memory database alive between pool evictions.
+    keepAlive =
+        DriverManager.getConnection(url, EmbeddedDatabase.USERNAME, EmbeddedDatabase.PASSWORD);
+    EmbeddedDatabase.runScript(
+        keepAlive,
+        Paths.get(System.getProperty("fees.schema", "database_setup/02_create_tables.sql")));
+    seed(keepAlive, students, coursesPerProgram, paymentsPerStudent, new SplittableRandom(seed));
+    StudentBalanceDAO.rebuild(keepAlive);
+
+    System.setProperty("fees.db.url", url);
+    System.setProperty("fees.db.user", EmbeddedDatabase.USERNAME);
+    System.setProperty("fees.db.password", EmbeddedDatabase.PASSWORD);
+    DBConnection.closeQuietly();
+  }
+
+  static void stop() throws SQLException {
+    DBConnection.closeQuietly();
+    if (keepAlive != null) {
+      keepAlive.close();
+      keepAlive = null;
+    }
+  }
+
+  private static void seed(
+      Connection conn,
+      int students,
+      int coursesPerProgram,
+      int paymentsPerStudent,
+      SplittableRandom random)
+      throws SQLException {
+    conn.setAutoCommit(false);
+    try (PreparedStatement ps =
+        conn.prepareStatement(
+            "INSERT INTO fees_courses (program, course_name, price_rwf, semester) "
+                + "VALUES (?, ?, ?, 1)")) {
+      for (String program : PROGRAMS) {
+        for (int c = 1; c <= coursesPerProgram; c++) {
+          ps.setString(1, program);
+          ps.setString(2, program + " Course " + c);
+          ps.setBigDecimal(3, BigDecimal.valueOf(140_000 + 5_000L * random.nextInt(7)));
+          ps.addBatch();
+        }
+      }
+      ps.executeBatch();
+    }
+
+    try (PreparedStatement student =
+            conn.prepareStatement(
+                "INSERT INTO fees_students (reg_number, full_name, program, password) "
+                    + "VALUES (?, ?, ?, '123')");
+        PreparedStatement enroll =
+            conn.prepareStatement(
+                "INSERT INTO fees_enrollments (student_id, course_id) VALUES (?, ?)");
+        PreparedStatement payment =
+            conn.prepareStatement(
+                "INSERT INTO fees_payments (student_id, amount, method, note, paid_on) "
+                    + "VALUES (?, ?, ?, ?, ?)")) {
+      LocalDate start = LocalDate.of(2025, 1, 1);
+      for (int i = 1; i <= students; i++) {
+        int programIndex = random.nextInt(PROGRAMS.length);
+        // 2025001..2025999, then earlier intakes, so reg number scans see a realistic mix
+        student.setString(1, String.format("%d%03d", 2025 - (i - 1) / 999, (i - 1) % 999 + 1));
+        student.setString(2, "Student " + i);
+        student.setString(3, PROGRAMS[programIndex]);
+        student.addBatch();
+
+        int firstCourse = programIndex * coursesPerProgram + 1;
+        int courses = 1 + random.nextInt(Math.min(4, coursesPerProgram));
+        for (int c = 0; c < courses; c++) {
+          enroll.setInt(1, i);
+          enroll.setInt(2, firstCourse + (c + i) % coursesPerProgram);
+          enroll.addBatch();
+        }
+
+        for (int p = 0; p < paymentsPerStudent; p++) {
+          payment.setInt(1, i);
+          payment.setBigDecimal(2, BigDecimal.valueOf(10_000 + 1_000L * random.nextInt(90)));
+          payment.setString(3, METHODS[random.nextInt(METHODS.length)]);
+          payment.setString(4, "Installment " + (p + 1));
+          payment.setDate(5, Date.valueOf(start.plusDays(random.nextInt(300))));
+          payment.addBatch();
+        }
+
+        if (i % BATCH_SIZE == 0 || i == students) {
+          student.executeBatch();
+          enroll.executeBatch();
+          payment.executeBatch();
+          conn.commit();
+        }
+      }
+    }
+    conn.setAutoCommit(true);
+  }
+}
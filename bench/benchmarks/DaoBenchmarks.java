@@ -0,0 +1,130 @@
+package benchmarks;
+
+import database.AccountantDAO;
+import database.FeeAccountDAO;
+import database.RegNumberAllocator;
+import database.RegistrarDAO;
+import database.StudentPortalDAO;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import models.AccountantStudentSummary;
+import models.FeeSummary;
+import models.Money;
+import models.Payment;
+import models.StudentSummaryQuery;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * DAO hot paths against a seeded embedded database.
+ *
+ * <p>Runs in throughput and sample-time mode, so the report has ops/ms plus p50/p90/p99 latency.
+ * Dataset size is set with JMH params, e.g. {@code ant bench -Dbench.args="-p students=20000"}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DaoBenchmarks {
+  private static final long SEED = 20250101L;
+
+  @Param({"2000"})
+  public int students;
+
+  @Param({"6"})
+  public int coursesPerProgram;
+
+  @Param({"3"})
+  public int paymentsPerStudent;
+
+  // Wide enough that a whole run never exhausts the year's numbers.
+  private RegNumberAllocator regNumbers;
+
+  /** Per-thread random source so concurrent runs do not contend on one generator. */
+  @State(Scope.Thread)
+  public static class Picker {
+    final SplittableRandom random = new SplittableRandom(SEED);
+  }
+
+  @Setup(Level.Trial)
+  public void seed() throws Exception {
+    BenchmarkDatabase.start(students, coursesPerProgram, paymentsPerStudent, SEED);
+    regNumbers = new RegNumberAllocator(2025, 9, 20);
+  }
+
+  @TearDown(Level.Trial)
+  public void shutdown() throws Exception {
+    BenchmarkDatabase.stop();
+  }
+
+  @Benchmark
+  public List<AccountantStudentSummary> accountantLoadStudentSummaries() {
+    return AccountantDAO.loadStudentSummaries();
+  }
+
+  @Benchmark
+  public List<AccountantStudentSummary> accountantLoadStudentSummaryPage(Picker picker) {
+    // A page somewhere in the middle of the list, reached the way the report table scrolls to it.
+    AccountantStudentSummary after =
+        AccountantDAO.findStudentSummaryAt(
+            StudentSummaryQuery.ALL, picker.random.nextInt(students - 100));
+    return AccountantDAO.loadStudentSummaryPage(StudentSummaryQuery.ALL, after, 100);
+  }
+
+  @Benchmark
+  public List<AccountantStudentSummary> accountantTopDebtorsInProgram() {
+    // The first page of the report sorted by remaining balance, largest first, in one program.
+    StudentSummaryQuery query =
+        StudentSummaryQuery.ALL
+            .withProgram("NETWORKING")
+            .sortedBy(StudentSummaryQuery.SortKey.REMAINING, true);
+    return AccountantDAO.loadStudentSummaryPage(query, null, 100);
+  }
+
+  @Benchmark
+  public FeeSummary studentPortalLoadSummary(Picker picker) {
+    return StudentPortalDAO.loadSummary(randomStudent(picker));
+  }
+
+  @Benchmark
+  public String registrarNextRegNumber() throws Exception {
+    return regNumbers.next();
+  }
+
+  @Benchmark
+  public boolean registrarEnrollStudentInCourses(Picker picker) {
+    int totalCourses = BenchmarkDatabase.PROGRAMS.length * coursesPerProgram;
+    int first = 1 + picker.random.nextInt(totalCourses);
+    int second = 1 + (first % totalCourses);
+    return RegistrarDAO.enrollStudentInCourses(
+        randomStudent(picker), Arrays.asList(first, second));
+  }
+
+  @Benchmark
+  public boolean feeAccountRecordPayment(Picker picker) {
+    Payment payment =
+        new Payment(
+            randomStudent(picker), Money.ofMinor(2_500_000), "MOMO", "bench", new Date());
+    return FeeAccountDAO.recordPayment(payment);
+  }
+
+  private int randomStudent(Picker picker) {
+    return 1 + picker.random.nextInt(students);
+  }
+}
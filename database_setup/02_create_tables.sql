@@ -0,0 +1,156 @@
+-- ============================================
+-- Create Tables - Student Fees Tracker schema
+-- Matches the columns used by the DAOs in src/database
+-- ============================================
+
+USE student_fees_db;
+
+-- ============================================
+-- Staff accounts (registrar / accountant / admin)
+-- ============================================
+CREATE TABLE IF NOT EXISTS fees_users (
+    user_id INT AUTO_INCREMENT PRIMARY KEY,
+    username VARCHAR(50) NOT NULL UNIQUE,
+    password VARCHAR(100) NOT NULL,
+    role VARCHAR(20) NOT NULL
+);
+
+-- ============================================
+-- Students (login by reg_number)
+-- ============================================
+CREATE TABLE IF NOT EXISTS fees_students (
+    student_id INT AUTO_INCREMENT PRIMARY KEY,
+    reg_number VARCHAR(20) UNIQUE,
+    full_name VARCHAR(100) NOT NULL,
+    program VARCHAR(50) NOT NULL,
+    password VARCHAR(100) NOT NULL DEFAULT '123',
+    total_fee DECIMAL(12, 2) NOT NULL DEFAULT 0.00,
+    INDEX idx_student_program (program),
+    INDEX idx_student_name (full_name)
+);
+
+-- ============================================
+-- Course catalog
+-- ============================================
+CREATE TABLE IF NOT EXISTS fees_courses (
+    course_id INT AUTO_INCREMENT PRIMARY KEY,
+    program VARCHAR(50) NOT NULL,
+    course_name VARCHAR(100) NOT NULL,
+    price_rwf DECIMAL(12, 2) NOT NULL,
+    semester INT NOT NULL DEFAULT 1,
+    INDEX idx_course_program (program, semester)
+);
+
+-- ============================================
+-- Student <-> course links
+-- ============================================
+CREATE TABLE IF NOT EXISTS fees_enrollments (
+    enrollment_id INT AUTO_INCREMENT PRIMARY KEY,
+    student_id INT NOT NULL,
+    course_id INT NOT NULL,
+    INDEX idx_enrollment_student (student_id),
+    INDEX idx_enrollment_course (course_id),
+    FOREIGN KEY (student_id) REFERENCES fees_students(student_id) ON DELETE CASCADE,
+    FOREIGN KEY (course_id) REFERENCES fees_courses(course_id) ON DELETE CASCADE
+);
+
+-- ============================================
+-- Payment transactions
+-- ============================================
+CREATE TABLE IF NOT EXISTS fees_payments (
+    payment_id INT AUTO_INCREMENT PRIMARY KEY,
+    student_id INT NOT NULL,
+    amount DECIMAL(12, 2) NOT NULL,
+    method VARCHAR(20) NOT NULL,
+    note VARCHAR(255),
+    paid_on DATE NOT NULL,
+    INDEX idx_payment_student (student_id, paid_on),
+    FOREIGN KEY (student_id) REFERENCES fees_students(student_id) ON DELETE CASCADE
+);
+
+-- ============================================
+-- Per-student balance read model for the accountant report
+-- Maintained by the DAOs, rebuild with 12_rebuild_student_balances.sql
+-- Every student has a row, so the report joins it and sorts and filters on
+-- these columns directly, each sort served by an index ending in student_id
+-- ============================================
+CREATE TABLE IF NOT EXISTS fees_student_balances (
+    student_id INT PRIMARY KEY,
+    program VARCHAR(50) NOT NULL,
+    total_fee DECIMAL(12, 2) NOT NULL DEFAULT 0.00,
+    total_paid DECIMAL(12, 2) NOT NULL DEFAULT 0.00,
+    remaining DECIMAL(12, 2) NOT NULL DEFAULT 0.00,
+    status VARCHAR(10) GENERATED ALWAYS AS (
+        CASE WHEN total_fee = 0 THEN 'NO_COURSES'
+             WHEN total_paid <= 0 THEN 'UNPAID'
+             WHEN total_paid >= total_fee THEN 'PAID'
+             ELSE 'PARTIAL' END),
+    change_seq BIGINT NOT NULL DEFAULT 0,
+    INDEX idx_balance_remaining (remaining, student_id),
+    INDEX idx_balance_fee (total_fee, student_id),
+    INDEX idx_balance_paid (total_paid, student_id),
+    INDEX idx_balance_program_remaining (program, remaining, student_id),
+    INDEX idx_balance_status_remaining (status, remaining, student_id),
+    INDEX idx_balance_change (change_seq),
+    FOREIGN KEY (student_id) REFERENCES fees_students(student_id) ON DELETE CASCADE
+);
+
+-- ============================================
+-- Counter behind fees_student_balances.change_seq
+-- Every balance write stamps its rows with the next value, so the accountant
+-- report can poll for just the rows changed since the value it last saw
+-- ============================================
+CREATE TABLE IF NOT EXISTS fees_balance_sequence (
+    id INT PRIMARY KEY,
+    last_value BIGINT NOT NULL
+);
+
+INSERT INTO fees_balance_sequence (id, last_value)
+SELECT 1, 0 FROM DUAL WHERE NOT EXISTS (SELECT 1 FROM fees_balance_sequence WHERE id = 1);
+
+-- ============================================
+-- Next reg number per academic year and sequence width
+-- Reserved in blocks by RegNumberAllocator, created on first use
+-- ============================================
+CREATE TABLE IF NOT EXISTS fees_reg_sequences (
+    academic_year INT NOT NULL,
+    width INT NOT NULL,
+    next_value BIGINT NOT NULL,
+    PRIMARY KEY (academic_year, width)
+);
+
+-- ============================================
+-- Course catalog version, bumped on every course change
+-- Lets each running app tell that its cached catalog is stale
+-- ============================================
+CREATE TABLE IF NOT EXISTS fees_catalog_version (
+    id INT PRIMARY KEY,
+    version BIGINT NOT NULL
+);
+
+-- The single row, so the first course change only has to update it
+INSERT INTO fees_catalog_version (id, version)
+SELECT 1, 0 FROM DUAL WHERE NOT EXISTS (SELECT 1 FROM fees_catalog_version WHERE id = 1);
+
+-- ============================================
+-- Fee recalculation audit, written by FeeRecalculator
+-- One run per price change, one adjustment per student whose total moved
+-- ============================================
+CREATE TABLE IF NOT EXISTS fees_fee_recalculations (
+    run_id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    reason VARCHAR(255),
+    started_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    students INT NOT NULL DEFAULT 0,
+    total_delta DECIMAL(14, 2) NOT NULL DEFAULT 0.00
+);
+
+CREATE TABLE IF NOT EXISTS fees_fee_adjustments (
+    run_id BIGINT NOT NULL,
+    student_id INT NOT NULL,
+    old_total DECIMAL(12, 2) NOT NULL,
+    new_total DECIMAL(12, 2) NOT NULL,
+    PRIMARY KEY (run_id, student_id),
+    INDEX idx_adjustment_student (student_id)
+);
+
+SELECT 'Tables created successfully!' AS Status;
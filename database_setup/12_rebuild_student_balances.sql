@@ -0,0 +1,68 @@
+-- ============================================
+-- Create / Rebuild fees_student_balances and fees_students.total_fee
+-- Run once after upgrading, or any time the balances look out of date
+-- (e.g. after editing payments or enrollments directly in phpMyAdmin)
+-- ============================================
+
+USE student_fees_db;
+
+CREATE TABLE IF NOT EXISTS fees_student_balances (
+    student_id INT PRIMARY KEY,
+    program VARCHAR(50) NOT NULL,
+    total_fee DECIMAL(12, 2) NOT NULL DEFAULT 0.00,
+    total_paid DECIMAL(12, 2) NOT NULL DEFAULT 0.00,
+    remaining DECIMAL(12, 2) NOT NULL DEFAULT 0.00,
+    status VARCHAR(10) GENERATED ALWAYS AS (
+        CASE WHEN total_fee = 0 THEN 'NO_COURSES'
+             WHEN total_paid <= 0 THEN 'UNPAID'
+             WHEN total_paid >= total_fee THEN 'PAID'
+             ELSE 'PARTIAL' END),
+    change_seq BIGINT NOT NULL DEFAULT 0,
+    INDEX idx_balance_remaining (remaining, student_id),
+    INDEX idx_balance_fee (total_fee, student_id),
+    INDEX idx_balance_paid (total_paid, student_id),
+    INDEX idx_balance_program_remaining (program, remaining, student_id),
+    INDEX idx_balance_status_remaining (status, remaining, student_id),
+    INDEX idx_balance_change (change_seq),
+    FOREIGN KEY (student_id) REFERENCES fees_students(student_id) ON DELETE CASCADE
+);
+
+-- The total fee the fee account screen reads, for every student with courses
+UPDATE fees_students s
+   SET total_fee = (SELECT SUM(c.price_rwf)
+                      FROM fees_enrollments e
+                      JOIN fees_courses c ON c.course_id = e.course_id
+                     WHERE e.student_id = s.student_id)
+ WHERE EXISTS (SELECT 1 FROM fees_enrollments e WHERE e.student_id = s.student_id);
+
+CREATE TABLE IF NOT EXISTS fees_balance_sequence (
+    id INT PRIMARY KEY,
+    last_value BIGINT NOT NULL
+);
+
+INSERT INTO fees_balance_sequence (id, last_value)
+SELECT 1, 0 FROM DUAL WHERE NOT EXISTS (SELECT 1 FROM fees_balance_sequence WHERE id = 1);
+
+-- Every row is rewritten, so every open report re-reads them all once
+UPDATE fees_balance_sequence SET last_value = last_value + 1 WHERE id = 1;
+
+DELETE FROM fees_student_balances;
+
+INSERT INTO fees_student_balances
+       (student_id, program, total_fee, total_paid, remaining, change_seq)
+SELECT s.student_id,
+       s.program,
+       COALESCE(f.total_fee, 0),
+       COALESCE(p.total_paid, 0),
+       COALESCE(f.total_fee, 0) - COALESCE(p.total_paid, 0),
+       (SELECT last_value FROM fees_balance_sequence WHERE id = 1)
+FROM fees_students s
+LEFT JOIN (SELECT e.student_id, SUM(c.price_rwf) AS total_fee
+             FROM fees_enrollments e
+             JOIN fees_courses c ON c.course_id = e.course_id
+            GROUP BY e.student_id) f ON f.student_id = s.student_id
+LEFT JOIN (SELECT student_id, SUM(amount) AS total_paid
+             FROM fees_payments
+            GROUP BY student_id) p ON p.student_id = s.student_id;
+
+SELECT COUNT(*) AS 'Balances rebuilt' FROM fees_student_balances;
@@ -0,0 +1,11 @@
+-- ============================================
+-- Indexes behind the accountant report's server-side sorting
+-- Run once on databases created before the report could be sorted by name.
+-- New installs get them from 02_create_tables.sql.
+-- ============================================
+
+USE student_fees_db;
+
+CREATE INDEX idx_student_name ON fees_students (full_name);
+
+SHOW INDEX FROM fees_students;
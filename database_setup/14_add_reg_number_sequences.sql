@@ -0,0 +1,15 @@
+-- ============================================
+-- Counter table behind registration number generation
+-- Run once on databases created before reg numbers were reserved in blocks.
+-- New installs get it from 02_create_tables.sql. The app fills in each
+-- year's row on first use, starting after the highest reg number in use.
+-- ============================================
+
+USE student_fees_db;
+
+CREATE TABLE IF NOT EXISTS fees_reg_sequences (
+    academic_year INT PRIMARY KEY,
+    next_value BIGINT NOT NULL
+);
+
+SELECT * FROM fees_reg_sequences;
@@ -0,0 +1,19 @@
+-- ============================================
+-- Version stamp for the in-memory course catalog
+-- Run once on databases created before the catalog was cached.
+-- New installs get it from 02_create_tables.sql. Safe to run again; it
+-- only adds the version row if it is missing.
+-- ============================================
+
+USE student_fees_db;
+
+CREATE TABLE IF NOT EXISTS fees_catalog_version (
+    id INT PRIMARY KEY,
+    version BIGINT NOT NULL
+);
+
+-- The single row, so the first course change only has to update it
+INSERT INTO fees_catalog_version (id, version)
+SELECT 1, 0 FROM DUAL WHERE NOT EXISTS (SELECT 1 FROM fees_catalog_version WHERE id = 1);
+
+SELECT * FROM fees_catalog_version;
@@ -0,0 +1,27 @@
+-- ============================================
+-- Audit tables for fee recalculation after course price changes
+-- Run once on databases created before prices were recalculated.
+-- New installs get them from 02_create_tables.sql.
+-- No foreign keys: the audit outlives deleted students.
+-- ============================================
+
+USE student_fees_db;
+
+CREATE TABLE IF NOT EXISTS fees_fee_recalculations (
+    run_id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    reason VARCHAR(255),
+    started_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    students INT NOT NULL DEFAULT 0,
+    total_delta DECIMAL(14, 2) NOT NULL DEFAULT 0.00
+);
+
+CREATE TABLE IF NOT EXISTS fees_fee_adjustments (
+    run_id BIGINT NOT NULL,
+    student_id INT NOT NULL,
+    old_total DECIMAL(12, 2) NOT NULL,
+    new_total DECIMAL(12, 2) NOT NULL,
+    PRIMARY KEY (run_id, student_id),
+    INDEX idx_adjustment_student (student_id)
+);
+
+SELECT COUNT(*) AS recalculation_runs FROM fees_fee_recalculations;
@@ -0,0 +1,21 @@
+-- ============================================
+-- Keys the reg number counters by academic year and width
+-- Run once on databases that already have fees_reg_sequences from
+-- 14_add_reg_number_sequences.sql. Allocators of different widths used to
+-- share one row per year, so one could exhaust the other. The old rows are
+-- dropped: the app recreates each counter on first use, starting after the
+-- highest reg number of that year and width already in use.
+-- ============================================
+
+USE student_fees_db;
+
+DROP TABLE IF EXISTS fees_reg_sequences;
+
+CREATE TABLE fees_reg_sequences (
+    academic_year INT NOT NULL,
+    width INT NOT NULL,
+    next_value BIGINT NOT NULL,
+    PRIMARY KEY (academic_year, width)
+);
+
+SELECT * FROM fees_reg_sequences;
@@ -0,0 +1,23 @@
+-- ============================================
+-- Stamps every balance row with the change that last wrote it
+-- Run once on databases created before the accountant report polled on
+-- fees_student_balances. The report used to poll on the newest payment and
+-- enrollment ids, which missed course price changes and cohort moves. Every
+-- existing row starts at 0, so the next poll after upgrading reads none of them.
+-- ============================================
+
+USE student_fees_db;
+
+ALTER TABLE fees_student_balances
+    ADD COLUMN change_seq BIGINT NOT NULL DEFAULT 0,
+    ADD INDEX idx_balance_change (change_seq);
+
+CREATE TABLE IF NOT EXISTS fees_balance_sequence (
+    id INT PRIMARY KEY,
+    last_value BIGINT NOT NULL
+);
+
+INSERT INTO fees_balance_sequence (id, last_value)
+SELECT 1, 0 FROM DUAL WHERE NOT EXISTS (SELECT 1 FROM fees_balance_sequence WHERE id = 1);
+
+SELECT * FROM fees_balance_sequence;
@@ -0,0 +1,49 @@
+-- ============================================
+-- Lets the accountant report sort and filter on indexes alone
+-- Run once, after 18_add_balance_changes.sql, on databases created before the
+-- report joined fees_student_balances directly. Adds the program and payment
+-- status the report filters on and an index per balance sort. It then fills
+-- in the program and adds the balance row any student is still missing.
+-- ============================================
+
+USE student_fees_db;
+
+ALTER TABLE fees_student_balances
+    ADD COLUMN program VARCHAR(50) NOT NULL DEFAULT '' AFTER student_id,
+    ADD COLUMN status VARCHAR(10) GENERATED ALWAYS AS (
+        CASE WHEN total_fee = 0 THEN 'NO_COURSES'
+             WHEN total_paid <= 0 THEN 'UNPAID'
+             WHEN total_paid >= total_fee THEN 'PAID'
+             ELSE 'PARTIAL' END) AFTER remaining,
+    DROP INDEX idx_balance_remaining,
+    ADD INDEX idx_balance_remaining (remaining, student_id),
+    ADD INDEX idx_balance_fee (total_fee, student_id),
+    ADD INDEX idx_balance_paid (total_paid, student_id),
+    ADD INDEX idx_balance_program_remaining (program, remaining, student_id),
+    ADD INDEX idx_balance_status_remaining (status, remaining, student_id);
+
+UPDATE fees_student_balances b
+  JOIN fees_students s ON s.student_id = b.student_id
+   SET b.program = s.program;
+
+UPDATE fees_balance_sequence SET last_value = last_value + 1 WHERE id = 1;
+
+INSERT INTO fees_student_balances
+       (student_id, program, total_fee, total_paid, remaining, change_seq)
+SELECT s.student_id,
+       s.program,
+       COALESCE(f.total_fee, 0),
+       COALESCE(p.total_paid, 0),
+       COALESCE(f.total_fee, 0) - COALESCE(p.total_paid, 0),
+       (SELECT last_value FROM fees_balance_sequence WHERE id = 1)
+FROM fees_students s
+LEFT JOIN (SELECT e.student_id, SUM(c.price_rwf) AS total_fee
+             FROM fees_enrollments e
+             JOIN fees_courses c ON c.course_id = e.course_id
+            GROUP BY e.student_id) f ON f.student_id = s.student_id
+LEFT JOIN (SELECT student_id, SUM(amount) AS total_paid
+             FROM fees_payments
+            GROUP BY student_id) p ON p.student_id = s.student_id
+WHERE NOT EXISTS (SELECT 1 FROM fees_student_balances b WHERE b.student_id = s.student_id);
+
+SHOW INDEX FROM fees_student_balances;
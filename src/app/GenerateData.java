@@ -0,0 +1,107 @@
+package app;
+
+import database.DBConnection;
+import database.DataGenerator;
+
+/**
+ * Headless entry point that fills the configured database with synthetic students for load and
+ * capacity testing, e.g.
+ *
+ * <pre>
+ * java -Dfees.pool.maxSize=10 -cp ... app.GenerateData --students=1000000 --max-payments=6 \
+ *     --momo-share=0.7 --seed=42 --threads=8 --year=2040 --width=7
+ * </pre>
+ *
+ * <p>The target database is chosen with the usual {@code fees.db.*} system properties. Options
+ * left out keep the {@link DataGenerator} defaults. Reg numbers keep the registrars' width unless
+ * {@code --width} is given, which needs a {@code --year} with no reg numbers yet.
+ */
+public final class GenerateData {
+
+  private GenerateData() {}
+
+  public static void main(String[] args) throws Exception {
+    long seed = 42;
+    for (String arg : args) {
+      if (arg.startsWith("--seed=")) {
+        seed = Long.parseLong(arg.substring("--seed=".length()));
+      }
+    }
+    DataGenerator generator = new DataGenerator(seed);
+    for (String arg : args) {
+      int eq = arg.indexOf('=');
+      if (!arg.startsWith("--") || eq < 0) {
+        usage("Unrecognised argument: " + arg);
+        return;
+      }
+      String name = arg.substring(2, eq);
+      String value = arg.substring(eq + 1);
+      switch (name) {
+        case "students":
+          generator = generator.withStudents(Long.parseLong(value));
+          break;
+        case "max-payments":
+          generator = generator.withMaxPayments(Integer.parseInt(value));
+          break;
+        case "momo-share":
+          generator = generator.withMomoShare(Double.parseDouble(value));
+          break;
+        case "threads":
+          generator = generator.withThreads(Integer.parseInt(value));
+          break;
+        case "batch":
+          generator = generator.withBatchSize(Integer.parseInt(value));
+          break;
+        case "year":
+          generator = generator.withYear(Integer.parseInt(value));
+          break;
+        case "width":
+          generator = generator.withWidth(Integer.parseInt(value));
+          break;
+        case "seed":
+          break;
+        default:
+          usage("Unknown option: --" + name);
+          return;
+      }
+    }
+
+    long start = System.nanoTime();
+    long[] lastPercent = {-1};
+    DataGenerator.Result result =
+        generator.run(
+            (done, total) -> {
+              long percent = done * 100 / total;
+              synchronized (lastPercent) {
+                if (percent > lastPercent[0]) {
+                  lastPercent[0] = percent;
+                  System.out.println(done + " / " + total + " students (" + percent + "%)");
+                }
+              }
+            });
+    long seconds = Math.max(1, (System.nanoTime() - start) / 1_000_000_000L);
+    System.out.println(
+        "Generated "
+            + result.getStudents()
+            + " students ("
+            + result.getFirstRegNumber()
+            + " - "
+            + result.getLastRegNumber()
+            + "), "
+            + result.getEnrollments()
+            + " enrollments and "
+            + result.getPayments()
+            + " payments in "
+            + seconds
+            + " s");
+    DBConnection.closeQuietly();
+  }
+
+  private static void usage(String problem) {
+    System.err.println(problem);
+    System.err.println(
+        "Usage: GenerateData [--students=N] [--max-payments=N] [--momo-share=0..1] [--seed=N]"
+            + " [--threads=N] [--batch=N] [--year=YYYY] [--width=1..9]");
+    System.exit(2);
+  }
+}
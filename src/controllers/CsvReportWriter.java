@@ -0,0 +1,78 @@
+package controllers;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import models.Money;
+
+/**
+ * RFC 4180 CSV in UTF-8 with a byte order mark, so Excel opens names with accents correctly. Text
+ * that would start a spreadsheet formula is prefixed with {@code '}.
+ */
+final class CsvReportWriter implements ReportWriter {
+  private final Writer out;
+  private boolean firstCell = true;
+
+  CsvReportWriter(OutputStream stream) throws IOException {
+    out = new BufferedWriter(new OutputStreamWriter(stream, StandardCharsets.UTF_8), 64 * 1024);
+    out.write('\uFEFF');
+  }
+
+  @Override
+  public void header(String... columns) throws IOException {
+    for (String column : columns) {
+      text(column);
+    }
+    endRow();
+  }
+
+  @Override
+  public void text(String value) throws IOException {
+    separator();
+    if (value == null) {
+      return;
+    }
+    if (!value.isEmpty() && "=+-@".indexOf(value.charAt(0)) >= 0) {
+      value = "'" + value;
+    }
+    if (value.indexOf(',') < 0
+        && value.indexOf('"') < 0
+        && value.indexOf('\n') < 0
+        && value.indexOf('\r') < 0) {
+      out.write(value);
+      return;
+    }
+    out.write('"');
+    out.write(value.replace("\"", "\"\""));
+    out.write('"');
+  }
+
+  @Override
+  public void amount(Money value) throws IOException {
+    separator();
+    if (value != null) {
+      out.write(value.toString());
+    }
+  }
+
+  @Override
+  public void endRow() throws IOException {
+    out.write("\r\n");
+    firstCell = true;
+  }
+
+  @Override
+  public void close() throws IOException {
+    out.close();
+  }
+
+  private void separator() throws IOException {
+    if (!firstCell) {
+      out.write(',');
+    }
+    firstCell = false;
+  }
+}
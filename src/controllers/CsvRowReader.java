@@ -0,0 +1,93 @@
+package controllers;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads RFC 4180 CSV one record at a time, the counterpart of {@link CsvReportWriter}. Quoted
+ * cells may contain commas, doubled quotes and line breaks. A leading byte order mark is skipped.
+ */
+final class CsvRowReader implements Closeable {
+  private final Reader in;
+  private int peeked = -2;
+  private long line = 1;
+  private long recordLine;
+
+  /** {@code in} should be buffered; it is read a character at a time. */
+  CsvRowReader(Reader in) throws IOException {
+    this.in = in;
+    if (peek() == '\uFEFF') {
+      read();
+    }
+  }
+
+  /** The next record's cells, or {@code null} at the end of the input. */
+  List<String> next() throws IOException {
+    if (peek() < 0) {
+      return null;
+    }
+    recordLine = line;
+    List<String> cells = new ArrayList<>();
+    StringBuilder cell = new StringBuilder();
+    boolean quoted = false;
+    while (true) {
+      int c = read();
+      if (quoted) {
+        if (c < 0) {
+          throw new IOException("Unclosed quote in record starting on line " + recordLine);
+        }
+        if (c == '"') {
+          if (peek() == '"') {
+            cell.append((char) read());
+          } else {
+            quoted = false;
+          }
+        } else {
+          cell.append((char) c);
+        }
+      } else if (c == '"' && cell.length() == 0) {
+        quoted = true;
+      } else if (c == ',') {
+        cells.add(cell.toString());
+        cell.setLength(0);
+      } else if (c < 0 || c == '\n' || c == '\r') {
+        if (c == '\r' && peek() == '\n') {
+          read();
+        }
+        cells.add(cell.toString());
+        return cells;
+      } else {
+        cell.append((char) c);
+      }
+    }
+  }
+
+  /** The line the last record returned by {@link #next} started on, counting from 1. */
+  long recordLine() {
+    return recordLine;
+  }
+
+  @Override
+  public void close() throws IOException {
+    in.close();
+  }
+
+  private int peek() throws IOException {
+    if (peeked == -2) {
+      peeked = in.read();
+    }
+    return peeked;
+  }
+
+  private int read() throws IOException {
+    int c = peek();
+    peeked = -2;
+    if (c == '\n' || (c == '\r' && peek() != '\n')) {
+      line++;
+    }
+    return c;
+  }
+}
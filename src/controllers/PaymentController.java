@@ -1,10 +1,10 @@
 package controllers;
 
 import database.FeeAccountDAO;
-import java.math.BigDecimal;
 import java.util.Date;
 import java.util.List;
 import models.FeeSummary;
+import models.Money;
 import models.Payment;
 
 /**
@@ -12,7 +12,7 @@ import models.Payment;
  */
 public class PaymentController {
 
-  public boolean recordPayment(int studentId, BigDecimal amount, String method, String note,
+  public boolean recordPayment(int studentId, Money amount, String method, String note,
       Date paidOn) {
     Payment payment = new Payment(studentId, amount, method, note, paidOn);
     return FeeAccountDAO.recordPayment(payment);
@@ -0,0 +1,102 @@
+package controllers;
+
+import database.AccountantDAO;
+import database.AsyncExecutor;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.SQLException;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Exports the accountant report (one row per student) to CSV or XLSX.
+ *
+ * <p>Rows are streamed from {@link AccountantDAO#streamStudentSummaries} straight into the file,
+ * so memory use does not grow with the number of students. The file is written under a temporary
+ * name and only moved into place when complete; a failed or cancelled export leaves nothing
+ * behind.
+ */
+public final class ReportExporter {
+  private static final int PROGRESS_EVERY = 500;
+
+  /** Output formats, picked from the file extension. */
+  public enum Format {
+    CSV,
+    XLSX;
+
+    public static Format forFile(Path file) {
+      return file.getFileName().toString().toLowerCase().endsWith(".xlsx") ? XLSX : CSV;
+    }
+  }
+
+  /** Told how far an export has got; called on the export thread. */
+  public interface Progress {
+    void update(long rowsWritten, long totalRows);
+  }
+
+  private ReportExporter() {}
+
+  /**
+   * Runs {@link #exportStudentSummaries(Path, Format, Progress)} on {@link AsyncExecutor}.
+   * Cancelling the future stops the export at the next row.
+   */
+  public static CompletableFuture<Long> exportStudentSummariesAsync(
+      Path file, Format format, Progress progress) {
+    return AsyncExecutor.supply(() -> exportStudentSummaries(file, format, progress));
+  }
+
+  /**
+   * Writes every student's summary to {@code file}. Stops with an {@link InterruptedIOException}
+   * if the thread is interrupted.
+   *
+   * @return the number of data rows written
+   */
+  public static long exportStudentSummaries(Path file, Format format, Progress progress)
+      throws IOException, SQLException {
+    // Only for the progress bar; rows added meanwhile just push it past 100%.
+    long total = AccountantDAO.countStudentSummaries();
+    Path dir = file.toAbsolutePath().getParent();
+    Path partial = Files.createTempFile(dir, file.getFileName().toString(), ".part");
+    try {
+      long rows;
+      try (OutputStream stream = Files.newOutputStream(partial);
+          ReportWriter writer = open(format, stream)) {
+        writer.header("Reg Number", "Full Name", "Program", "Total", "Paid", "Remaining");
+        long[] written = {0};
+        rows =
+            AccountantDAO.streamStudentSummaries(
+                s -> {
+                  if (Thread.currentThread().isInterrupted()) {
+                    throw new InterruptedIOException("Export cancelled");
+                  }
+                  writer.text(s.getRegNumber());
+                  writer.text(s.getFullName());
+                  writer.text(s.getProgram());
+                  writer.amount(s.getTotalFee());
+                  writer.amount(s.getTotalPaid());
+                  writer.amount(s.getRemaining());
+                  writer.endRow();
+                  if (++written[0] % PROGRESS_EVERY == 0 && progress != null) {
+                    progress.update(written[0], total);
+                  }
+                });
+      }
+      Files.move(partial, file, StandardCopyOption.REPLACE_EXISTING);
+      if (progress != null) {
+        progress.update(rows, total);
+      }
+      return rows;
+    } finally {
+      Files.deleteIfExists(partial);
+    }
+  }
+
+  private static ReportWriter open(Format format, OutputStream stream) throws IOException {
+    return format == Format.XLSX
+        ? new XlsxReportWriter(stream, "Student Fees")
+        : new CsvReportWriter(stream);
+  }
+}
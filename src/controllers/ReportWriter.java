@@ -0,0 +1,17 @@
+package controllers;
+
+import java.io.Closeable;
+import java.io.IOException;
+import models.Money;
+
+/** Row-at-a-time output for {@link ReportExporter}; cells are either text or amounts. */
+interface ReportWriter extends Closeable {
+
+  void header(String... columns) throws IOException;
+
+  void text(String value) throws IOException;
+
+  void amount(Money value) throws IOException;
+
+  void endRow() throws IOException;
+}
@@ -0,0 +1,358 @@
+package controllers;
+
+import database.AsyncExecutor;
+import database.RegistrarDAO;
+import java.io.BufferedReader;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import models.Course;
+import models.NewStudent;
+
+/**
+ * Registers an intake list of students from a CSV file.
+ *
+ * <p>The first row names the columns, in any order: {@code full_name} and {@code program} are
+ * required, {@code reg_number}, {@code password} and {@code courses} are optional. Courses are
+ * semester 1 course names or ids of the student's program separated by {@code ;}. A blank reg
+ * number is allocated, a blank password becomes {@code 123}, as in the register form.
+ *
+ * <p>The file is read a row at a time and valid rows are saved in chunks of {@code
+ * fees.import.chunkSize} (default 500) with {@link RegistrarDAO#insertStudents}, one transaction
+ * per chunk. Rows that fail validation, and every row of a chunk the database rejects, are
+ * written with the reason to {@code <name>-errors.csv} next to the input. Chunks already saved
+ * stay saved if the import is cancelled or fails later on.
+ */
+public final class StudentImporter {
+  private static final int CHUNK_SIZE = Integer.getInteger("fees.import.chunkSize", 500);
+  private static final int PROGRESS_EVERY = 500;
+  private static final String DEFAULT_PASSWORD = "123";
+
+  /** Told how far an import has got; called on the import thread. */
+  public interface Progress {
+    void update(long bytesRead, long totalBytes, long imported, long rejected);
+  }
+
+  /** Outcome of a finished import. */
+  public static final class Result {
+    private final long imported;
+    private final long rejected;
+    private final Path errorReport;
+
+    Result(long imported, long rejected, Path errorReport) {
+      this.imported = imported;
+      this.rejected = rejected;
+      this.errorReport = errorReport;
+    }
+
+    public long getImported() {
+      return imported;
+    }
+
+    public long getRejected() {
+      return rejected;
+    }
+
+    /** The rejected rows with reasons, or {@code null} if every row was imported. */
+    public Path getErrorReport() {
+      return errorReport;
+    }
+  }
+
+  private StudentImporter() {}
+
+  /**
+   * Runs {@link #importStudents(Path, Progress)} on {@link AsyncExecutor}. Cancelling the future
+   * stops the import before the next chunk is saved.
+   */
+  public static CompletableFuture<Result> importStudentsAsync(Path csv, Progress progress) {
+    return AsyncExecutor.supply(() -> importStudents(csv, progress));
+  }
+
+  /**
+   * Imports every valid row of {@code csv}. Stops with an {@link InterruptedIOException} if the
+   * thread is interrupted.
+   *
+   * @throws IOException if the file cannot be read or lacks a required column
+   */
+  public static Result importStudents(Path csv, Progress progress) throws IOException {
+    Path errors = errorReportFor(csv);
+    Files.deleteIfExists(errors);
+    long totalBytes = Files.size(csv);
+    try (CountingInputStream counted = new CountingInputStream(Files.newInputStream(csv));
+        CsvRowReader reader =
+            new CsvRowReader(
+                new BufferedReader(
+                    new InputStreamReader(counted, StandardCharsets.UTF_8), 64 * 1024));
+        Run run = new Run(errors)) {
+      List<String> header = reader.next();
+      if (header == null) {
+        throw new IOException("The file is empty");
+      }
+      run.mapColumns(header);
+      List<String> cells;
+      long rows = 0;
+      while ((cells = reader.next()) != null) {
+        if (Thread.currentThread().isInterrupted()) {
+          throw new InterruptedIOException("Import cancelled");
+        }
+        run.add(reader.recordLine(), cells);
+        if (++rows % PROGRESS_EVERY == 0 && progress != null) {
+          progress.update(counted.count, totalBytes, run.imported, run.rejected);
+        }
+      }
+      run.flush();
+      if (progress != null) {
+        progress.update(totalBytes, totalBytes, run.imported, run.rejected);
+      }
+      return new Result(run.imported, run.rejected, run.rejected > 0 ? errors : null);
+    }
+  }
+
+  /** {@code intake.csv} -> {@code intake-errors.csv} in the same directory. */
+  public static Path errorReportFor(Path csv) {
+    String name = csv.getFileName().toString();
+    int dot = name.lastIndexOf('.');
+    String base = dot > 0 ? name.substring(0, dot) : name;
+    return csv.toAbsolutePath().resolveSibling(base + "-errors.csv");
+  }
+
+  /** Validation state and the pending chunk of one import. */
+  private static final class Run implements AutoCloseable {
+    private final Path errors;
+    private final Map<String, String> programs = new HashMap<>();
+    private final Map<String, Map<String, Course>> coursesByProgram = new HashMap<>();
+    private final Set<String> seenRegNumbers = new HashSet<>();
+    private final List<Row> chunk = new ArrayList<>(CHUNK_SIZE);
+    private List<String> header;
+    private int colRegNumber = -1;
+    private int colFullName = -1;
+    private int colProgram = -1;
+    private int colPassword = -1;
+    private int colCourses = -1;
+    private ReportWriter errorWriter;
+    private long imported;
+    private long rejected;
+
+    Run(Path errors) {
+      this.errors = errors;
+      // Keyed by upper-case program and course name or id, so the file need not match case.
+      for (Course course : RegistrarDAO.loadAllCourses()) {
+        String program = course.getProgram();
+        programs.put(program.toUpperCase(Locale.ROOT), program);
+        Map<String, Course> courses =
+            coursesByProgram.computeIfAbsent(program, p -> new HashMap<>());
+        courses.put(course.getName().toUpperCase(Locale.ROOT), course);
+        courses.put(Integer.toString(course.getId()), course);
+      }
+    }
+
+    void mapColumns(List<String> names) throws IOException {
+      header = names;
+      for (int i = 0; i < names.size(); i++) {
+        String name = names.get(i).trim().toLowerCase(Locale.ROOT).replace(' ', '_');
+        if (name.equals("reg_number")) {
+          colRegNumber = i;
+        } else if (name.equals("full_name")) {
+          colFullName = i;
+        } else if (name.equals("program")) {
+          colProgram = i;
+        } else if (name.equals("password")) {
+          colPassword = i;
+        } else if (name.equals("courses")) {
+          colCourses = i;
+        }
+      }
+      if (colFullName < 0 || colProgram < 0) {
+        throw new IOException("The first row must name the full_name and program columns");
+      }
+    }
+
+    void add(long line, List<String> cells) throws IOException {
+      if (cells.stream().allMatch(String::isBlank)) {
+        return;
+      }
+      String regNumber = cell(cells, colRegNumber);
+      String fullName = cell(cells, colFullName);
+      String programName = cell(cells, colProgram);
+      String password = cell(cells, colPassword);
+      if (password.isEmpty()) {
+        password = DEFAULT_PASSWORD;
+      }
+      String program = programs.get(programName.toUpperCase(Locale.ROOT));
+
+      String problem = null;
+      if (fullName.isEmpty()) {
+        problem = "Full name is required";
+      } else if (fullName.length() > 100) {
+        problem = "Full name is longer than 100 characters";
+      } else if (program == null) {
+        problem = "Unknown program '" + programName + "'";
+      } else if (regNumber.length() > 20) {
+        problem = "Reg number is longer than 20 characters";
+      } else if (password.length() > 100) {
+        problem = "Password is longer than 100 characters";
+      } else if (!regNumber.isEmpty() && !seenRegNumbers.add(regNumber)) {
+        problem = "Reg number " + regNumber + " appears more than once in the file";
+      }
+      Set<Integer> courseIds = new LinkedHashSet<>();
+      if (problem == null) {
+        Map<String, Course> courses = coursesByProgram.get(program);
+        for (String name : cell(cells, colCourses).split(";")) {
+          if (name.isBlank()) {
+            continue;
+          }
+          Course course = courses.get(name.trim().toUpperCase(Locale.ROOT));
+          if (course == null) {
+            problem = "Unknown course '" + name.trim() + "' for " + program;
+            break;
+          }
+          courseIds.add(course.getId());
+        }
+        if (problem == null && courseIds.isEmpty()) {
+          problem = "At least one course is required";
+        }
+      }
+      if (problem != null) {
+        reject(line, cells, problem);
+        return;
+      }
+      chunk.add(
+          new Row(
+              line,
+              cells,
+              new NewStudent(
+                  regNumber.isEmpty() ? null : regNumber,
+                  fullName,
+                  program,
+                  password,
+                  new ArrayList<>(courseIds))));
+      if (chunk.size() >= CHUNK_SIZE) {
+        flush();
+      }
+    }
+
+    /** Saves the pending chunk, minus rows whose reg number is already taken. */
+    void flush() throws IOException {
+      if (chunk.isEmpty()) {
+        return;
+      }
+      if (Thread.currentThread().isInterrupted()) {
+        throw new InterruptedIOException("Import cancelled");
+      }
+      List<Row> rows = new ArrayList<>(chunk);
+      chunk.clear();
+      try {
+        Set<String> supplied = new HashSet<>();
+        for (Row row : rows) {
+          if (row.student.getRegNumber() != null) {
+            supplied.add(row.student.getRegNumber());
+          }
+        }
+        Set<String> taken = RegistrarDAO.findExistingRegNumbers(supplied);
+        List<NewStudent> students = new ArrayList<>(rows.size());
+        List<Row> saving = new ArrayList<>(rows.size());
+        for (Row row : rows) {
+          if (taken.contains(row.student.getRegNumber())) {
+            reject(row.line, row.cells, "Reg number " + row.student.getRegNumber() + " exists");
+          } else {
+            students.add(row.student);
+            saving.add(row);
+          }
+        }
+        rows = saving;
+        if (!students.isEmpty()) {
+          RegistrarDAO.insertStudents(students);
+          imported += students.size();
+        }
+      } catch (SQLException ex) {
+        ex.printStackTrace();
+        for (Row row : rows) {
+          reject(row.line, row.cells, "Not saved: " + ex.getMessage());
+        }
+      }
+    }
+
+    private void reject(long line, List<String> cells, String reason) throws IOException {
+      if (errorWriter == null) {
+        errorWriter = new CsvReportWriter(Files.newOutputStream(errors));
+        List<String> columns = new ArrayList<>(List.of("Line", "Reason"));
+        columns.addAll(header);
+        errorWriter.header(columns.toArray(new String[0]));
+      }
+      errorWriter.text(Long.toString(line));
+      errorWriter.text(reason);
+      for (String cell : cells) {
+        errorWriter.text(cell);
+      }
+      errorWriter.endRow();
+      rejected++;
+    }
+
+    @Override
+    public void close() throws IOException {
+      if (errorWriter != null) {
+        errorWriter.close();
+      }
+    }
+
+    private static String cell(List<String> cells, int column) {
+      return column >= 0 && column < cells.size() ? cells.get(column).trim() : "";
+    }
+  }
+
+  /** A parsed row, kept with its source line and cells for the error report. */
+  private static final class Row {
+    final long line;
+    final List<String> cells;
+    final NewStudent student;
+
+    Row(long line, List<String> cells, NewStudent student) {
+      this.line = line;
+      this.cells = cells;
+      this.student = student;
+    }
+  }
+
+  /** Counts the bytes read, for the progress bar. */
+  private static final class CountingInputStream extends FilterInputStream {
+    private long count;
+
+    CountingInputStream(InputStream in) {
+      super(in);
+    }
+
+    @Override
+    public int read() throws IOException {
+      int b = super.read();
+      if (b >= 0) {
+        count++;
+      }
+      return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+      int n = super.read(b, off, len);
+      if (n > 0) {
+        count += n;
+      }
+      return n;
+    }
+  }
+}
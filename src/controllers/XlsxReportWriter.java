@@ -0,0 +1,215 @@
+package controllers;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+import models.Money;
+
+/**
+ * Minimal single-sheet .xlsx written straight into the zip stream.
+ *
+ * <p>The fixed workbook parts go out first, then the sheet XML is appended row by row with inline
+ * strings (no shared-string table to hold in memory). Header cells are bold and amounts use the
+ * built-in {@code #,##0.00} format.
+ */
+final class XlsxReportWriter implements ReportWriter {
+  /** Excel's row limit, header included. */
+  static final int MAX_ROWS = 1_048_576;
+
+  private static final String CONTENT_TYPES =
+      "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n"
+          + "<Types xmlns=\"http://schemas.openxmlformats.org/package/2006/content-types\">"
+          + "<Default Extension=\"rels\" "
+          + "ContentType=\"application/vnd.openxmlformats-package.relationships+xml\"/>"
+          + "<Default Extension=\"xml\" ContentType=\"application/xml\"/>"
+          + "<Override PartName=\"/xl/workbook.xml\" ContentType=\"application/"
+          + "vnd.openxmlformats-officedocument.spreadsheetml.sheet.main+xml\"/>"
+          + "<Override PartName=\"/xl/worksheets/sheet1.xml\" ContentType=\"application/"
+          + "vnd.openxmlformats-officedocument.spreadsheetml.worksheet+xml\"/>"
+          + "<Override PartName=\"/xl/styles.xml\" ContentType=\"application/"
+          + "vnd.openxmlformats-officedocument.spreadsheetml.styles+xml\"/>"
+          + "</Types>";
+
+  private static final String ROOT_RELS =
+      "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n"
+          + "<Relationships xmlns=\"http://schemas.openxmlformats.org/package/2006/relationships\">"
+          + "<Relationship Id=\"rId1\" Type=\"http://schemas.openxmlformats.org/officeDocument/2006/"
+          + "relationships/officeDocument\" Target=\"xl/workbook.xml\"/>"
+          + "</Relationships>";
+
+  private static final String WORKBOOK_RELS =
+      "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n"
+          + "<Relationships xmlns=\"http://schemas.openxmlformats.org/package/2006/relationships\">"
+          + "<Relationship Id=\"rId1\" Type=\"http://schemas.openxmlformats.org/officeDocument/2006/"
+          + "relationships/worksheet\" Target=\"worksheets/sheet1.xml\"/>"
+          + "<Relationship Id=\"rId2\" Type=\"http://schemas.openxmlformats.org/officeDocument/2006/"
+          + "relationships/styles\" Target=\"styles.xml\"/>"
+          + "</Relationships>";
+
+  private static final String STYLES =
+      "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n"
+          + "<styleSheet xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\">"
+          + "<fonts count=\"2\"><font><sz val=\"11\"/><name val=\"Calibri\"/></font>"
+          + "<font><b/><sz val=\"11\"/><name val=\"Calibri\"/></font></fonts>"
+          + "<fills count=\"2\"><fill><patternFill patternType=\"none\"/></fill>"
+          + "<fill><patternFill patternType=\"gray125\"/></fill></fills>"
+          + "<borders count=\"1\"><border><left/><right/><top/><bottom/><diagonal/></border>"
+          + "</borders>"
+          + "<cellStyleXfs count=\"1\"><xf numFmtId=\"0\" fontId=\"0\" fillId=\"0\" borderId=\"0\"/>"
+          + "</cellStyleXfs>"
+          + "<cellXfs count=\"3\">"
+          + "<xf numFmtId=\"0\" fontId=\"0\" fillId=\"0\" borderId=\"0\" xfId=\"0\"/>"
+          + "<xf numFmtId=\"0\" fontId=\"1\" fillId=\"0\" borderId=\"0\" xfId=\"0\" "
+          + "applyFont=\"1\"/>"
+          + "<xf numFmtId=\"4\" fontId=\"0\" fillId=\"0\" borderId=\"0\" xfId=\"0\" "
+          + "applyNumberFormat=\"1\"/>"
+          + "</cellXfs>"
+          + "<cellStyles count=\"1\"><cellStyle name=\"Normal\" xfId=\"0\" builtinId=\"0\"/>"
+          + "</cellStyles>"
+          + "</styleSheet>";
+
+  private static final int STYLE_BOLD = 1;
+  private static final int STYLE_AMOUNT = 2;
+
+  private final ZipOutputStream zip;
+  private final Writer out;
+  private final String sheetName;
+  private int row;
+  private boolean rowOpen;
+
+  XlsxReportWriter(OutputStream stream, String sheetName) throws IOException {
+    this.sheetName = sheetName;
+    zip = new ZipOutputStream(new BufferedOutputStream(stream, 64 * 1024));
+    out = new OutputStreamWriter(zip, StandardCharsets.UTF_8);
+    part("[Content_Types].xml", CONTENT_TYPES);
+    part("_rels/.rels", ROOT_RELS);
+    part("xl/_rels/workbook.xml.rels", WORKBOOK_RELS);
+    part("xl/styles.xml", STYLES);
+    part(
+        "xl/workbook.xml",
+        "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n"
+            + "<workbook xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\" "
+            + "xmlns:r=\"http://schemas.openxmlformats.org/officeDocument/2006/relationships\">"
+            + "<sheets><sheet name=\""
+            + escape(sheetName)
+            + "\" sheetId=\"1\" r:id=\"rId1\"/></sheets></workbook>");
+    zip.putNextEntry(new ZipEntry("xl/worksheets/sheet1.xml"));
+    out.write(
+        "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n"
+            + "<worksheet xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\">"
+            + "<sheetData>");
+  }
+
+  @Override
+  public void header(String... columns) throws IOException {
+    for (String column : columns) {
+      openRow();
+      out.write("<c t=\"inlineStr\" s=\"" + STYLE_BOLD + "\"><is><t>");
+      out.write(escape(column));
+      out.write("</t></is></c>");
+    }
+    endRow();
+  }
+
+  @Override
+  public void text(String value) throws IOException {
+    openRow();
+    if (value == null) {
+      out.write("<c/>");
+      return;
+    }
+    out.write("<c t=\"inlineStr\"><is><t xml:space=\"preserve\">");
+    out.write(escape(value));
+    out.write("</t></is></c>");
+  }
+
+  @Override
+  public void amount(Money value) throws IOException {
+    openRow();
+    if (value == null) {
+      out.write("<c/>");
+      return;
+    }
+    out.write("<c s=\"" + STYLE_AMOUNT + "\"><v>");
+    out.write(value.toString());
+    out.write("</v></c>");
+  }
+
+  @Override
+  public void endRow() throws IOException {
+    openRow();
+    out.write("</row>");
+    rowOpen = false;
+  }
+
+  @Override
+  public void close() throws IOException {
+    try {
+      out.write("</sheetData></worksheet>");
+      out.flush();
+      zip.closeEntry();
+    } finally {
+      zip.close();
+    }
+  }
+
+  private void openRow() throws IOException {
+    if (rowOpen) {
+      return;
+    }
+    if (row == MAX_ROWS) {
+      throw new IOException("Sheet '" + sheetName + "' is full (" + MAX_ROWS + " rows)");
+    }
+    row++;
+    out.write("<row r=\"" + row + "\">");
+    rowOpen = true;
+  }
+
+  private void part(String name, String content) throws IOException {
+    zip.putNextEntry(new ZipEntry(name));
+    out.write(content);
+    out.flush();
+    zip.closeEntry();
+  }
+
+  /** XML-escapes text and drops control characters XML 1.0 cannot carry. */
+  private static String escape(String value) {
+    StringBuilder sb = null;
+    for (int i = 0; i < value.length(); i++) {
+      char ch = value.charAt(i);
+      String replacement;
+      switch (ch) {
+        case '&':
+          replacement = "&amp;";
+          break;
+        case '<':
+          replacement = "&lt;";
+          break;
+        case '>':
+          replacement = "&gt;";
+          break;
+        case '"':
+          replacement = "&quot;";
+          break;
+        default:
+          replacement = ch < 0x20 && ch != '\t' && ch != '\n' && ch != '\r' ? "" : null;
+      }
+      if (replacement != null && sb == null) {
+        sb = new StringBuilder(value.length() + 16).append(value, 0, i);
+      }
+      if (sb != null) {
+        if (replacement != null) {
+          sb.append(replacement);
+        } else {
+          sb.append(ch);
+        }
+      }
+    }
+    return sb == null ? value : sb.toString();
+  }
+}
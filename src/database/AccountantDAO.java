@@ -1,72 +1,327 @@
 package database;
 
-import java.math.BigDecimal;
+import java.io.IOException;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.List;
+import models.AccountantReportDelta;
 import models.AccountantStudentSummary;
+import models.Money;
 import models.Payment;
+import models.PaymentStatus;
+import models.StudentSummaryQuery;
 
 /** Data helpers for the accountant dashboard/report. */
 public final class AccountantDAO {
+  /**
+   * {@code b.status} is the {@link PaymentStatus} of the row, by the rules of {@link
+   * PaymentStatus#of}, kept by the database as a generated column so the report can filter on it.
+   */
+  private static final String SUMMARY_COLUMNS =
+      "SELECT s.student_id, s.reg_number, s.full_name, s.program, "
+          + "       b.total_fee, b.total_paid, b.status AS payment_status ";
+
+  /** Every student has a balance row from the transaction that creates it, so an inner join. */
+  private static final String FROM =
+      "FROM fees_students s JOIN fees_student_balances b ON b.student_id = s.student_id ";
+
+  private static final String SUMMARY_SELECT = SUMMARY_COLUMNS + FROM;
+
+  /**
+   * The students every report query covers: those with a reg number. Rows without one (from the
+   * old {@link StudentDAO} screen) can be neither paged by reg number nor logged in with, so the
+   * table, its count, the print-out and the export all leave them out alike.
+   */
+  private static final String REGISTERED = "s.reg_number IS NOT NULL ";
+
+  /** Receives report rows one at a time from {@link #streamStudentSummaries}. */
+  public interface SummaryHandler {
+    void accept(AccountantStudentSummary row) throws IOException;
+  }
 
   private AccountantDAO() {}
 
   /**
    * Returns one summary row per student with total fee (from enrolled courses), total paid, and
-   * remaining.
+   * remaining, read from the maintained {@code fees_student_balances} table.
    */
   public static List<AccountantStudentSummary> loadStudentSummaries() {
     List<AccountantStudentSummary> list = new ArrayList<>();
 
-    String sql =
-        "SELECT s.student_id, s.reg_number, s.full_name, s.program, "
-            + "       COALESCE(SUM(c.price_rwf), 0) AS total_fee, "
-            + "       (SELECT COALESCE(SUM(p.amount), 0) "
-            + "          FROM fees_payments p "
-            + "         WHERE p.student_id = s.student_id) AS total_paid "
-            + "FROM fees_students s "
-            + "LEFT JOIN fees_enrollments e ON e.student_id = s.student_id "
-            + "LEFT JOIN fees_courses c ON c.course_id = e.course_id "
-            + "GROUP BY s.student_id, s.reg_number, s.full_name, s.program "
-            + "ORDER BY s.reg_number";
+    String sql = SUMMARY_SELECT + "WHERE " + REGISTERED + "ORDER BY s.reg_number";
 
     try (Connection conn = DBConnection.getConnection();
         PreparedStatement ps = conn.prepareStatement(sql);
         ResultSet rs = ps.executeQuery()) {
 
       while (rs.next()) {
-        BigDecimal totalFee = rs.getBigDecimal("total_fee");
-        if (totalFee == null) {
-          totalFee = BigDecimal.ZERO;
+        list.add(readSummary(rs));
+      }
+    } catch (Exception ex) {
+      ex.printStackTrace();
+    }
+
+    return list;
+  }
+
+  /**
+   * Feeds every summary row, in reg-number order, to {@code handler} without collecting them. The
+   * query runs forward-only with MySQL row streaming, so memory stays flat however many students
+   * there are. Unlike the other helpers, failures are thrown so an export can report them.
+   *
+   * @return the number of rows handed to {@code handler}
+   */
+  public static long streamStudentSummaries(SummaryHandler handler)
+      throws SQLException, IOException {
+    return stream(SUMMARY_SELECT + "WHERE " + REGISTERED + "ORDER BY s.reg_number", null, handler);
+  }
+
+  /**
+   * {@link #streamStudentSummaries(SummaryHandler)} for the rows of {@code query} in its order,
+   * i.e. what the report table shows.
+   */
+  public static long streamStudentSummaries(StudentSummaryQuery query, SummaryHandler handler)
+      throws SQLException, IOException {
+    ReportSql report = new ReportSql(query);
+    return stream(SUMMARY_COLUMNS + FROM + report.where + report.orderBy(), report, handler);
+  }
+
+  /** Every row of {@code query} in its order, e.g. to print the report as it is shown. */
+  public static List<AccountantStudentSummary> loadStudentSummaries(StudentSummaryQuery query) {
+    List<AccountantStudentSummary> list = new ArrayList<>();
+    try {
+      streamStudentSummaries(query, list::add);
+    } catch (Exception ex) {
+      ex.printStackTrace();
+      return new ArrayList<>();
+    }
+    return list;
+  }
+
+  private static long stream(String sql, ReportSql report, SummaryHandler handler)
+      throws SQLException, IOException {
+    long rows = 0;
+    try (Connection conn = DBConnection.getConnection();
+        PreparedStatement ps =
+            conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+      ps.setFetchSize(streamingFetchSize(conn));
+      if (report != null) {
+        report.bind(ps);
+      }
+      try (ResultSet rs = ps.executeQuery()) {
+        while (rs.next()) {
+          handler.accept(readSummary(rs));
+          rows++;
         }
-        BigDecimal totalPaid = rs.getBigDecimal("total_paid");
-        if (totalPaid == null) {
-          totalPaid = BigDecimal.ZERO;
+      }
+    }
+    return rows;
+  }
+
+  /** Number of rows in the unfiltered report. */
+  public static int countStudentSummaries() {
+    return countStudentSummaries(StudentSummaryQuery.ALL);
+  }
+
+  /** Number of students that pass the filters of {@code query}. */
+  public static int countStudentSummaries(StudentSummaryQuery query) {
+    try (Connection conn = DBConnection.getConnection()) {
+      return countStudentSummaries(conn, query);
+    } catch (Exception ex) {
+      ex.printStackTrace();
+      return 0;
+    }
+  }
+
+  /**
+   * Current balance change watermark and student count, with no rows. Take it before loading the
+   * report so that {@link #loadReportChangesSince} later misses nothing.
+   */
+  public static AccountantReportDelta loadReportWatermark() {
+    return loadReportWatermark(StudentSummaryQuery.ALL);
+  }
+
+  /** Like {@link #loadReportWatermark()}, counting only the students that pass {@code query}. */
+  public static AccountantReportDelta loadReportWatermark(StudentSummaryQuery query) {
+    try (Connection conn = DBConnection.getConnection()) {
+      return new AccountantReportDelta(
+          StudentBalanceDAO.lastChange(conn),
+          countStudentSummaries(conn, query),
+          new ArrayList<>());
+    } catch (Exception ex) {
+      ex.printStackTrace();
+      return null;
+    }
+  }
+
+  /**
+   * Summary rows of the students whose balance changed after {@code afterChange}, plus the new
+   * watermark. Every balance write (payments, enrollments, cohort moves, price changes) stamps the
+   * rows it changes from one sequence, and only those rows are read, via {@code
+   * idx_balance_change}, so an idle poll reads nothing. Returns {@code null} on error.
+   */
+  public static AccountantReportDelta loadReportChangesSince(long afterChange) {
+    return loadReportChangesSince(StudentSummaryQuery.ALL, afterChange);
+  }
+
+  /**
+   * Like {@link #loadReportChangesSince(long)}, counting only the students that pass {@code
+   * query}. Changed rows are returned whether they pass or not, so a caller can see rows that have
+   * just left the filter.
+   */
+  public static AccountantReportDelta loadReportChangesSince(
+      StudentSummaryQuery query, long afterChange) {
+    String sql =
+        SUMMARY_SELECT
+            + "WHERE b.change_seq > ? AND b.change_seq <= ? AND "
+            + REGISTERED
+            + "ORDER BY s.reg_number";
+    try (Connection conn = DBConnection.getConnection()) {
+      // Read the upper bound first; anything committed after this waits for the next call.
+      long lastChange = StudentBalanceDAO.lastChange(conn);
+      List<AccountantStudentSummary> changed = new ArrayList<>();
+      if (lastChange > afterChange) {
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+          ps.setLong(1, afterChange);
+          ps.setLong(2, lastChange);
+          try (ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+              changed.add(readSummary(rs));
+            }
+          }
         }
-        BigDecimal remaining = totalFee.subtract(totalPaid);
-
-        list.add(
-            new AccountantStudentSummary(
-                rs.getInt("student_id"),
-                rs.getString("reg_number"),
-                rs.getString("full_name"),
-                rs.getString("program"),
-                totalFee,
-                totalPaid,
-                remaining));
       }
+      return new AccountantReportDelta(lastChange, countStudentSummaries(conn, query), changed);
     } catch (Exception ex) {
       ex.printStackTrace();
+      return null;
     }
+  }
+
+  private static int countStudentSummaries(Connection conn, StudentSummaryQuery query)
+      throws SQLException {
+    ReportSql report = new ReportSql(query);
+    String sql = "SELECT COUNT(*) " + FROM + report.where;
+    try (PreparedStatement ps = conn.prepareStatement(sql)) {
+      report.bind(ps);
+      try (ResultSet rs = ps.executeQuery()) {
+        return rs.next() ? rs.getInt(1) : 0;
+      }
+    }
+  }
 
+  /**
+   * Returns up to {@code limit} rows of {@code query} in its sort order, starting just after the
+   * row {@code after} ({@code null} for the first page). Pages seek on the index behind the sort
+   * column with a (sort value, student id) key, so every page costs the same no matter how far
+   * into the list it is, and a top-N such as the 100 largest balances in one program reads the
+   * balance index from the top instead of sorting every student.
+   */
+  public static List<AccountantStudentSummary> loadStudentSummaryPage(
+      StudentSummaryQuery query, AccountantStudentSummary after, int limit) {
+    try {
+      return queryStudentSummaryPage(query, after, limit);
+    } catch (Exception ex) {
+      ex.printStackTrace();
+      return new ArrayList<>();
+    }
+  }
+
+  /**
+   * {@link #loadStudentSummaryPage} with failures thrown, so the report never caches an empty page
+   * from a query that did not run.
+   */
+  static List<AccountantStudentSummary> queryStudentSummaryPage(
+      StudentSummaryQuery query, AccountantStudentSummary after, int limit) throws SQLException {
+    List<AccountantStudentSummary> list = new ArrayList<>();
+    ReportSql report = new ReportSql(query);
+    if (after != null) {
+      report.after(after);
+    }
+    String sql = SUMMARY_COLUMNS + FROM + report.where + report.orderBy() + "LIMIT ?";
+    try (Connection conn = DBConnection.getConnection();
+        PreparedStatement ps = conn.prepareStatement(sql)) {
+      ps.setInt(report.bind(ps), limit);
+      try (ResultSet rs = ps.executeQuery()) {
+        while (rs.next()) {
+          list.add(readSummary(rs));
+        }
+      }
+    }
     return list;
   }
 
+  /**
+   * Row at zero-based {@code offset} in the order of {@code query}, or {@code null} past the end.
+   * Lets the report jump straight to a page whose predecessor was never loaded.
+   */
+  public static AccountantStudentSummary findStudentSummaryAt(
+      StudentSummaryQuery query, int offset) {
+    try {
+      return queryStudentSummaryAt(query, offset);
+    } catch (Exception ex) {
+      ex.printStackTrace();
+      return null;
+    }
+  }
+
+  /** {@link #findStudentSummaryAt} with failures thrown rather than read as the end. */
+  static AccountantStudentSummary queryStudentSummaryAt(StudentSummaryQuery query, int offset)
+      throws SQLException {
+    ReportSql report = new ReportSql(query);
+    String sql =
+        SUMMARY_COLUMNS + FROM + report.where + report.orderBy() + "LIMIT 1 OFFSET ?";
+    try (Connection conn = DBConnection.getConnection();
+        PreparedStatement ps = conn.prepareStatement(sql)) {
+      ps.setInt(report.bind(ps), offset);
+      try (ResultSet rs = ps.executeQuery()) {
+        return rs.next() ? readSummary(rs) : null;
+      }
+    }
+  }
+
+  /**
+   * Connector/J only streams row by row when the fetch size is {@code Integer.MIN_VALUE}; other
+   * drivers reject a negative size, so they get an ordinary batch size.
+   */
+  private static int streamingFetchSize(Connection conn) throws SQLException {
+    return conn.getMetaData().getDriverName().contains("MySQL") ? Integer.MIN_VALUE : 1000;
+  }
+
+  private static AccountantStudentSummary readSummary(ResultSet rs) throws SQLException {
+    Money totalFee = Money.ofNullable(rs.getBigDecimal("total_fee"));
+    Money totalPaid = Money.ofNullable(rs.getBigDecimal("total_paid"));
+    Money remaining = totalFee.minus(totalPaid);
+
+    return new AccountantStudentSummary(
+        rs.getInt("student_id"),
+        rs.getString("reg_number"),
+        rs.getString("full_name"),
+        rs.getString("program"),
+        totalFee,
+        totalPaid,
+        remaining,
+        PaymentStatus.valueOf(rs.getString("payment_status").trim()));
+  }
+
   /** Loads payment history for one student, for the detail panel. */
   public static List<Payment> loadPaymentsForStudent(int studentId) {
+    try {
+      return queryPaymentsForStudent(studentId);
+    } catch (Exception ex) {
+      ex.printStackTrace();
+      return new ArrayList<>();
+    }
+  }
+
+  /**
+   * {@link #loadPaymentsForStudent} with failures thrown, so {@link PaymentHistoryCache} never
+   * keeps an empty history from a query that did not run.
+   */
+  static List<Payment> queryPaymentsForStudent(int studentId) throws SQLException {
     List<Payment> payments = new ArrayList<>();
     String sql =
         "SELECT payment_id, student_id, amount, method, note, paid_on "
@@ -80,17 +335,114 @@ public final class AccountantDAO {
               new Payment(
                   rs.getInt("payment_id"),
                   rs.getInt("student_id"),
-                  rs.getBigDecimal("amount"),
+                  Money.of(rs.getBigDecimal("amount")),
                   rs.getString("method"),
                   rs.getString("note"),
                   rs.getDate("paid_on")));
         }
       }
-    } catch (Exception ex) {
-      ex.printStackTrace();
     }
     return payments;
   }
-}
 
+  /** WHERE and ORDER BY for a {@link StudentSummaryQuery}, with parameters in order. */
+  private static final class ReportSql {
+    final StringBuilder where = new StringBuilder("WHERE " + REGISTERED);
+    private final List<Object> params = new ArrayList<>();
+    private final StudentSummaryQuery.SortKey key;
+    private final String sortColumn;
+    private final String idColumn;
+    private final boolean descending;
 
+    ReportSql(StudentSummaryQuery query) {
+      key = query.getSortKey();
+      descending = query.isDescending();
+      sortColumn = sortColumn(key);
+      // Filter and break ties on the table being sorted, so the (program, sort column, student
+      // id) and (sort column, student id) indexes can serve the whole query.
+      String sorted = key.isBalance() ? "b" : "s";
+      idColumn = sorted + ".student_id";
+      if (query.getProgram() != null) {
+        where.append("AND ").append(sorted).append(".program = ? ");
+        params.add(query.getProgram());
+      }
+      if (query.getStatus() != null) {
+        where.append("AND b.status = ? ");
+        params.add(query.getStatus().name());
+      }
+      if (query.getMinRemaining() != null) {
+        where.append("AND b.remaining >= ? ");
+        params.add(query.getMinRemaining().toBigDecimal());
+      }
+      if (query.getMaxRemaining() != null) {
+        where.append("AND b.remaining <= ? ");
+        params.add(query.getMaxRemaining().toBigDecimal());
+      }
+    }
+
+    /** Keeps only rows that sort after {@code row}: a row-value seek into the sort index. */
+    void after(AccountantStudentSummary row) {
+      String op = descending ? "<" : ">";
+      if (key == StudentSummaryQuery.SortKey.REG_NUMBER) {
+        where.append("AND s.reg_number ").append(op).append(" ? ");
+        params.add(row.getRegNumber());
+        return;
+      }
+      where
+          .append("AND (").append(sortColumn).append(", ").append(idColumn).append(") ")
+          .append(op).append(" (?, ?) ");
+      params.add(sortValue(row));
+      params.add(row.getStudentId());
+    }
+
+    String orderBy() {
+      String direction = descending ? " DESC" : " ASC";
+      return key == StudentSummaryQuery.SortKey.REG_NUMBER
+          ? "ORDER BY s.reg_number" + direction + " "
+          : "ORDER BY " + sortColumn + direction + ", " + idColumn + direction + " ";
+    }
+
+    /** Sets the parameters; returns the index of the next one. */
+    int bind(PreparedStatement ps) throws SQLException {
+      int i = 1;
+      for (Object param : params) {
+        ps.setObject(i++, param);
+      }
+      return i;
+    }
+
+    private static String sortColumn(StudentSummaryQuery.SortKey key) {
+      switch (key) {
+        case FULL_NAME:
+          return "s.full_name";
+        case PROGRAM:
+          return "s.program";
+        case TOTAL_FEE:
+          return "b.total_fee";
+        case TOTAL_PAID:
+          return "b.total_paid";
+        case REMAINING:
+          return "b.remaining";
+        default:
+          return "s.reg_number";
+      }
+    }
+
+    private Object sortValue(AccountantStudentSummary row) {
+      switch (key) {
+        case FULL_NAME:
+          return row.getFullName();
+        case PROGRAM:
+          return row.getProgram();
+        case TOTAL_FEE:
+          return row.getTotalFee().toBigDecimal();
+        case TOTAL_PAID:
+          return row.getTotalPaid().toBigDecimal();
+        case REMAINING:
+          return row.getRemaining().toBigDecimal();
+        default:
+          return row.getRegNumber();
+      }
+    }
+  }
+}
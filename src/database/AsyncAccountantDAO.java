@@ -0,0 +1,81 @@
+package database;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import models.AccountantReportDelta;
+import models.AccountantStudentSummary;
+import models.Payment;
+import models.StudentSummaryQuery;
+
+/** Non-blocking facade over {@link AccountantDAO}; each call runs on {@link AsyncExecutor}. */
+public final class AsyncAccountantDAO {
+  private static final PaymentHistoryCache PAYMENTS =
+      new PaymentHistoryCache(
+          Integer.getInteger("fees.paymentCache.size", 500),
+          studentId -> AsyncExecutor.supply(() -> AccountantDAO.queryPaymentsForStudent(studentId)));
+
+  private AsyncAccountantDAO() {}
+
+  public static CompletableFuture<List<AccountantStudentSummary>> loadStudentSummaries() {
+    return AsyncExecutor.supply(AccountantDAO::loadStudentSummaries);
+  }
+
+  public static CompletableFuture<List<AccountantStudentSummary>> loadStudentSummaries(
+      StudentSummaryQuery query) {
+    return AsyncExecutor.supply(() -> AccountantDAO.loadStudentSummaries(query));
+  }
+
+  public static CompletableFuture<Integer> countStudentSummaries() {
+    return AsyncExecutor.supply(AccountantDAO::countStudentSummaries);
+  }
+
+  public static CompletableFuture<Integer> countStudentSummaries(StudentSummaryQuery query) {
+    return AsyncExecutor.supply(() -> AccountantDAO.countStudentSummaries(query));
+  }
+
+  public static CompletableFuture<List<AccountantStudentSummary>> loadStudentSummaryPage(
+      StudentSummaryQuery query, AccountantStudentSummary after, int limit) {
+    return AsyncExecutor.supply(() -> AccountantDAO.queryStudentSummaryPage(query, after, limit));
+  }
+
+  public static CompletableFuture<AccountantStudentSummary> findStudentSummaryAt(
+      StudentSummaryQuery query, int offset) {
+    return AsyncExecutor.supply(() -> AccountantDAO.queryStudentSummaryAt(query, offset));
+  }
+
+  public static CompletableFuture<AccountantReportDelta> loadReportWatermark(
+      StudentSummaryQuery query) {
+    return AsyncExecutor.supply(() -> AccountantDAO.loadReportWatermark(query));
+  }
+
+  public static CompletableFuture<AccountantReportDelta> loadReportChangesSince(
+      StudentSummaryQuery query, long afterChange) {
+    return AsyncExecutor.supply(() -> AccountantDAO.loadReportChangesSince(query, afterChange));
+  }
+
+  /**
+   * The student's payment history, served from an LRU cache of recent students (size {@code
+   * fees.paymentCache.size}, default 500) when possible. The list is read-only.
+   */
+  public static CompletableFuture<List<Payment>> loadPaymentsForStudent(int studentId) {
+    return PAYMENTS.get(studentId);
+  }
+
+  /** The cached payment history if it is already loaded, else {@code null}; never queries. */
+  public static List<Payment> cachedPaymentsForStudent(int studentId) {
+    return PAYMENTS.getIfLoaded(studentId);
+  }
+
+  /** Warms the payment cache for a student the user is likely to look at next. */
+  public static void prefetchPaymentsForStudent(int studentId) {
+    PAYMENTS.prefetch(studentId);
+  }
+
+  /**
+   * Drops the student's cached payments. The DAOs that record payments call this themselves; the
+   * dashboard calls it for changes made by other processes.
+   */
+  public static void invalidatePaymentsForStudent(int studentId) {
+    PAYMENTS.invalidate(studentId);
+  }
+}
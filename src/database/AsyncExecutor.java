@@ -0,0 +1,72 @@
+package database;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Runs blocking DAO calls on virtual threads for the {@code Async*DAO} facades.
+ *
+ * <p>At most {@code fees.async.maxConcurrency} calls (default: the pool's max size) touch the
+ * database at once; the rest park cheaply on a semaphore instead of queueing on the pool's borrow
+ * timeout. Cancelling a returned future interrupts the task if it is still waiting or running.
+ */
+public final class AsyncExecutor {
+  private static final int MAX_CONCURRENCY =
+      Integer.getInteger(
+          "fees.async.maxConcurrency", Integer.getInteger("fees.pool.maxSize", 10));
+
+  private static final ExecutorService EXECUTOR =
+      Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("dao-async-", 0).factory());
+  private static final Semaphore PERMITS = new Semaphore(MAX_CONCURRENCY);
+
+  private AsyncExecutor() {}
+
+  public static int getMaxConcurrency() {
+    return MAX_CONCURRENCY;
+  }
+
+  /** Submits {@code task}; the future completes with its result or exception. */
+  public static <T> CompletableFuture<T> supply(Callable<T> task) {
+    CancellableFuture<T> result = new CancellableFuture<>();
+    result.task =
+        EXECUTOR.submit(
+            () -> {
+              if (result.isDone()) {
+                return;
+              }
+              try {
+                PERMITS.acquire();
+              } catch (InterruptedException e) {
+                result.completeExceptionally(e);
+                return;
+              }
+              try {
+                result.complete(task.call());
+              } catch (Throwable t) {
+                result.completeExceptionally(t);
+              } finally {
+                PERMITS.release();
+              }
+            });
+    return result;
+  }
+
+  /** Future whose {@code cancel} also interrupts the virtual thread running the task. */
+  private static final class CancellableFuture<T> extends CompletableFuture<T> {
+    private volatile Future<?> task;
+
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+      boolean cancelled = super.cancel(mayInterruptIfRunning);
+      Future<?> running = task;
+      if (cancelled && running != null) {
+        running.cancel(true);
+      }
+      return cancelled;
+    }
+  }
+}
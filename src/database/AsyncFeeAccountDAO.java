@@ -0,0 +1,24 @@
+package database;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import models.FeeSummary;
+import models.Payment;
+
+/** Non-blocking facade over {@link FeeAccountDAO}; each call runs on {@link AsyncExecutor}. */
+public final class AsyncFeeAccountDAO {
+
+  private AsyncFeeAccountDAO() {}
+
+  public static CompletableFuture<Boolean> recordPayment(Payment payment) {
+    return AsyncExecutor.supply(() -> FeeAccountDAO.recordPayment(payment));
+  }
+
+  public static CompletableFuture<List<Payment>> fetchPayments(int studentId) {
+    return AsyncExecutor.supply(() -> FeeAccountDAO.fetchPayments(studentId));
+  }
+
+  public static CompletableFuture<FeeSummary> fetchFeeSummary(int studentId) {
+    return AsyncExecutor.supply(() -> FeeAccountDAO.fetchFeeSummary(studentId));
+  }
+}
@@ -0,0 +1,72 @@
+package database;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import models.Course;
+import models.Money;
+import models.NewStudent;
+import models.Registration;
+
+/** Non-blocking facade over {@link RegistrarDAO}; each call runs on {@link AsyncExecutor}. */
+public final class AsyncRegistrarDAO {
+
+  private AsyncRegistrarDAO() {}
+
+  public static CompletableFuture<List<Course>> loadCoursesForProgram(String program) {
+    return AsyncExecutor.supply(() -> RegistrarDAO.loadCoursesForProgram(program));
+  }
+
+  public static CompletableFuture<List<Course>> loadAllCourses() {
+    return AsyncExecutor.supply(RegistrarDAO::loadAllCourses);
+  }
+
+  public static CompletableFuture<Integer> createStudent(
+      String regNumber, String fullName, String program, String password) {
+    return AsyncExecutor.supply(
+        () -> RegistrarDAO.createStudent(regNumber, fullName, program, password));
+  }
+
+  public static CompletableFuture<Registration> registerStudent(NewStudent student) {
+    return AsyncExecutor.supply(() -> RegistrarDAO.registerStudent(student));
+  }
+
+  public static CompletableFuture<Boolean> enrollStudentInCourses(
+      int studentId, List<Integer> courseIds) {
+    return AsyncExecutor.supply(() -> RegistrarDAO.enrollStudentInCourses(studentId, courseIds));
+  }
+
+  public static CompletableFuture<String> generateNextRegNumber() {
+    return AsyncExecutor.supply(RegistrarDAO::generateNextRegNumber);
+  }
+
+  public static CompletableFuture<Money> computeTotalFee(List<Integer> courseIds) {
+    return AsyncExecutor.supply(() -> RegistrarDAO.computeTotalFee(courseIds));
+  }
+
+  public static CompletableFuture<Boolean> addCourse(String program, String name, Money price) {
+    return AsyncExecutor.supply(() -> RegistrarDAO.addCourse(program, name, price));
+  }
+
+  public static CompletableFuture<Boolean> updateCourse(
+      int id, String program, String name, Money price) {
+    return AsyncExecutor.supply(() -> RegistrarDAO.updateCourse(id, program, name, price));
+  }
+
+  public static CompletableFuture<Boolean> deleteCourse(int id) {
+    return AsyncExecutor.supply(() -> RegistrarDAO.deleteCourse(id));
+  }
+
+  public static CompletableFuture<Boolean> deleteStudent(String regNumber) {
+    return AsyncExecutor.supply(() -> RegistrarDAO.deleteStudent(regNumber));
+  }
+
+  public static CompletableFuture<List<Registration>> loadEnrolledStudentPage(
+      String search, String afterRegNumber, int limit) {
+    return AsyncExecutor.supply(
+        () -> RegistrarDAO.loadEnrolledStudentPage(search, afterRegNumber, limit));
+  }
+
+  public static CompletableFuture<Registration> loadEnrolledStudent(String regNumber) {
+    return AsyncExecutor.supply(() -> RegistrarDAO.loadEnrolledStudent(regNumber));
+  }
+}
@@ -0,0 +1,32 @@
+package database;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import models.FeeSummary;
+import models.Money;
+import models.Payment;
+import models.StudentInfo;
+
+/** Non-blocking facade over {@link StudentPortalDAO}; each call runs on {@link AsyncExecutor}. */
+public final class AsyncStudentPortalDAO {
+
+  private AsyncStudentPortalDAO() {}
+
+  public static CompletableFuture<StudentInfo> loadStudentInfo(int studentId) {
+    return AsyncExecutor.supply(() -> StudentPortalDAO.loadStudentInfo(studentId));
+  }
+
+  public static CompletableFuture<List<Payment>> loadPayments(int studentId) {
+    return AsyncExecutor.supply(() -> StudentPortalDAO.loadPayments(studentId));
+  }
+
+  public static CompletableFuture<FeeSummary> loadSummary(int studentId) {
+    return AsyncExecutor.supply(() -> StudentPortalDAO.loadSummary(studentId));
+  }
+
+  public static CompletableFuture<Boolean> recordPayment(
+      int studentId, Money amount, String method, String note) {
+    return AsyncExecutor.supply(
+        () -> StudentPortalDAO.recordPayment(studentId, amount, method, note));
+  }
+}
@@ -0,0 +1,239 @@
+package database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import models.CohortChange;
+
+/**
+ * Enrollment changes for a whole cohort at once: every student of a program, optionally only the
+ * intake of one year (reg numbers starting with that year).
+ *
+ * <p>Each operation reads the ids of the students it is about to change, makes the change in one
+ * set-based statement (two for a course swap) and recomputes the balances of just those students,
+ * {@code fees.cohort.refreshChunk} (default 1000) per statement, all in a single transaction. So
+ * thousands of students are changed in a few statements instead of a round trip each. With {@code
+ * dryRun} the same conditions are only counted and nothing is written. Like the other DAOs, errors
+ * are printed and reported as {@code null}.
+ */
+public final class CohortDAO {
+  private static final int REFRESH_CHUNK = Integer.getInteger("fees.cohort.refreshChunk", 1000);
+
+  private CohortDAO() {}
+
+  /**
+   * Enrolls every student of the cohort in {@code courseId}, skipping those already enrolled in
+   * it.
+   */
+  public static CohortChange enrollInCourse(
+      String program, Integer intakeYear, int courseId, boolean dryRun) {
+    Cohort cohort = new Cohort(program, intakeYear);
+    String missing =
+        "FROM fees_students s WHERE "
+            + cohort.filter
+            + " AND NOT EXISTS (SELECT 1 FROM fees_enrollments e "
+            + "WHERE e.student_id = s.student_id AND e.course_id = ?)";
+    List<Object> params = cohort.params(courseId);
+    if (!courseExists(courseId)) {
+      return null;
+    }
+    try (Connection conn = DBConnection.getConnection()) {
+      if (dryRun) {
+        int students = count(conn, "SELECT COUNT(*) " + missing, params);
+        return new CohortChange(students, students, true);
+      }
+      conn.setAutoCommit(false);
+      List<Integer> students = studentIds(conn, "SELECT s.student_id " + missing, params);
+      int rows;
+      try (PreparedStatement ps =
+          conn.prepareStatement(
+              "INSERT INTO fees_enrollments (student_id, course_id) SELECT s.student_id, ? "
+                  + missing)) {
+        ps.setInt(1, courseId);
+        bind(ps, 2, params);
+        rows = ps.executeUpdate();
+      }
+      refreshBalances(conn, students);
+      conn.commit();
+      return new CohortChange(students.size(), rows, false);
+    } catch (Exception ex) {
+      ex.printStackTrace();
+      return null;
+    }
+  }
+
+  /**
+   * Moves the cohort's enrollments in {@code oldCourseId} to {@code newCourseId}. A student who
+   * already has the new course just loses the old one, so nobody ends up enrolled twice.
+   */
+  public static CohortChange replaceCourse(
+      String program, Integer intakeYear, int oldCourseId, int newCourseId, boolean dryRun) {
+    Cohort cohort = new Cohort(program, intakeYear);
+    String inCohort =
+        "student_id IN (SELECT s.student_id FROM fees_students s WHERE " + cohort.filter + ")";
+    List<Object> params = new ArrayList<>();
+    params.add(oldCourseId);
+    params.addAll(cohort.params());
+    if (oldCourseId == newCourseId || !courseExists(newCourseId)) {
+      return null;
+    }
+    try (Connection conn = DBConnection.getConnection()) {
+      conn.setAutoCommit(false);
+      String affected = "FROM fees_enrollments WHERE course_id = ? AND " + inCohort;
+      int rows = count(conn, "SELECT COUNT(*) " + affected, params);
+      if (dryRun) {
+        int students = count(conn, "SELECT COUNT(DISTINCT student_id) " + affected, params);
+        return new CohortChange(students, rows, true);
+      }
+      List<Integer> students =
+          studentIds(conn, "SELECT DISTINCT student_id " + affected, params);
+      // The derived table makes MySQL read the holders of the new course before deleting.
+      List<Object> withNew = new ArrayList<>(params);
+      withNew.add(newCourseId);
+      try (PreparedStatement ps =
+          conn.prepareStatement(
+              "DELETE "
+                  + affected
+                  + " AND student_id IN (SELECT t.student_id FROM (SELECT DISTINCT student_id "
+                  + "FROM fees_enrollments WHERE course_id = ?) t)")) {
+        bind(ps, 1, withNew);
+        ps.executeUpdate();
+      }
+      try (PreparedStatement ps =
+          conn.prepareStatement(
+              "UPDATE fees_enrollments SET course_id = ? WHERE course_id = ? AND " + inCohort)) {
+        ps.setInt(1, newCourseId);
+        bind(ps, 2, params);
+        ps.executeUpdate();
+      }
+      refreshBalances(conn, students);
+      conn.commit();
+      return new CohortChange(students.size(), rows, false);
+    } catch (Exception ex) {
+      ex.printStackTrace();
+      return null;
+    }
+  }
+
+  /**
+   * Rolls the cohort into {@code semester}: every student is enrolled in each course their
+   * program offers in that semester, skipping courses they already have.
+   */
+  public static CohortChange rollIntoSemester(
+      String program, Integer intakeYear, int semester, boolean dryRun) {
+    Cohort cohort = new Cohort(program, intakeYear);
+    String missing =
+        "FROM fees_students s "
+            + "JOIN fees_courses c ON c.program = s.program AND c.semester = ? "
+            + "WHERE "
+            + cohort.filter
+            + " AND NOT EXISTS (SELECT 1 FROM fees_enrollments e "
+            + "WHERE e.student_id = s.student_id AND e.course_id = c.course_id)";
+    List<Object> params = new ArrayList<>();
+    params.add(semester);
+    params.addAll(cohort.params());
+    try (Connection conn = DBConnection.getConnection()) {
+      if (dryRun) {
+        return new CohortChange(
+            count(conn, "SELECT COUNT(DISTINCT s.student_id) " + missing, params),
+            count(conn, "SELECT COUNT(*) " + missing, params),
+            true);
+      }
+      conn.setAutoCommit(false);
+      List<Integer> students =
+          studentIds(conn, "SELECT DISTINCT s.student_id " + missing, params);
+      int rows;
+      try (PreparedStatement ps =
+          conn.prepareStatement(
+              "INSERT INTO fees_enrollments (student_id, course_id) "
+                  + "SELECT s.student_id, c.course_id "
+                  + missing)) {
+        bind(ps, 1, params);
+        rows = ps.executeUpdate();
+      }
+      refreshBalances(conn, students);
+      conn.commit();
+      return new CohortChange(students.size(), rows, false);
+    } catch (Exception ex) {
+      ex.printStackTrace();
+      return null;
+    }
+  }
+
+  /** The {@code WHERE} condition on {@code fees_students s} that picks a cohort. */
+  private static final class Cohort {
+    final String program;
+    final Integer intakeYear;
+    final String filter;
+
+    Cohort(String program, Integer intakeYear) {
+      this.program = program;
+      this.intakeYear = intakeYear;
+      this.filter = intakeYear == null ? "s.program = ?" : "s.program = ? AND s.reg_number LIKE ?";
+    }
+
+    /** Values for the placeholders of {@link #filter}, then {@code extra}. */
+    List<Object> params(Object... extra) {
+      List<Object> params = new ArrayList<>();
+      params.add(program);
+      if (intakeYear != null) {
+        params.add(intakeYear + "%");
+      }
+      for (Object value : extra) {
+        params.add(value);
+      }
+      return params;
+    }
+  }
+
+  /** Looks the course up before a connection is borrowed, as the catalog may need one itself. */
+  private static boolean courseExists(int courseId) {
+    try {
+      return CourseCatalog.course(courseId) != null;
+    } catch (Exception ex) {
+      ex.printStackTrace();
+      return false;
+    }
+  }
+
+  private static List<Integer> studentIds(Connection conn, String sql, List<Object> params)
+      throws SQLException {
+    List<Integer> ids = new ArrayList<>();
+    try (PreparedStatement ps = conn.prepareStatement(sql)) {
+      bind(ps, 1, params);
+      try (ResultSet rs = ps.executeQuery()) {
+        while (rs.next()) {
+          ids.add(rs.getInt(1));
+        }
+      }
+    }
+    return ids;
+  }
+
+  private static void refreshBalances(Connection conn, List<Integer> studentIds)
+      throws SQLException {
+    for (int from = 0; from < studentIds.size(); from += REFRESH_CHUNK) {
+      StudentBalanceDAO.refreshStudents(
+          conn, studentIds.subList(from, Math.min(studentIds.size(), from + REFRESH_CHUNK)));
+    }
+  }
+
+  private static int count(Connection conn, String sql, List<Object> params) throws SQLException {
+    try (PreparedStatement ps = conn.prepareStatement(sql)) {
+      bind(ps, 1, params);
+      try (ResultSet rs = ps.executeQuery()) {
+        return rs.next() ? rs.getInt(1) : 0;
+      }
+    }
+  }
+
+  private static void bind(PreparedStatement ps, int first, List<Object> params)
+      throws SQLException {
+    for (int i = 0; i < params.size(); i++) {
+      ps.setObject(first + i, params.get(i));
+    }
+  }
+}
@@ -0,0 +1,336 @@
+package database;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded JDBC connection pool used behind {@link DBConnection}.
+ *
+ * <p>Callers get a proxy whose {@code close()} hands the physical connection back to the pool, so
+ * the existing try-with-resources blocks in the DAOs keep working unchanged. Idle connections are
+ * validated on borrow, evicted after {@code idleTimeoutMs} (never below {@code minSize}), and any
+ * connection held longer than {@code leakThresholdMs} is reported with the stack that borrowed it.
+ * Each physical connection also carries a {@link StatementCache} of up to {@code
+ * statementCacheSize} prepared statements (0 disables it).
+ */
+public final class ConnectionPool {
+  private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+
+  private final String url;
+  private final String username;
+  private final String password;
+  private final int minSize;
+  private final int maxSize;
+  private final long borrowTimeoutMs;
+  private final long idleTimeoutMs;
+  private final long leakThresholdMs;
+  private final int statementCacheSize;
+  private final LongAdder statementCacheHits = new LongAdder();
+  private final LongAdder statementCacheMisses = new LongAdder();
+
+  // LIFO so the most recently used (warmest) connection is handed out first.
+  private final LinkedBlockingDeque<PooledConnection> idle = new LinkedBlockingDeque<>();
+  private final Set<PooledConnection> borrowed = ConcurrentHashMap.newKeySet();
+  private final Semaphore permits;
+  private final ScheduledExecutorService housekeeper;
+  private volatile boolean shutdown;
+
+  public ConnectionPool(
+      String url,
+      String username,
+      String password,
+      int minSize,
+      int maxSize,
+      long borrowTimeoutMs,
+      long idleTimeoutMs,
+      long leakThresholdMs,
+      int statementCacheSize) {
+    if (minSize < 0 || maxSize < 1 || minSize > maxSize) {
+      throw new IllegalArgumentException("Invalid pool size: min=" + minSize + " max=" + maxSize);
+    }
+    this.url = url;
+    this.username = username;
+    this.password = password;
+    this.minSize = minSize;
+    this.maxSize = maxSize;
+    this.borrowTimeoutMs = borrowTimeoutMs;
+    this.idleTimeoutMs = idleTimeoutMs;
+    this.leakThresholdMs = leakThresholdMs;
+    this.statementCacheSize = statementCacheSize;
+    this.permits = new Semaphore(maxSize, true);
+    this.housekeeper =
+        Executors.newSingleThreadScheduledExecutor(
+            r -> {
+              Thread t = new Thread(r, "db-pool-housekeeper");
+              t.setDaemon(true);
+              return t;
+            });
+    long checkEvery = leakThresholdMs > 0 ? Math.min(idleTimeoutMs, leakThresholdMs) : idleTimeoutMs;
+    long period = Math.max(1000L, Math.min(checkEvery, 30_000L) / 2);
+    housekeeper.scheduleWithFixedDelay(this::housekeep, period, period, TimeUnit.MILLISECONDS);
+  }
+
+  /** Borrows a connection, waiting up to the borrow timeout for one to become free. */
+  public Connection borrow() throws SQLException {
+    if (shutdown) {
+      throw new SQLException("Connection pool is shut down");
+    }
+    try {
+      if (!permits.tryAcquire(borrowTimeoutMs, TimeUnit.MILLISECONDS)) {
+        throw new SQLException(
+            "Timed out after " + borrowTimeoutMs + " ms waiting for a database connection"
+                + " (active=" + borrowed.size() + ", max=" + maxSize + ")");
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new SQLException("Interrupted while waiting for a database connection", e);
+    }
+
+    try {
+      PooledConnection pooled = takeValidIdle();
+      if (pooled == null) {
+        pooled = new PooledConnection(openPhysical());
+      }
+      pooled.borrowedAt = System.currentTimeMillis();
+      pooled.borrowTrace = leakThresholdMs > 0 ? new Throwable("Connection borrowed here") : null;
+      pooled.leakReported = false;
+      borrowed.add(pooled);
+      return pooled.newHandle();
+    } catch (SQLException | RuntimeException ex) {
+      permits.release();
+      throw ex;
+    }
+  }
+
+  /** Closes every idle connection and refuses further borrows; borrowed ones close on return. */
+  public void shutdown() {
+    shutdown = true;
+    housekeeper.shutdownNow();
+    PooledConnection pooled;
+    while ((pooled = idle.pollFirst()) != null) {
+      closePhysical(pooled);
+    }
+  }
+
+  public int getActiveCount() {
+    return borrowed.size();
+  }
+
+  public int getIdleCount() {
+    return idle.size();
+  }
+
+  public int getMaxSize() {
+    return maxSize;
+  }
+
+  public long getStatementCacheHits() {
+    return statementCacheHits.sum();
+  }
+
+  public long getStatementCacheMisses() {
+    return statementCacheMisses.sum();
+  }
+
+  private PooledConnection takeValidIdle() {
+    PooledConnection pooled;
+    while ((pooled = idle.pollFirst()) != null) {
+      if (isUsable(pooled)) {
+        return pooled;
+      }
+      closePhysical(pooled);
+    }
+    return null;
+  }
+
+  private boolean isUsable(PooledConnection pooled) {
+    try {
+      return !pooled.physical.isClosed() && pooled.physical.isValid(VALIDATION_TIMEOUT_SECONDS);
+    } catch (SQLException ex) {
+      return false;
+    }
+  }
+
+  private Connection openPhysical() throws SQLException {
+    return QueryMetrics.instrument(DriverManager.getConnection(url, username, password));
+  }
+
+  private void release(PooledConnection pooled) {
+    if (!borrowed.remove(pooled)) {
+      return;
+    }
+    try {
+      if (shutdown || pooled.physical.isClosed() || !resetState(pooled)) {
+        closePhysical(pooled);
+      } else {
+        pooled.lastUsed = System.currentTimeMillis();
+        idle.offerFirst(pooled);
+      }
+    } catch (SQLException ex) {
+      closePhysical(pooled);
+    } finally {
+      permits.release();
+    }
+  }
+
+  /** Rolls back anything a caller left open so the next borrower starts from autocommit. */
+  private boolean resetState(PooledConnection pooled) {
+    try {
+      if (!pooled.physical.getAutoCommit()) {
+        pooled.physical.rollback();
+        pooled.physical.setAutoCommit(true);
+      }
+      pooled.physical.clearWarnings();
+      return true;
+    } catch (SQLException ex) {
+      return false;
+    }
+  }
+
+  private void closePhysical(PooledConnection pooled) {
+    if (pooled.statements != null) {
+      pooled.statements.closeAll();
+    }
+    try {
+      pooled.physical.close();
+    } catch (SQLException ignored) {
+      // ignore close failure
+    }
+  }
+
+  private void housekeep() {
+    try {
+      evictIdle();
+      fillToMinimum();
+      reportLeaks();
+    } catch (RuntimeException ex) {
+      ex.printStackTrace();
+    }
+  }
+
+  private void evictIdle() {
+    long cutoff = System.currentTimeMillis() - idleTimeoutMs;
+    Iterator<PooledConnection> it = idle.descendingIterator();
+    while (it.hasNext() && idle.size() + borrowed.size() > minSize) {
+      PooledConnection pooled = it.next();
+      if (pooled.lastUsed < cutoff && idle.remove(pooled)) {
+        closePhysical(pooled);
+      }
+    }
+  }
+
+  private void fillToMinimum() {
+    while (!shutdown && idle.size() + borrowed.size() < minSize) {
+      try {
+        PooledConnection pooled = new PooledConnection(openPhysical());
+        pooled.lastUsed = System.currentTimeMillis();
+        idle.offerLast(pooled);
+      } catch (SQLException ex) {
+        // database unavailable; try again on the next run
+        return;
+      }
+    }
+  }
+
+  private void reportLeaks() {
+    if (leakThresholdMs <= 0) {
+      return;
+    }
+    long now = System.currentTimeMillis();
+    for (PooledConnection pooled : borrowed) {
+      if (!pooled.leakReported && now - pooled.borrowedAt > leakThresholdMs) {
+        pooled.leakReported = true;
+        System.err.println(
+            "Possible connection leak: connection held for " + (now - pooled.borrowedAt) + " ms");
+        if (pooled.borrowTrace != null) {
+          pooled.borrowTrace.printStackTrace();
+        }
+      }
+    }
+  }
+
+  /** One physical connection plus its bookkeeping. */
+  private final class PooledConnection {
+    private final Connection physical;
+    private final StatementCache statements;
+    private volatile long lastUsed;
+    private volatile long borrowedAt;
+    private volatile Throwable borrowTrace;
+    private volatile boolean leakReported;
+
+    private PooledConnection(Connection physical) {
+      this.physical = physical;
+      this.statements =
+          statementCacheSize > 0
+              ? new StatementCache(statementCacheSize, statementCacheHits, statementCacheMisses)
+              : null;
+    }
+
+    private Connection newHandle() {
+      return (Connection)
+          Proxy.newProxyInstance(
+              Connection.class.getClassLoader(),
+              new Class<?>[] {Connection.class},
+              new Handle(this));
+    }
+  }
+
+  /** The logical connection handed to one borrower; closing it returns the physical one. */
+  private final class Handle implements InvocationHandler {
+    private final PooledConnection pooled;
+    private boolean closed;
+
+    private Handle(PooledConnection pooled) {
+      this.pooled = pooled;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+      switch (method.getName()) {
+        case "close":
+          if (!closed) {
+            closed = true;
+            release(pooled);
+          }
+          return null;
+        case "isClosed":
+          return closed || pooled.physical.isClosed();
+        case "equals":
+          return proxy == args[0];
+        case "hashCode":
+          return System.identityHashCode(proxy);
+        case "toString":
+          return "PooledConnection[" + pooled.physical + "]";
+        default:
+          break;
+      }
+      if (closed) {
+        throw new SQLException("Connection is closed");
+      }
+      if (pooled.statements != null
+          && "prepareStatement".equals(method.getName())
+          && args.length == 1) {
+        return pooled.statements.prepare(pooled.physical, (String) args[0], (Connection) proxy);
+      }
+      try {
+        return method.invoke(pooled.physical, args);
+      } catch (InvocationTargetException ex) {
+        throw ex.getCause();
+      }
+    }
+  }
+}
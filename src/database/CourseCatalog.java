@@ -0,0 +1,212 @@
+package database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import models.Course;
+import models.Money;
+
+/**
+ * Process-wide copy of {@code fees_courses}, indexed by course id and by program.
+ *
+ * <p>The table is small and read on every registration, so it is loaded once and served from
+ * memory. {@link RegistrarDAO}'s course writes bump the version in {@code fees_catalog_version} in
+ * the same transaction and then {@link #invalidate()} this copy. Changes made by another copy of
+ * the app are picked up by comparing that version at most every {@code
+ * fees.catalog.checkIntervalMs} (default 5000), or at once when a course id is not found. Edits
+ * that bypass the version, such as SQL run by hand, are picked up by reloading any copy older than
+ * {@code fees.catalog.maxAgeMs} (default 300000) whatever its version.
+ */
+public final class CourseCatalog {
+  private static final long CHECK_INTERVAL_NANOS =
+      Long.getLong("fees.catalog.checkIntervalMs", 5_000L) * 1_000_000L;
+  private static final long MAX_AGE_NANOS =
+      Long.getLong("fees.catalog.maxAgeMs", 300_000L) * 1_000_000L;
+
+  /** One load of the table; not modified once published. */
+  private static final class Snapshot {
+    final long version;
+    final long loadedAt = System.nanoTime();
+    final Map<Integer, Course> byId = new HashMap<>();
+    final Map<String, List<Course>> firstSemesterByProgram = new HashMap<>();
+    List<Course> firstSemester = new ArrayList<>();
+
+    Snapshot(long version) {
+      this.version = version;
+    }
+  }
+
+  private static final Comparator<Course> BY_NAME =
+      Comparator.comparing(Course::getName, String.CASE_INSENSITIVE_ORDER);
+
+  private static volatile Snapshot current;
+  private static volatile long checkedAt;
+
+  private CourseCatalog() {}
+
+  /** Semester 1 courses of a program, by name. */
+  public static List<Course> coursesForProgram(String program) throws SQLException {
+    return snapshot().firstSemesterByProgram.getOrDefault(program, List.of());
+  }
+
+  /** Every semester 1 course, by program then name. */
+  public static List<Course> allCourses() throws SQLException {
+    return snapshot().firstSemester;
+  }
+
+  /** The course with this id in any semester, or {@code null}. */
+  public static Course course(int courseId) throws SQLException {
+    Snapshot snapshot = snapshot();
+    Course course = snapshot.byId.get(courseId);
+    return course != null ? course : recheck(snapshot).byId.get(courseId);
+  }
+
+  /**
+   * The courses among {@code courseIds} in any semester, by name, repeats kept; unknown ids
+   * skipped. Their prices add up to the total fee the balances are kept at.
+   */
+  public static List<Course> courses(Collection<Integer> courseIds) throws SQLException {
+    Snapshot snapshot = snapshot();
+    if (!snapshot.byId.keySet().containsAll(courseIds)) {
+      snapshot = recheck(snapshot);
+    }
+    List<Course> courses = new ArrayList<>(courseIds.size());
+    for (Integer courseId : courseIds) {
+      Course course = snapshot.byId.get(courseId);
+      if (course != null) {
+        courses.add(course);
+      }
+    }
+    courses.sort(BY_NAME);
+    return courses;
+  }
+
+  /** Sum of the prices of {@code courseIds}, counting repeats; unknown ids add nothing. */
+  public static Money totalFee(Collection<Integer> courseIds) throws SQLException {
+    long total = 0;
+    for (Integer courseId : courseIds) {
+      Course course = course(courseId);
+      if (course != null) {
+        total = Math.addExact(total, course.getPrice().minorUnits());
+      }
+    }
+    return Money.ofMinor(total);
+  }
+
+  /** The version the cached copy was loaded at. */
+  public static long version() throws SQLException {
+    return snapshot().version;
+  }
+
+  /** Drops the cached copy; the next call reloads it. */
+  public static void invalidate() {
+    current = null;
+  }
+
+  /**
+   * Marks the catalog as changed for every process; call inside the writing transaction. The
+   * schema scripts seed the version row; should it be missing anyway, it is created here.
+   */
+  static void bumpVersion(Connection conn) throws SQLException {
+    if (incrementVersion(conn)) {
+      return;
+    }
+    try (PreparedStatement ps =
+        conn.prepareStatement("INSERT INTO fees_catalog_version (id, version) VALUES (1, 1)")) {
+      ps.executeUpdate();
+    } catch (SQLException ex) {
+      // Another writer created the row in the meantime; the failed insert changed nothing.
+      if (!incrementVersion(conn)) {
+        throw ex;
+      }
+    }
+  }
+
+  private static boolean incrementVersion(Connection conn) throws SQLException {
+    String sql = "UPDATE fees_catalog_version SET version = version + 1 WHERE id = 1";
+    try (PreparedStatement ps = conn.prepareStatement(sql)) {
+      return ps.executeUpdate() == 1;
+    }
+  }
+
+  private static Snapshot snapshot() throws SQLException {
+    Snapshot snapshot = current;
+    if (snapshot != null && System.nanoTime() - checkedAt < CHECK_INTERVAL_NANOS) {
+      return snapshot;
+    }
+    synchronized (CourseCatalog.class) {
+      snapshot = current;
+      if (snapshot != null && System.nanoTime() - checkedAt < CHECK_INTERVAL_NANOS) {
+        return snapshot;
+      }
+      try (Connection conn = DBConnection.getConnection()) {
+        if (snapshot == null
+            || System.nanoTime() - snapshot.loadedAt >= MAX_AGE_NANOS
+            || readVersion(conn) != snapshot.version) {
+          snapshot = load(conn);
+          current = snapshot;
+        }
+      }
+      checkedAt = System.nanoTime();
+      return snapshot;
+    }
+  }
+
+  /** Compares versions now rather than at the next interval, e.g. after an id was not found. */
+  private static Snapshot recheck(Snapshot stale) throws SQLException {
+    synchronized (CourseCatalog.class) {
+      if (current == stale) {
+        checkedAt = System.nanoTime() - CHECK_INTERVAL_NANOS;
+      }
+    }
+    return snapshot();
+  }
+
+  private static Snapshot load(Connection conn) throws SQLException {
+    // Version first: a change committed during the read shows up as stale on the next check.
+    Snapshot snapshot = new Snapshot(readVersion(conn));
+    String sql = "SELECT course_id, program, course_name, price_rwf, semester FROM fees_courses";
+    try (PreparedStatement ps = conn.prepareStatement(sql);
+        ResultSet rs = ps.executeQuery()) {
+      while (rs.next()) {
+        Course course =
+            new Course(
+                rs.getInt("course_id"),
+                rs.getString("program"),
+                rs.getString("course_name"),
+                Money.of(rs.getBigDecimal("price_rwf")));
+        snapshot.byId.put(course.getId(), course);
+        if (rs.getInt("semester") == 1) {
+          snapshot.firstSemester.add(course);
+        }
+      }
+    }
+    snapshot.firstSemester.sort(
+        Comparator.comparing(Course::getProgram, String.CASE_INSENSITIVE_ORDER)
+            .thenComparing(BY_NAME));
+    for (Course course : snapshot.firstSemester) {
+      snapshot
+          .firstSemesterByProgram
+          .computeIfAbsent(course.getProgram(), p -> new ArrayList<>())
+          .add(course);
+    }
+    snapshot.firstSemesterByProgram.replaceAll((program, courses) -> List.copyOf(courses));
+    snapshot.firstSemester = List.copyOf(snapshot.firstSemester);
+    return snapshot;
+  }
+
+  private static long readVersion(Connection conn) throws SQLException {
+    try (PreparedStatement ps =
+            conn.prepareStatement("SELECT version FROM fees_catalog_version WHERE id = 1");
+        ResultSet rs = ps.executeQuery()) {
+      return rs.next() ? rs.getLong(1) : 0;
+    }
+  }
+}
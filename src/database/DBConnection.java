@@ -1,46 +1,81 @@
 package database;
 
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
 
 /**
- * Singleton helper for MySQL JDBC connections (XAMPP).
+ * Pooled MySQL JDBC connections (XAMPP).
+ *
+ * <p>Every call to {@link #getConnection()} borrows from a shared {@link ConnectionPool}; closing
+ * the returned connection hands it back. The target database and pool sizing can be overridden
+ * with system properties, e.g. {@code -Dfees.db.url=jdbc:h2:mem:fees;MODE=MySQL} or {@code
+ * -Dfees.pool.maxSize=20}; {@code -Dfees.db.profile=embedded} runs against an in-process
+ * {@link EmbeddedDatabase} instead of XAMPP MySQL.
  */
 public final class DBConnection {
   // MySQL connection settings for XAMPP
   // Default XAMPP MySQL runs on localhost:3306
-  private static final String URL = "jdbc:mysql://localhost:3306/student_fees_db?useSSL=false&serverTimezone=UTC&allowPublicKeyRetrieval=true";
-  private static final String USERNAME = "root";  // Default XAMPP MySQL username
-  private static final String PASSWORD = "";      // Default XAMPP MySQL password is empty
+  // rewriteBatchedStatements sends JDBC batches as multi-row INSERTs (bulk student import)
+  private static final String DEFAULT_URL = "jdbc:mysql://localhost:3306/student_fees_db?useSSL=false&serverTimezone=UTC&allowPublicKeyRetrieval=true&useServerPrepStmts=true&rewriteBatchedStatements=true";
+  private static final String DEFAULT_USERNAME = "root";  // Default XAMPP MySQL username
+  private static final String DEFAULT_PASSWORD = "";      // Default XAMPP MySQL password is empty
 
-  private static Connection sharedConnection;
+  // Pool settings
+  private static final int MIN_SIZE = Integer.getInteger("fees.pool.minSize", 2);
+  private static final int MAX_SIZE = Integer.getInteger("fees.pool.maxSize", 10);
+  private static final long BORROW_TIMEOUT_MS = Long.getLong("fees.pool.borrowTimeoutMs", 10_000L);
+  private static final long IDLE_TIMEOUT_MS = Long.getLong("fees.pool.idleTimeoutMs", 300_000L);
+  private static final long LEAK_THRESHOLD_MS = Long.getLong("fees.pool.leakThresholdMs", 60_000L);
+  private static final int STATEMENT_CACHE_SIZE = Integer.getInteger("fees.pool.statementCacheSize", 64);
+
+  private static volatile ConnectionPool pool;
 
   private DBConnection() {
   }
 
-  public static synchronized Connection getConnection() throws SQLException {
-    if (sharedConnection == null || sharedConnection.isClosed()) {
-      // Load MySQL JDBC driver
-      try {
-        Class.forName("com.mysql.cj.jdbc.Driver");
-      } catch (ClassNotFoundException e) {
-        throw new SQLException("MySQL JDBC Driver not found", e);
+  /** Borrows a pooled connection; close it (try-with-resources) to return it to the pool. */
+  public static Connection getConnection() throws SQLException {
+    ConnectionPool current = pool;
+    return (current != null ? current : getPool()).borrow();
+  }
+
+  public static synchronized ConnectionPool getPool() throws SQLException {
+    if (pool == null) {
+      boolean embedded = EmbeddedDatabase.PROFILE.equals(System.getProperty("fees.db.profile"));
+      String url = embedded ? EmbeddedDatabase.start() : System.getProperty("fees.db.url", DEFAULT_URL);
+      String username =
+          embedded ? EmbeddedDatabase.USERNAME : System.getProperty("fees.db.user", DEFAULT_USERNAME);
+      String password =
+          embedded ? EmbeddedDatabase.PASSWORD : System.getProperty("fees.db.password", DEFAULT_PASSWORD);
+      if (url.startsWith("jdbc:mysql:")) {
+        // Load MySQL JDBC driver
+        try {
+          Class.forName("com.mysql.cj.jdbc.Driver");
+        } catch (ClassNotFoundException e) {
+          throw new SQLException("MySQL JDBC Driver not found", e);
+        }
       }
-      sharedConnection = DriverManager.getConnection(URL, USERNAME, PASSWORD);
+      pool =
+          new ConnectionPool(
+              url,
+              username,
+              password,
+              MIN_SIZE,
+              MAX_SIZE,
+              BORROW_TIMEOUT_MS,
+              IDLE_TIMEOUT_MS,
+              LEAK_THRESHOLD_MS,
+              STATEMENT_CACHE_SIZE);
     }
-    return sharedConnection;
+    return pool;
   }
 
   public static synchronized void closeQuietly() {
-    if (sharedConnection != null) {
-      try {
-        sharedConnection.close();
-      } catch (SQLException ignored) {
-        // ignore close failure
-      }
-      sharedConnection = null;
+    if (pool != null) {
+      pool.shutdown();
+      pool = null;
     }
+    // The next pool may point at another database.
+    CourseCatalog.invalidate();
   }
 }
-
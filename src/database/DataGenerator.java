@@ -0,0 +1,466 @@
+package database;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import models.Course;
+import models.Money;
+
+/**
+ * Fills the database with synthetic students, enrollments and payments for load and capacity
+ * testing. Courses are taken from the existing catalog.
+ *
+ * <p>Students are written in blocks of {@code batchSize}, each block a single transaction with
+ * one batch per table, by {@code threads} workers on their own pooled connections. Every block
+ * draws from a random source derived from the seed and the block number only, so the same seed
+ * and batch size give the same data whatever the thread count (generated ids aside).
+ *
+ * <p>Programs are unevenly sized. Most students take 3-4 courses. About a fifth have paid nothing,
+ * a fifth have paid in full and the rest part of their fee, in up to {@code maxPayments}
+ * installments split between MOMO and BK by {@code momoShare}. Reg numbers are reserved for the
+ * whole run from {@link RegNumberAllocator} at the registrars' width, so generated students look
+ * like registered ones. A run too big for it needs {@link #withWidth} and a year without reg
+ * numbers yet, since one year keeps one width.
+ */
+public final class DataGenerator {
+  private static final String[] FIRST_NAMES = {
+    "Iradukunda", "Niyonsenga", "Uwase", "Mugisha", "Ishimwe", "Habimana", "Mukamana", "Nshuti",
+    "Keza", "Gatete", "Umutoni", "Kwizera", "Ineza", "Manzi", "Ingabire", "Hirwa"
+  };
+  private static final String[] LAST_NAMES = {
+    "Smith", "Johnson", "Brown", "Garcia", "Williams", "Mutesi", "Nkurunziza", "Uwimana",
+    "Bizimana", "Kamanzi", "Mukeshimana", "Ndayisaba", "Okafor", "Mensah", "Dubois", "Silva"
+  };
+  /** Relative chance of taking 1, 2, 3, ... courses. */
+  private static final int[] COURSE_COUNT_WEIGHTS = {5, 10, 25, 35, 15, 10};
+  /** Installments are whole thousands of RWF. */
+  private static final long INSTALLMENT_STEP = Money.parse("1000").minorUnits();
+
+  /** Told after each saved block; called on the generator threads. */
+  public interface Progress {
+    void update(long studentsDone, long totalStudents);
+  }
+
+  /** What a run wrote. */
+  public static final class Result {
+    private final long students;
+    private final long enrollments;
+    private final long payments;
+    private final String firstRegNumber;
+    private final String lastRegNumber;
+
+    Result(
+        long students,
+        long enrollments,
+        long payments,
+        String firstRegNumber,
+        String lastRegNumber) {
+      this.students = students;
+      this.enrollments = enrollments;
+      this.payments = payments;
+      this.firstRegNumber = firstRegNumber;
+      this.lastRegNumber = lastRegNumber;
+    }
+
+    public long getStudents() {
+      return students;
+    }
+
+    public long getEnrollments() {
+      return enrollments;
+    }
+
+    public long getPayments() {
+      return payments;
+    }
+
+    public String getFirstRegNumber() {
+      return firstRegNumber;
+    }
+
+    public String getLastRegNumber() {
+      return lastRegNumber;
+    }
+  }
+
+  private final long seed;
+  private final long students;
+  private final int maxPayments;
+  private final double momoShare;
+  private final int threads;
+  private final int batchSize;
+  private final int year;
+  private final int width;
+
+  /**
+   * 1000 students, up to 3 payments each, 60% MOMO, 4 threads, blocks of 1000, this year, reg
+   * numbers as wide as the registrars'.
+   */
+  public DataGenerator(long seed) {
+    this(
+        seed,
+        1000,
+        3,
+        0.6,
+        4,
+        1000,
+        LocalDate.now().getYear(),
+        RegNumberAllocator.getDefault().getWidth());
+  }
+
+  private DataGenerator(
+      long seed,
+      long students,
+      int maxPayments,
+      double momoShare,
+      int threads,
+      int batchSize,
+      int year,
+      int width) {
+    if (students < 0 || maxPayments < 0 || threads < 1 || batchSize < 1) {
+      throw new IllegalArgumentException("Counts must be positive");
+    }
+    if (width < 1 || width > 9) {
+      throw new IllegalArgumentException("width must be 1-9");
+    }
+    if (momoShare < 0 || momoShare > 1) {
+      throw new IllegalArgumentException("momoShare must be between 0 and 1");
+    }
+    this.seed = seed;
+    this.students = students;
+    this.maxPayments = maxPayments;
+    this.momoShare = momoShare;
+    this.threads = threads;
+    this.batchSize = batchSize;
+    this.year = year;
+    this.width = width;
+  }
+
+  public DataGenerator withStudents(long students) {
+    return new DataGenerator(
+        seed, students, maxPayments, momoShare, threads, batchSize, year, width);
+  }
+
+  /** Longest payment history; 0 generates no payments. */
+  public DataGenerator withMaxPayments(int maxPayments) {
+    return new DataGenerator(
+        seed, students, maxPayments, momoShare, threads, batchSize, year, width);
+  }
+
+  /** Fraction of payments made by MOMO; the rest are BK. */
+  public DataGenerator withMomoShare(double momoShare) {
+    return new DataGenerator(
+        seed, students, maxPayments, momoShare, threads, batchSize, year, width);
+  }
+
+  /** Parallel connections; keep within {@code fees.pool.maxSize}. */
+  public DataGenerator withThreads(int threads) {
+    return new DataGenerator(
+        seed, students, maxPayments, momoShare, threads, batchSize, year, width);
+  }
+
+  /** Students per transaction. */
+  public DataGenerator withBatchSize(int batchSize) {
+    return new DataGenerator(
+        seed, students, maxPayments, momoShare, threads, batchSize, year, width);
+  }
+
+  /** Academic year of the reg numbers and payment dates. */
+  public DataGenerator withYear(int year) {
+    return new DataGenerator(
+        seed, students, maxPayments, momoShare, threads, batchSize, year, width);
+  }
+
+  /**
+   * Digits after the year in reg numbers, e.g. 6 for a million-student load. Only for a year with
+   * no reg numbers of another width; the default is the registrars' width.
+   */
+  public DataGenerator withWidth(int width) {
+    return new DataGenerator(
+        seed, students, maxPayments, momoShare, threads, batchSize, year, width);
+  }
+
+  /**
+   * Writes the students. Blocks already saved stay saved if a later one fails or the thread is
+   * interrupted.
+   */
+  public Result run(Progress progress) throws SQLException, InterruptedException {
+    Map<String, List<Course>> catalog = new LinkedHashMap<>();
+    for (Course course : CourseCatalog.allCourses()) {
+      catalog.computeIfAbsent(course.getProgram(), p -> new ArrayList<>()).add(course);
+    }
+    if (catalog.isEmpty()) {
+      throw new SQLException("The course catalog is empty; add courses first");
+    }
+    if (students == 0) {
+      return new Result(0, 0, 0, null, null);
+    }
+    if (Long.toString(students).length() > width) {
+      throw new SQLException(
+          students
+              + " students do not fit in "
+              + width
+              + "-digit reg numbers; choose a wider width for a year with no reg numbers yet");
+    }
+    RegNumberAllocator regNumbers = new RegNumberAllocator(year, width, 1);
+    long firstSequence = regNumbers.reserveRange(students);
+    Plan plan =
+        new Plan(new ArrayList<>(catalog.values()), regNumbers, firstSequence, progress);
+
+    int writers = threads;
+    try (Connection conn = DBConnection.getConnection()) {
+      // H2 can give concurrent batch inserts the same AUTO_INCREMENT id, so it gets one writer.
+      if ("H2".equals(conn.getMetaData().getDatabaseProductName())) {
+        writers = 1;
+      }
+    }
+    long blocks = (students + batchSize - 1) / batchSize;
+    AtomicLong nextBlock = new AtomicLong();
+    ExecutorService workers = Executors.newFixedThreadPool(writers);
+    try {
+      List<Future<Void>> running = new ArrayList<>();
+      for (int t = 0; t < writers; t++) {
+        running.add(
+            workers.submit(
+                () -> {
+                  try (Connection conn = DBConnection.getConnection()) {
+                    conn.setAutoCommit(false);
+                    long block;
+                    while (!plan.failed
+                        && !Thread.currentThread().isInterrupted()
+                        && (block = nextBlock.getAndIncrement()) < blocks) {
+                      writeBlock(conn, block, plan);
+                    }
+                  } catch (SQLException | RuntimeException ex) {
+                    plan.failed = true; // stop the other workers too
+                    throw ex;
+                  }
+                  return null;
+                }));
+      }
+      for (Future<Void> worker : running) {
+        worker.get();
+      }
+    } catch (ExecutionException ex) {
+      Throwable cause = ex.getCause();
+      throw cause instanceof SQLException ? (SQLException) cause : new SQLException(cause);
+    } finally {
+      workers.shutdownNow();
+    }
+    return new Result(
+        students,
+        plan.enrollments.get(),
+        plan.payments.get(),
+        regNumbers.format(firstSequence),
+        regNumbers.format(firstSequence + students - 1));
+  }
+
+  /** Shared, read-only inputs of a run plus its counters. */
+  private static final class Plan {
+    final List<List<Course>> programs;
+    final int[] programWeights;
+    final RegNumberAllocator regNumbers;
+    final long firstSequence;
+    final Progress progress;
+    final AtomicLong done = new AtomicLong();
+    final AtomicLong enrollments = new AtomicLong();
+    final AtomicLong payments = new AtomicLong();
+    volatile boolean failed;
+
+    Plan(
+        List<List<Course>> programs,
+        RegNumberAllocator regNumbers,
+        long firstSequence,
+        Progress progress) {
+      this.programs = programs;
+      this.regNumbers = regNumbers;
+      this.firstSequence = firstSequence;
+      this.progress = progress;
+      // 7:5:4:... so the first program has about twice the students of the third.
+      programWeights = new int[programs.size()];
+      for (int i = 0; i < programWeights.length; i++) {
+        programWeights[i] = 12 / (i + 2) + 1;
+      }
+    }
+  }
+
+  /** One generated student before it is written. */
+  private static final class Draft {
+    String regNumber;
+    String fullName;
+    String program;
+    final List<Course> courses = new ArrayList<>();
+    final List<long[]> installments = new ArrayList<>(); // {minor units, epoch day, MOMO ? 1 : 0}
+    long feeMinor;
+    long paidMinor;
+  }
+
+  private void writeBlock(Connection conn, long block, Plan plan) throws SQLException {
+    SplittableRandom random = new SplittableRandom(seed ^ (block * 0x9E3779B97F4A7C15L));
+    long from = block * batchSize;
+    long to = Math.min(students, from + batchSize);
+    List<Draft> drafts = new ArrayList<>((int) (to - from));
+    for (long i = from; i < to; i++) {
+      drafts.add(draft(random, plan, plan.firstSequence + i));
+    }
+
+    List<Integer> ids = new ArrayList<>(drafts.size());
+    try (PreparedStatement ps =
+        conn.prepareStatement(
+            "INSERT INTO fees_students (reg_number, full_name, program, password, total_fee) "
+                + "VALUES (?, ?, ?, '123', ?)",
+            new String[] {"student_id"})) {
+      for (Draft d : drafts) {
+        ps.setString(1, d.regNumber);
+        ps.setString(2, d.fullName);
+        ps.setString(3, d.program);
+        ps.setBigDecimal(4, Money.ofMinor(d.feeMinor).toBigDecimal());
+        ps.addBatch();
+      }
+      ps.executeBatch();
+      try (ResultSet keys = ps.getGeneratedKeys()) {
+        while (keys.next()) {
+          ids.add(keys.getInt(1));
+        }
+      }
+    }
+    if (ids.size() != drafts.size()) {
+      throw new SQLException("Expected " + drafts.size() + " generated ids, got " + ids.size());
+    }
+
+    long enrollments = 0;
+    long payments = 0;
+    try (PreparedStatement enroll =
+            conn.prepareStatement(
+                "INSERT INTO fees_enrollments (student_id, course_id) VALUES (?, ?)");
+        PreparedStatement pay =
+            conn.prepareStatement(
+                "INSERT INTO fees_payments (student_id, amount, method, note, paid_on) "
+                    + "VALUES (?, ?, ?, ?, ?)");
+        PreparedStatement balance =
+            conn.prepareStatement(
+                "INSERT INTO fees_student_balances "
+                    + "(student_id, program, total_fee, total_paid, remaining, change_seq) "
+                    + "VALUES (?, ?, ?, ?, ?, ?)")) {
+      for (int s = 0; s < drafts.size(); s++) {
+        Draft d = drafts.get(s);
+        int id = ids.get(s);
+        for (Course course : d.courses) {
+          enroll.setInt(1, id);
+          enroll.setInt(2, course.getId());
+          enroll.addBatch();
+          enrollments++;
+        }
+        for (int p = 0; p < d.installments.size(); p++) {
+          long[] installment = d.installments.get(p);
+          pay.setInt(1, id);
+          pay.setBigDecimal(2, Money.ofMinor(installment[0]).toBigDecimal());
+          pay.setString(3, installment[2] == 1 ? "MOMO" : "BK");
+          pay.setString(4, "Installment " + (p + 1));
+          pay.setDate(5, Date.valueOf(LocalDate.ofEpochDay(installment[1])));
+          pay.addBatch();
+          payments++;
+        }
+      }
+      enroll.executeBatch();
+      pay.executeBatch();
+      // Last, so the change counter stays locked only for the balance batch and the commit.
+      long change = StudentBalanceDAO.nextChange(conn);
+      for (int s = 0; s < drafts.size(); s++) {
+        Draft d = drafts.get(s);
+        balance.setInt(1, ids.get(s));
+        balance.setString(2, d.program);
+        balance.setBigDecimal(3, Money.ofMinor(d.feeMinor).toBigDecimal());
+        balance.setBigDecimal(4, Money.ofMinor(d.paidMinor).toBigDecimal());
+        balance.setBigDecimal(5, Money.ofMinor(d.feeMinor - d.paidMinor).toBigDecimal());
+        balance.setLong(6, change);
+        balance.addBatch();
+      }
+      balance.executeBatch();
+    }
+    conn.commit();
+
+    plan.enrollments.addAndGet(enrollments);
+    plan.payments.addAndGet(payments);
+    long done = plan.done.addAndGet(drafts.size());
+    if (plan.progress != null) {
+      plan.progress.update(done, students);
+    }
+  }
+
+  private Draft draft(SplittableRandom random, Plan plan, long sequence) {
+    Draft d = new Draft();
+    d.regNumber = plan.regNumbers.format(sequence);
+    d.fullName =
+        FIRST_NAMES[random.nextInt(FIRST_NAMES.length)]
+            + " "
+            + LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+    List<Course> offered = plan.programs.get(pick(random, plan.programWeights));
+    d.program = offered.get(0).getProgram();
+
+    // A random subset of the program's courses, drawn without repeats.
+    int count = Math.min(offered.size(), 1 + pick(random, COURSE_COUNT_WEIGHTS));
+    List<Course> pool = new ArrayList<>(offered);
+    for (int c = 0; c < count; c++) {
+      Course course = pool.remove(random.nextInt(pool.size()));
+      d.courses.add(course);
+      d.feeMinor = Math.addExact(d.feeMinor, course.getPrice().minorUnits());
+    }
+
+    int kind = random.nextInt(100);
+    long target;
+    if (maxPayments == 0 || kind < 20) {
+      target = 0;
+    } else if (kind < 40) {
+      target = d.feeMinor;
+    } else {
+      long share = d.feeMinor * (10 + random.nextInt(81)) / 100;
+      target = share - share % INSTALLMENT_STEP;
+    }
+    int installments = target == 0 ? 0 : 1 + random.nextInt(maxPayments);
+    installments = (int) Math.max(1, Math.min(installments, target / INSTALLMENT_STEP));
+    long day = LocalDate.of(year, 1, 1).toEpochDay();
+    long left = target;
+    for (int p = 0; p < installments && left > 0; p++) {
+      long amount = left;
+      if (p < installments - 1) {
+        long even = left / (installments - p);
+        amount = Math.max(INSTALLMENT_STEP, even - even % INSTALLMENT_STEP);
+      }
+      day += 1 + random.nextInt(Math.max(1, 300 / installments));
+      d.installments.add(new long[] {amount, day, random.nextDouble() < momoShare ? 1 : 0});
+      left -= amount;
+    }
+    d.paidMinor = target;
+    return d;
+  }
+
+  /** An index drawn with the given relative weights. */
+  private static int pick(SplittableRandom random, int[] weights) {
+    int total = 0;
+    for (int w : weights) {
+      total += w;
+    }
+    int r = random.nextInt(total);
+    for (int i = 0; i < weights.length; i++) {
+      r -= weights[i];
+      if (r < 0) {
+        return i;
+      }
+    }
+    return weights.length - 1;
+  }
+}
@@ -0,0 +1,113 @@
+package database;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * In-process H2 database in MySQL mode, used when {@code -Dfees.db.profile=embedded}.
+ *
+ * <p>On first start the schema ({@code 02_create_tables.sql}) and seed data ({@code
+ * 07_fresh_start_clean_data.sql}) are applied from {@code database_setup/} (override with {@code
+ * -Dfees.db.scripts=dir}). By default the database lives in memory for the life of the JVM; set
+ * {@code -Dfees.db.embedded.path=./data/fees} to keep it on disk between runs. Needs the H2 jar
+ * on the classpath.
+ */
+public final class EmbeddedDatabase {
+  public static final String PROFILE = "embedded";
+  public static final String USERNAME = "sa";
+  public static final String PASSWORD = "";
+
+  private static final String SCHEMA_SCRIPT = "02_create_tables.sql";
+  private static final String SEED_SCRIPT = "07_fresh_start_clean_data.sql";
+
+  // Keeps an in-memory database alive even when the pool has closed every connection.
+  private static Connection keepAlive;
+
+  private EmbeddedDatabase() {}
+
+  /** JDBC URL for a private in-memory database with MySQL compatibility switched on. */
+  public static String memoryUrl(String name) {
+    return "jdbc:h2:mem:" + name + mysqlModeOptions();
+  }
+
+  /** Starts (once) the profile database, applies schema and seed data, and returns its URL. */
+  public static synchronized String start() throws SQLException {
+    String path = System.getProperty("fees.db.embedded.path");
+    String url =
+        path == null ? memoryUrl("student_fees_db") : "jdbc:h2:file:" + path + mysqlModeOptions();
+    if (keepAlive != null && !keepAlive.isClosed()) {
+      return url;
+    }
+    keepAlive = DriverManager.getConnection(url, USERNAME, PASSWORD);
+    Path scripts = Paths.get(System.getProperty("fees.db.scripts", "database_setup"));
+    try {
+      runScript(keepAlive, scripts.resolve(SCHEMA_SCRIPT));
+      if (isEmpty(keepAlive)) {
+        runScript(keepAlive, scripts.resolve(SEED_SCRIPT));
+        StudentBalanceDAO.rebuild(keepAlive);
+      }
+    } catch (IOException ex) {
+      throw new SQLException("Could not read database scripts from " + scripts.toAbsolutePath(), ex);
+    }
+    return url;
+  }
+
+  public static synchronized void stop() {
+    if (keepAlive != null) {
+      try {
+        keepAlive.close();
+      } catch (SQLException ignored) {
+        // ignore close failure
+      }
+      keepAlive = null;
+    }
+  }
+
+  /**
+   * Executes a {@code database_setup} script statement by statement. {@code USE} lines and the
+   * verification {@code SELECT}s at the end of the scripts are skipped.
+   */
+  public static void runScript(Connection conn, Path script) throws SQLException, IOException {
+    String sql = new String(Files.readAllBytes(script), StandardCharsets.UTF_8);
+    try (Statement st = conn.createStatement()) {
+      for (String statement : sql.split(";")) {
+        String trimmed = stripComments(statement);
+        if (trimmed.isEmpty()
+            || trimmed.regionMatches(true, 0, "USE ", 0, 4)
+            || trimmed.regionMatches(true, 0, "SELECT", 0, 6)) {
+          continue;
+        }
+        st.execute(trimmed);
+      }
+    }
+  }
+
+  private static boolean isEmpty(Connection conn) throws SQLException {
+    try (Statement st = conn.createStatement();
+        ResultSet rs = st.executeQuery("SELECT COUNT(*) FROM fees_users")) {
+      return rs.next() && rs.getInt(1) == 0;
+    }
+  }
+
+  private static String stripComments(String statement) {
+    StringBuilder out = new StringBuilder();
+    for (String line : statement.split("\n")) {
+      if (!line.trim().startsWith("--")) {
+        out.append(line).append('\n');
+      }
+    }
+    return out.toString().trim();
+  }
+
+  private static String mysqlModeOptions() {
+    return ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH";
+  }
+}
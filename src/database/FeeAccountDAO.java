@@ -8,6 +8,7 @@ import java.sql.ResultSet;
 import java.util.ArrayList;
 import java.util.List;
 import models.FeeSummary;
+import models.Money;
 import models.Payment;
 
 /**
@@ -22,17 +23,24 @@ public final class FeeAccountDAO {
         "INSERT INTO fees_payments (student_id, amount, method, note, paid_on) "
             + "VALUES (?, ?, ?, ?, ?)";
 
-    try (Connection conn = DBConnection.getConnection();
-        PreparedStatement ps = conn.prepareStatement(insertPayment)) {
-
-      ps.setInt(1, payment.getStudentId());
-      ps.setBigDecimal(2, payment.getAmount());
-      ps.setString(3, payment.getMethod());
-      ps.setString(4, payment.getNote());
-      ps.setDate(5, new Date(payment.getPaidOn().getTime()));
-
-      int affected = ps.executeUpdate();
-      return affected == 1;
+    try (Connection conn = DBConnection.getConnection()) {
+      conn.setAutoCommit(false);
+      try (PreparedStatement ps = conn.prepareStatement(insertPayment)) {
+        ps.setInt(1, payment.getStudentId());
+        ps.setBigDecimal(2, payment.getAmount().toBigDecimal());
+        ps.setString(3, payment.getMethod());
+        ps.setString(4, payment.getNote());
+        ps.setDate(5, new Date(payment.getPaidOn().getTime()));
+
+        int affected = ps.executeUpdate();
+        if (affected != 1) {
+          return false;
+        }
+      }
+      StudentBalanceDAO.applyPayment(conn, payment.getStudentId(), payment.getAmount());
+      conn.commit();
+      AsyncAccountantDAO.invalidatePaymentsForStudent(payment.getStudentId());
+      return true;
     } catch (Exception ex) {
       ex.printStackTrace();
       return false;
@@ -55,7 +63,7 @@ public final class FeeAccountDAO {
               new Payment(
                   rs.getInt("payment_id"),
                   rs.getInt("student_id"),
-                  rs.getBigDecimal("amount"),
+                  Money.of(rs.getBigDecimal("amount")),
                   rs.getString("method"),
                   rs.getString("note"),
                   rs.getDate("paid_on"));
@@ -72,8 +80,8 @@ public final class FeeAccountDAO {
     String totalSql = "SELECT total_fee FROM fees_students WHERE student_id = ?";
     String paidSql = "SELECT COALESCE(SUM(amount), 0) AS total_paid FROM fees_payments WHERE student_id = ?";
 
-    BigDecimal total = BigDecimal.ZERO;
-    BigDecimal paid = BigDecimal.ZERO;
+    Money total = Money.ZERO;
+    Money paid = Money.ZERO;
 
     try (Connection conn = DBConnection.getConnection();
         PreparedStatement totalPs = conn.prepareStatement(totalSql);
@@ -82,21 +90,21 @@ public final class FeeAccountDAO {
       totalPs.setInt(1, studentId);
       try (ResultSet rs = totalPs.executeQuery()) {
         if (rs.next()) {
-          total = rs.getBigDecimal("total_fee");
+          total = Money.ofNullable(rs.getBigDecimal("total_fee"));
         }
       }
 
       paidPs.setInt(1, studentId);
       try (ResultSet rs = paidPs.executeQuery()) {
         if (rs.next()) {
-          paid = rs.getBigDecimal("total_paid");
+          paid = Money.ofNullable(rs.getBigDecimal("total_paid"));
         }
       }
     } catch (Exception ex) {
       ex.printStackTrace();
     }
 
-    BigDecimal outstanding = total.subtract(paid);
+    Money outstanding = total.minus(paid);
     return new FeeSummary(studentId, total, paid, outstanding);
   }
 }
@@ -0,0 +1,241 @@
+package database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import models.FeeRecalculation;
+import models.Money;
+
+/**
+ * Brings what students owe in line with the current course prices after prices change.
+ *
+ * <p>Only students enrolled in the changed courses are visited, in chunks of {@code
+ * fees.recalc.chunkSize} (default 1000) student ids, one short transaction each. Per chunk one
+ * {@code INSERT ... SELECT} computes every student's new total and writes a row to {@code
+ * fees_fee_adjustments} for each one whose total changed, then {@code fees_student_balances} is
+ * updated from those rows and {@code fees_students.total_fee} from the balances. A student still
+ * missing a balance row gets one first, at current prices and outside the audit, from {@link
+ * StudentBalanceDAO#refreshStudents}. Each run has a header row in {@code
+ * fees_fee_recalculations} with its reason and totals, so the delta of every student is audited.
+ * Totals are recomputed, not shifted, so a run that stops halfway is fixed by running it again.
+ * {@link RegistrarDAO#updateCourse} instead runs the same chunks inside its own transaction, so a
+ * price change and the totals it implies commit together.
+ */
+public final class FeeRecalculator {
+  private static final int CHUNK_SIZE = Integer.getInteger("fees.recalc.chunkSize", 1000);
+
+  private FeeRecalculator() {}
+
+  /**
+   * Recomputes the totals of every student enrolled in {@code courseIds}.
+   *
+   * @param reason what changed, kept with the run, e.g. "Price of Networking I 150000.00 ->
+   *     160000.00"
+   * @return the run, or {@code null} on error (chunks finished before the error stay applied)
+   */
+  public static FeeRecalculation recalculate(Collection<Integer> courseIds, String reason) {
+    try (Connection conn = DBConnection.getConnection()) {
+      conn.setAutoCommit(false);
+      FeeRecalculation run = run(conn, List.copyOf(courseIds), reason, true);
+      conn.commit();
+      return run;
+    } catch (Exception ex) {
+      ex.printStackTrace();
+      return null;
+    }
+  }
+
+  /**
+   * {@link #recalculate(Collection, String)} inside the caller's transaction on {@code conn}:
+   * nothing is committed, and failures are thrown.
+   */
+  static FeeRecalculation recalculate(
+      Connection conn, Collection<Integer> courseIds, String reason) throws SQLException {
+    return run(conn, List.copyOf(courseIds), reason, false);
+  }
+
+  /** With {@code commitChunks} the header and every chunk are committed as they are written. */
+  private static FeeRecalculation run(
+      Connection conn, List<Integer> courseIds, String reason, boolean commitChunks)
+      throws SQLException {
+    long runId = startRun(conn, reason);
+    if (commitChunks) {
+      conn.commit();
+    }
+    if (courseIds.isEmpty()) {
+      return new FeeRecalculation(runId, 0, Money.ZERO);
+    }
+    String courses = "(" + String.join(", ", Collections.nCopies(courseIds.size(), "?")) + ")";
+    String nextChunk =
+        "SELECT DISTINCT student_id FROM fees_enrollments WHERE course_id IN "
+            + courses
+            + " AND student_id > ? ORDER BY student_id LIMIT ?";
+    String enrolled =
+        " AND s.student_id IN (SELECT e.student_id FROM fees_enrollments e "
+            + "WHERE e.course_id IN "
+            + courses
+            + ")";
+    String missing =
+        "SELECT s.student_id FROM fees_students s "
+            + "WHERE s.student_id > ? AND s.student_id <= ?"
+            + enrolled
+            + " AND NOT EXISTS (SELECT 1 FROM fees_student_balances b "
+            + "WHERE b.student_id = s.student_id)";
+    // New total from current prices against the one the report shows; only real changes.
+    String adjust =
+        "INSERT INTO fees_fee_adjustments (run_id, student_id, old_total, new_total) "
+            + "SELECT ?, x.student_id, x.old_total, x.new_total FROM ("
+            + "  SELECT s.student_id, b.total_fee AS old_total, "
+            + "         COALESCE((SELECT SUM(c.price_rwf) FROM fees_enrollments e "
+            + "                     JOIN fees_courses c ON c.course_id = e.course_id "
+            + "                    WHERE e.student_id = s.student_id), 0) AS new_total "
+            + "    FROM fees_students s "
+            + "    JOIN fees_student_balances b ON b.student_id = s.student_id "
+            + "   WHERE s.student_id > ? AND s.student_id <= ?"
+            + enrolled
+            + ") x "
+            + "WHERE x.old_total <> x.new_total";
+    String newTotal =
+        "(SELECT a.new_total FROM fees_fee_adjustments a "
+            + "WHERE a.run_id = ? AND a.student_id = t.student_id)";
+    String adjusted =
+        " WHERE t.student_id IN (SELECT a.student_id FROM fees_fee_adjustments a "
+            + "WHERE a.run_id = ? AND a.student_id > ? AND a.student_id <= ?)";
+    // Only adjusted rows get a new change_seq, so the report re-reads just those.
+    String updateBalances =
+        "UPDATE fees_student_balances t SET total_fee = "
+            + newTotal
+            + ", remaining = "
+            + newTotal
+            + " - total_paid, change_seq = ?"
+            + adjusted;
+    // From the balances rather than the adjustments, so a stale legacy total is fixed as well.
+    String balanceTotal =
+        "(SELECT b.total_fee FROM fees_student_balances b WHERE b.student_id = s.student_id)";
+    String updateStudents =
+        "UPDATE fees_students s SET total_fee = "
+            + balanceTotal
+            + " WHERE s.student_id > ? AND s.student_id <= ?"
+            + enrolled
+            + " AND s.total_fee <> "
+            + balanceTotal;
+
+    int students = 0;
+    long after = 0;
+    while (true) {
+      List<Integer> chunk = new ArrayList<>();
+      try (PreparedStatement ps = conn.prepareStatement(nextChunk)) {
+        int i = bindCourses(ps, 1, courseIds);
+        ps.setLong(i++, after);
+        ps.setInt(i, CHUNK_SIZE);
+        try (ResultSet rs = ps.executeQuery()) {
+          while (rs.next()) {
+            chunk.add(rs.getInt(1));
+          }
+        }
+      }
+      if (chunk.isEmpty()) {
+        break;
+      }
+      long last = chunk.get(chunk.size() - 1);
+      List<Integer> unbalanced = new ArrayList<>();
+      try (PreparedStatement ps = conn.prepareStatement(missing)) {
+        ps.setLong(1, after);
+        ps.setLong(2, last);
+        bindCourses(ps, 3, courseIds);
+        try (ResultSet rs = ps.executeQuery()) {
+          while (rs.next()) {
+            unbalanced.add(rs.getInt(1));
+          }
+        }
+      }
+      StudentBalanceDAO.refreshStudents(conn, unbalanced);
+      try (PreparedStatement ps = conn.prepareStatement(adjust)) {
+        ps.setLong(1, runId);
+        ps.setLong(2, after);
+        ps.setLong(3, last);
+        bindCourses(ps, 4, courseIds);
+        students += ps.executeUpdate();
+      }
+      long change = StudentBalanceDAO.nextChange(conn);
+      update(conn, updateBalances, runId, runId, change, runId, after, last);
+      try (PreparedStatement ps = conn.prepareStatement(updateStudents)) {
+        ps.setLong(1, after);
+        ps.setLong(2, last);
+        bindCourses(ps, 3, courseIds);
+        ps.executeUpdate();
+      }
+      if (commitChunks) {
+        conn.commit();
+      }
+      after = last;
+    }
+    return finishRun(conn, runId, students);
+  }
+
+  private static long startRun(Connection conn, String reason) throws SQLException {
+    try (PreparedStatement ps =
+        conn.prepareStatement(
+            "INSERT INTO fees_fee_recalculations (reason) VALUES (?)", new String[] {"run_id"})) {
+      ps.setString(1, reason);
+      ps.executeUpdate();
+      try (ResultSet keys = ps.getGeneratedKeys()) {
+        if (!keys.next()) {
+          throw new SQLException("No run id generated");
+        }
+        return keys.getLong(1);
+      }
+    }
+  }
+
+  private static FeeRecalculation finishRun(Connection conn, long runId, int students)
+      throws SQLException {
+    Money delta = Money.ZERO;
+    try (PreparedStatement ps =
+        conn.prepareStatement(
+            "SELECT COALESCE(SUM(new_total - old_total), 0) FROM fees_fee_adjustments "
+                + "WHERE run_id = ?")) {
+      ps.setLong(1, runId);
+      try (ResultSet rs = ps.executeQuery()) {
+        if (rs.next()) {
+          delta = Money.of(rs.getBigDecimal(1));
+        }
+      }
+    }
+    try (PreparedStatement ps =
+        conn.prepareStatement(
+            "UPDATE fees_fee_recalculations SET students = ?, total_delta = ? WHERE run_id = ?")) {
+      ps.setInt(1, students);
+      ps.setBigDecimal(2, delta.toBigDecimal());
+      ps.setLong(3, runId);
+      ps.executeUpdate();
+    }
+    return new FeeRecalculation(runId, students, delta);
+  }
+
+  /**
+   * Runs one of the statements that copy new totals from the chunk's adjustment rows, with {@code
+   * params} bound in order.
+   */
+  private static void update(Connection conn, String sql, long... params) throws SQLException {
+    try (PreparedStatement ps = conn.prepareStatement(sql)) {
+      for (int i = 0; i < params.length; i++) {
+        ps.setLong(i + 1, params[i]);
+      }
+      ps.executeUpdate();
+    }
+  }
+
+  private static int bindCourses(PreparedStatement ps, int first, List<Integer> courseIds)
+      throws SQLException {
+    for (Integer courseId : courseIds) {
+      ps.setInt(first++, courseId);
+    }
+    return first;
+  }
+}
@@ -0,0 +1,182 @@
+package database;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Dynamic-proxy wrappers that time JDBC calls into {@link QueryStats}.
+ *
+ * <p>Statements are keyed by normalized SQL at prepare time; plain {@code Statement}s are keyed
+ * per execute call. Result sets add the time spent in {@code next()} as fetch latency and report
+ * their row count when exhausted or closed. Executions over the {@link SlowQueryLog} threshold are
+ * handed to it together with the parameters bound at the time.
+ */
+final class InstrumentedJdbc {
+
+  private InstrumentedJdbc() {}
+
+  static Connection wrap(Connection target) {
+    return proxy(Connection.class, new ConnectionHandler(target));
+  }
+
+  private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+    return type.cast(
+        Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type}, handler));
+  }
+
+  private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+    try {
+      return method.invoke(target, args);
+    } catch (InvocationTargetException ex) {
+      throw ex.getCause();
+    }
+  }
+
+  private static final class ConnectionHandler implements InvocationHandler {
+    private final Connection target;
+
+    private ConnectionHandler(Connection target) {
+      this.target = target;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+      Object result = InstrumentedJdbc.invoke(target, method, args);
+      switch (method.getName()) {
+        case "prepareStatement":
+          return proxy(
+              PreparedStatement.class,
+              new StatementHandler(
+                  result, (String) args[0], QueryMetrics.statsFor((String) args[0])));
+        case "createStatement":
+          return proxy(Statement.class, new StatementHandler(result, null, null));
+        default:
+          return result;
+      }
+    }
+  }
+
+  private static final class StatementHandler implements InvocationHandler {
+    private final Object target;
+    private final String preparedSql;
+    private final QueryStats prepared;
+    private final List<Object> params = new ArrayList<>();
+
+    private StatementHandler(Object target, String preparedSql, QueryStats prepared) {
+      this.target = target;
+      this.preparedSql = preparedSql;
+      this.prepared = prepared;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+      String name = method.getName();
+      if (!name.startsWith("execute")) {
+        if (SlowQueryLog.isEnabled()) {
+          trackParameters(name, args);
+        }
+        return InstrumentedJdbc.invoke(target, method, args);
+      }
+      boolean adHoc = preparedSql == null && args != null && args[0] instanceof String;
+      QueryStats stats = adHoc ? QueryMetrics.statsFor((String) args[0]) : prepared;
+      if (stats == null) {
+        return InstrumentedJdbc.invoke(target, method, args);
+      }
+      long start = System.nanoTime();
+      Object result;
+      try {
+        result = InstrumentedJdbc.invoke(target, method, args);
+      } catch (Throwable t) {
+        stats.recordError();
+        throw t;
+      } finally {
+        long elapsed = System.nanoTime() - start;
+        stats.recordExecution(elapsed);
+        if (SlowQueryLog.isSlow(elapsed)) {
+          SlowQueryLog.record(
+              adHoc ? (String) args[0] : preparedSql,
+              adHoc ? new ArrayList<>() : new ArrayList<>(params),
+              elapsed);
+        }
+      }
+      if (result instanceof ResultSet) {
+        return proxy(ResultSet.class, new ResultSetHandler((ResultSet) result, stats));
+      }
+      if (result instanceof Integer || result instanceof Long) {
+        stats.recordRows(((Number) result).longValue());
+      } else if (result instanceof int[]) {
+        long rows = 0;
+        for (int count : (int[]) result) {
+          rows += Math.max(count, 0);
+        }
+        stats.recordRows(rows);
+      }
+      return result;
+    }
+
+    /** Mirrors {@code setXxx(index, value, ...)} calls so a slow execution can be replayed. */
+    private void trackParameters(String name, Object[] args) {
+      if ("clearParameters".equals(name)) {
+        params.clear();
+      } else if (name.startsWith("set")
+          && args != null
+          && args.length >= 2
+          && args[0] instanceof Integer) {
+        int index = (Integer) args[0] - 1;
+        while (params.size() <= index) {
+          params.add(null);
+        }
+        params.set(index, "setNull".equals(name) ? null : args[1]);
+      }
+    }
+  }
+
+  private static final class ResultSetHandler implements InvocationHandler {
+    private final ResultSet target;
+    private final QueryStats stats;
+    private long fetchNanos;
+    private long rows;
+    private boolean reported;
+
+    private ResultSetHandler(ResultSet target, QueryStats stats) {
+      this.target = target;
+      this.stats = stats;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+      switch (method.getName()) {
+        case "next":
+          long start = System.nanoTime();
+          boolean more = (Boolean) InstrumentedJdbc.invoke(target, method, args);
+          fetchNanos += System.nanoTime() - start;
+          if (more) {
+            rows++;
+          } else {
+            report();
+          }
+          return more;
+        case "close":
+          report();
+          return InstrumentedJdbc.invoke(target, method, args);
+        default:
+          return InstrumentedJdbc.invoke(target, method, args);
+      }
+    }
+
+    private void report() {
+      if (!reported) {
+        reported = true;
+        stats.recordFetch(fetchNanos, rows);
+      }
+    }
+  }
+}
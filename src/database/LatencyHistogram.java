@@ -0,0 +1,97 @@
+package database;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free latency histogram with 1-2-5 buckets from 10 microseconds to 100 seconds.
+ *
+ * <p>Percentiles are reported as the upper bound of the bucket they fall in, which is plenty to
+ * tell a 2 ms query from a 200 ms one.
+ */
+final class LatencyHistogram {
+  private static final long[] BOUNDS_MICROS = buildBounds();
+
+  private final AtomicLongArray counts = new AtomicLongArray(BOUNDS_MICROS.length + 1);
+  private final LongAdder count = new LongAdder();
+  private final LongAdder totalMicros = new LongAdder();
+  private final LongAccumulator maxMicros = new LongAccumulator(Math::max, 0);
+
+  void record(long nanos) {
+    long micros = nanos / 1000;
+    counts.incrementAndGet(bucketFor(micros));
+    count.increment();
+    totalMicros.add(micros);
+    maxMicros.accumulate(micros);
+  }
+
+  long getCount() {
+    return count.sum();
+  }
+
+  long getMeanMicros() {
+    long n = count.sum();
+    return n == 0 ? 0 : totalMicros.sum() / n;
+  }
+
+  long getMaxMicros() {
+    return maxMicros.get();
+  }
+
+  /** Upper bound (micros) of the bucket holding the given percentile, e.g. 99.0. */
+  long percentileMicros(double percentile) {
+    long n = 0;
+    long[] snapshot = new long[counts.length()];
+    for (int i = 0; i < snapshot.length; i++) {
+      snapshot[i] = counts.get(i);
+      n += snapshot[i];
+    }
+    if (n == 0) {
+      return 0;
+    }
+    long rank = (long) Math.ceil(n * percentile / 100.0);
+    long seen = 0;
+    for (int i = 0; i < snapshot.length; i++) {
+      seen += snapshot[i];
+      if (seen >= rank) {
+        return i < BOUNDS_MICROS.length ? BOUNDS_MICROS[i] : getMaxMicros();
+      }
+    }
+    return getMaxMicros();
+  }
+
+  void reset() {
+    for (int i = 0; i < counts.length(); i++) {
+      counts.set(i, 0);
+    }
+    count.reset();
+    totalMicros.reset();
+    maxMicros.reset();
+  }
+
+  private static int bucketFor(long micros) {
+    for (int i = 0; i < BOUNDS_MICROS.length; i++) {
+      if (micros <= BOUNDS_MICROS[i]) {
+        return i;
+      }
+    }
+    return BOUNDS_MICROS.length;
+  }
+
+  private static long[] buildBounds() {
+    long[] bounds = new long[22];
+    long decade = 10;
+    for (int i = 0; i < bounds.length; i += 3) {
+      bounds[i] = decade;
+      if (i + 1 < bounds.length) {
+        bounds[i + 1] = decade * 2;
+      }
+      if (i + 2 < bounds.length) {
+        bounds[i + 2] = decade * 5;
+      }
+      decade *= 10;
+    }
+    return bounds;
+  }
+}
@@ -0,0 +1,91 @@
+package database;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import models.Payment;
+
+/**
+ * LRU cache of per-student payment histories for the accountant drill-down, at most {@code
+ * capacity} students.
+ *
+ * <p>The loading future is cached, not just the result, so a prefetch and a selection of the same
+ * student share one query. Callers get a {@link CompletableFuture#copy() copy}: cancelling it only
+ * drops that caller's interest, and the query still completes into the cache. A failed load is
+ * forgotten so the next request retries. Recording a payment must {@link #invalidate} the student.
+ */
+final class PaymentHistoryCache {
+  /** Runs the actual query for one student. */
+  interface Loader {
+    CompletableFuture<List<Payment>> load(int studentId);
+  }
+
+  private final int capacity;
+  private final Loader loader;
+  private final LinkedHashMap<Integer, CompletableFuture<List<Payment>>> entries =
+      new LinkedHashMap<>(16, 0.75f, true);
+
+  PaymentHistoryCache(int capacity, Loader loader) {
+    this.capacity = capacity;
+    this.loader = loader;
+  }
+
+  /** The student's payments, from the cache or a new query. */
+  CompletableFuture<List<Payment>> get(int studentId) {
+    return entry(studentId).copy();
+  }
+
+  /** The student's payments if they are already loaded, else {@code null}; never queries. */
+  synchronized List<Payment> getIfLoaded(int studentId) {
+    CompletableFuture<List<Payment>> entry = entries.get(studentId);
+    return entry != null && entry.isDone() && !entry.isCompletedExceptionally()
+        ? entry.join()
+        : null;
+  }
+
+  /** Starts loading the student's payments unless they are cached or already on the way. */
+  void prefetch(int studentId) {
+    entry(studentId);
+  }
+
+  synchronized void invalidate(int studentId) {
+    entries.remove(studentId);
+  }
+
+  synchronized void clear() {
+    entries.clear();
+  }
+
+  private synchronized CompletableFuture<List<Payment>> entry(int studentId) {
+    CompletableFuture<List<Payment>> entry = entries.get(studentId);
+    if (entry != null) {
+      return entry;
+    }
+    CompletableFuture<List<Payment>> loading =
+        loader.load(studentId).thenApply(List::copyOf);
+    entries.put(studentId, loading);
+    evictOverflow();
+    loading.whenComplete(
+        (payments, error) -> {
+          if (error != null) {
+            forget(studentId, loading);
+          }
+        });
+    return loading;
+  }
+
+  private synchronized void forget(int studentId, CompletableFuture<?> failed) {
+    entries.remove(studentId, failed);
+  }
+
+  private void evictOverflow() {
+    Iterator<Map.Entry<Integer, CompletableFuture<List<Payment>>>> it =
+        entries.entrySet().iterator();
+    while (entries.size() > capacity && it.hasNext()) {
+      it.next();
+      it.remove();
+    }
+  }
+}
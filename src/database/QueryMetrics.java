@@ -0,0 +1,159 @@
+package database;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Per-statement JDBC timings for every pooled connection.
+ *
+ * <p>Each distinct normalized SQL text (literals and IN-lists collapsed to {@code ?}) gets a
+ * {@link QueryStats} that is registered with the platform MBean server as {@code
+ * studentfees:type=QueryStats,id=N}, so JConsole/VisualVM show which DAO query regressed. Set
+ * {@code -Dfees.metrics.dumpIntervalSec=300} to also write a text table every five minutes, to
+ * {@code fees.metrics.dumpFile} if given or stderr otherwise. {@code -Dfees.metrics.enabled=false}
+ * turns instrumentation off.
+ */
+public final class QueryMetrics {
+  private static final boolean ENABLED =
+      Boolean.parseBoolean(System.getProperty("fees.metrics.enabled", "true"));
+  private static final int MAX_STATEMENTS = 500;
+  private static final String OVERFLOW_KEY = "(other statements)";
+
+  private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+  private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+  private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+  private static final Pattern IN_LIST =
+      Pattern.compile("(?i)\\bIN\\s*\\(\\s*\\?(?:\\s*,\\s*\\?)+\\s*\\)");
+
+  private static final ConcurrentHashMap<String, String> NORMALIZED = new ConcurrentHashMap<>();
+  private static final ConcurrentHashMap<String, QueryStats> STATS = new ConcurrentHashMap<>();
+  private static final AtomicInteger NEXT_ID = new AtomicInteger();
+
+  static {
+    long interval = Long.getLong("fees.metrics.dumpIntervalSec", 0L);
+    if (ENABLED && interval > 0) {
+      startPeriodicDump(interval);
+    }
+  }
+
+  private QueryMetrics() {}
+
+  public static boolean isEnabled() {
+    return ENABLED;
+  }
+
+  /** Wraps a physical connection so its statements report into this registry. */
+  static Connection instrument(Connection physical) {
+    return ENABLED ? InstrumentedJdbc.wrap(physical) : physical;
+  }
+
+  /** Stats for {@code sql}, created and registered with JMX on first use. */
+  static QueryStats statsFor(String sql) {
+    String key = NORMALIZED.computeIfAbsent(sql, QueryMetrics::normalize);
+    QueryStats stats = STATS.get(key);
+    if (stats != null) {
+      return stats;
+    }
+    if (STATS.size() >= MAX_STATEMENTS) {
+      key = OVERFLOW_KEY;
+    }
+    return STATS.computeIfAbsent(key, QueryMetrics::register);
+  }
+
+  /** Snapshot of all statements seen so far, slowest total time first. */
+  public static List<QueryStats> snapshot() {
+    List<QueryStats> all = new ArrayList<>(STATS.values());
+    all.sort(
+        Comparator.comparingLong((QueryStats s) -> s.getMeanExecMicros() * s.getExecutions())
+            .reversed());
+    return all;
+  }
+
+  /** Writes a fixed-width table of all statements. */
+  public static void dump(PrintWriter out) {
+    out.printf("---- query metrics %s ----%n", LocalDateTime.now());
+    out.printf(
+        "%8s %6s %9s %9s %9s %9s %9s %9s  %s%n",
+        "execs", "errors", "rows", "mean_us", "p50_us", "p95_us", "p99_us", "fetch_us", "sql");
+    for (QueryStats s : snapshot()) {
+      out.printf(
+          "%8d %6d %9d %9d %9d %9d %9d %9d  %s%n",
+          s.getExecutions(),
+          s.getErrors(),
+          s.getRows(),
+          s.getMeanExecMicros(),
+          s.getP50ExecMicros(),
+          s.getP95ExecMicros(),
+          s.getP99ExecMicros(),
+          s.getMeanFetchMicros(),
+          s.getSql());
+    }
+    out.flush();
+  }
+
+  static String normalize(String sql) {
+    String s = WHITESPACE.matcher(sql.trim()).replaceAll(" ");
+    s = STRING_LITERAL.matcher(s).replaceAll("?");
+    s = NUMBER_LITERAL.matcher(s).replaceAll("?");
+    return IN_LIST.matcher(s).replaceAll("IN (?, ...)");
+  }
+
+  private static QueryStats register(String sql) {
+    QueryStats stats = new QueryStats(sql);
+    try {
+      MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+      server.registerMBean(
+          stats, new ObjectName("studentfees:type=QueryStats,id=" + NEXT_ID.incrementAndGet()));
+    } catch (Exception ex) {
+      // metrics still work without JMX
+      ex.printStackTrace();
+    }
+    return stats;
+  }
+
+  private static void startPeriodicDump(long intervalSec) {
+    ScheduledExecutorService dumper =
+        Executors.newSingleThreadScheduledExecutor(
+            r -> {
+              Thread t = new Thread(r, "query-metrics-dump");
+              t.setDaemon(true);
+              return t;
+            });
+    String file = System.getProperty("fees.metrics.dumpFile");
+    dumper.scheduleAtFixedRate(
+        () -> {
+          if (file == null) {
+            dump(new PrintWriter(new OutputStreamWriter(System.err, StandardCharsets.UTF_8)));
+            return;
+          }
+          try (PrintWriter out =
+              new PrintWriter(
+                  new OutputStreamWriter(
+                      new FileOutputStream(file, true), StandardCharsets.UTF_8))) {
+            dump(out);
+          } catch (IOException ex) {
+            ex.printStackTrace();
+          }
+        },
+        intervalSec,
+        intervalSec,
+        TimeUnit.SECONDS);
+  }
+}
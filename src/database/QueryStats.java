@@ -0,0 +1,96 @@
+package database;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/** Execution and fetch latency, row and error counts for one normalized SQL statement. */
+public final class QueryStats implements QueryStatsMBean {
+  private final String sql;
+  private final LatencyHistogram exec = new LatencyHistogram();
+  private final LatencyHistogram fetch = new LatencyHistogram();
+  private final LongAdder rows = new LongAdder();
+  private final LongAdder errors = new LongAdder();
+
+  QueryStats(String sql) {
+    this.sql = sql;
+  }
+
+  void recordExecution(long nanos) {
+    exec.record(nanos);
+  }
+
+  void recordFetch(long nanos, long rowCount) {
+    fetch.record(nanos);
+    rows.add(rowCount);
+  }
+
+  void recordRows(long rowCount) {
+    rows.add(rowCount);
+  }
+
+  void recordError() {
+    errors.increment();
+  }
+
+  @Override
+  public String getSql() {
+    return sql;
+  }
+
+  @Override
+  public long getExecutions() {
+    return exec.getCount();
+  }
+
+  @Override
+  public long getErrors() {
+    return errors.sum();
+  }
+
+  @Override
+  public long getRows() {
+    return rows.sum();
+  }
+
+  @Override
+  public long getMeanExecMicros() {
+    return exec.getMeanMicros();
+  }
+
+  @Override
+  public long getP50ExecMicros() {
+    return exec.percentileMicros(50);
+  }
+
+  @Override
+  public long getP95ExecMicros() {
+    return exec.percentileMicros(95);
+  }
+
+  @Override
+  public long getP99ExecMicros() {
+    return exec.percentileMicros(99);
+  }
+
+  @Override
+  public long getMaxExecMicros() {
+    return exec.getMaxMicros();
+  }
+
+  @Override
+  public long getMeanFetchMicros() {
+    return fetch.getMeanMicros();
+  }
+
+  @Override
+  public long getP99FetchMicros() {
+    return fetch.percentileMicros(99);
+  }
+
+  @Override
+  public void reset() {
+    exec.reset();
+    fetch.reset();
+    rows.reset();
+    errors.reset();
+  }
+}
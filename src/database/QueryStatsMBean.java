@@ -0,0 +1,28 @@
+package database;
+
+/** JMX view of one normalized SQL statement's timings; see {@link QueryMetrics}. */
+public interface QueryStatsMBean {
+  String getSql();
+
+  long getExecutions();
+
+  long getErrors();
+
+  long getRows();
+
+  long getMeanExecMicros();
+
+  long getP50ExecMicros();
+
+  long getP95ExecMicros();
+
+  long getP99ExecMicros();
+
+  long getMaxExecMicros();
+
+  long getMeanFetchMicros();
+
+  long getP99FetchMicros();
+
+  void reset();
+}
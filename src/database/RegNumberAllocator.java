@@ -0,0 +1,283 @@
+package database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Year;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Hands out reg numbers like {@code 2025001}: the academic year followed by a zero-padded
+ * sequence of {@code width} digits.
+ *
+ * <p>The sequence lives in {@code fees_reg_sequences}, one row per year and width, so allocators
+ * of different widths never use up each other's numbers. Numbers are reserved from
+ * it {@code blockSize} at a time under {@code SELECT ... FOR UPDATE} in a short transaction of
+ * their own, then handed out from memory, so most calls never touch the database and two
+ * registrars (or two copies of the app) can never get the same number. Numbers left in a block
+ * when the app exits are skipped, not reused. The first reservation for a year starts after the
+ * highest reg number of that width already in {@code fees_students}.
+ *
+ * <p>A year keeps one width: reg numbers are compared as text, by {@code ORDER BY reg_number} and
+ * the report's page seeks, and {@code 2025010} sorts after {@code 202500009}. So a counter is not
+ * created for a year whose reg numbers or counter already use another width; pick a new year
+ * instead.
+ */
+public final class RegNumberAllocator {
+  private static final RegNumberAllocator DEFAULT =
+      new RegNumberAllocator(
+          Integer.getInteger("fees.reg.year", Year.now().getValue()),
+          Integer.getInteger("fees.reg.width", 3),
+          Integer.getInteger("fees.reg.blockSize", 20));
+
+  private final int year;
+  private final int width;
+  private final int blockSize;
+  private final String prefix;
+  private final long maxValue;
+  private long next;
+  private long limit;
+
+  public RegNumberAllocator(int year, int width, int blockSize) {
+    if (width < 1 || width > 9 || blockSize < 1) {
+      throw new IllegalArgumentException("width must be 1-9 and blockSize positive");
+    }
+    this.year = year;
+    this.width = width;
+    this.blockSize = blockSize;
+    this.prefix = Integer.toString(year);
+    long max = 1;
+    for (int i = 0; i < width; i++) {
+      max *= 10;
+    }
+    this.maxValue = max - 1;
+  }
+
+  /**
+   * The allocator for new registrations: this year unless {@code fees.reg.year} says otherwise,
+   * {@code fees.reg.width} digits (default 3, the format students log in with; set it higher only
+   * for a year that has no reg numbers yet), reserved {@code fees.reg.blockSize} at a time
+   * (default 20).
+   */
+  public static RegNumberAllocator getDefault() {
+    return DEFAULT;
+  }
+
+  public int getYear() {
+    return year;
+  }
+
+  public int getWidth() {
+    return width;
+  }
+
+  /** The next unused reg number. */
+  public synchronized String next() throws SQLException {
+    if (next >= limit) {
+      reserve(blockSize);
+    }
+    return format(next++);
+  }
+
+  /** {@code count} unused reg numbers, reserving them in one go if the block runs short. */
+  public synchronized List<String> next(int count) throws SQLException {
+    List<String> numbers = new ArrayList<>(count);
+    while (numbers.size() < count) {
+      if (next >= limit) {
+        reserve(Math.max(blockSize, count - numbers.size()));
+      }
+      numbers.add(format(next++));
+    }
+    return numbers;
+  }
+
+  /**
+   * Reserves {@code count} consecutive numbers for a bulk load, outside the in-memory block, and
+   * returns the first sequence value; {@link #format} turns {@code first + i} into reg numbers.
+   */
+  public long reserveRange(long count) throws SQLException {
+    try (Connection conn = DBConnection.getConnection()) {
+      conn.setAutoCommit(false);
+      long start = lockCounter(conn);
+      if (start + count - 1 > maxValue) {
+        throw new SQLException(
+            count + " reg numbers do not fit in " + width + " digits after " + format(start - 1));
+      }
+      setCounter(conn, start + count);
+      conn.commit();
+      return start;
+    }
+  }
+
+  /** The reg number for a sequence value, e.g. {@code 2025} + {@code 007}. */
+  public String format(long value) {
+    String digits = Long.toString(value);
+    StringBuilder sb = new StringBuilder(prefix.length() + width).append(prefix);
+    for (int i = digits.length(); i < width; i++) {
+      sb.append('0');
+    }
+    return sb.append(digits).toString();
+  }
+
+  /**
+   * Records that reg numbers were chosen by hand, so the sequence never hands them out later.
+   * Numbers of another year or width are ignored.
+   */
+  public synchronized void claim(Collection<String> regNumbers) throws SQLException {
+    long highest = -1;
+    for (String regNumber : regNumbers) {
+      highest = Math.max(highest, parse(regNumber));
+    }
+    if (highest < 0) {
+      return;
+    }
+    // Moving past the highest covers the others. Below the end of our block the counter is
+    // already past it, so only the block needs adjusting.
+    if (highest < limit) {
+      next = Math.max(next, highest + 1);
+      return;
+    }
+    next = limit;
+    try (Connection conn = DBConnection.getConnection()) {
+      conn.setAutoCommit(false);
+      if (lockCounter(conn) <= highest) {
+        setCounter(conn, highest + 1);
+      }
+      conn.commit();
+    }
+  }
+
+  /** Moves {@code [next, limit)} to a fresh block of {@code count} numbers, fewer near the end. */
+  private void reserve(int count) throws SQLException {
+    try (Connection conn = DBConnection.getConnection()) {
+      conn.setAutoCommit(false);
+      long start = lockCounter(conn);
+      if (start > maxValue) {
+        throw new SQLException(
+            "Reg numbers for " + year + " are exhausted at " + format(maxValue));
+      }
+      long end = Math.min(start + count, maxValue + 1);
+      setCounter(conn, end);
+      conn.commit();
+      next = start;
+      limit = end;
+    }
+  }
+
+  /** Locks the counter of this year and width and returns its value, creating it on first use. */
+  private long lockCounter(Connection conn) throws SQLException {
+    String select =
+        "SELECT next_value FROM fees_reg_sequences "
+            + "WHERE academic_year = ? AND width = ? FOR UPDATE";
+    for (int attempt = 0; ; attempt++) {
+      try (PreparedStatement ps = conn.prepareStatement(select)) {
+        ps.setInt(1, year);
+        ps.setInt(2, width);
+        try (ResultSet rs = ps.executeQuery()) {
+          if (rs.next()) {
+            return rs.getLong(1);
+          }
+        }
+      }
+      checkSingleWidth(conn);
+      try (PreparedStatement ps =
+          conn.prepareStatement(
+              "INSERT INTO fees_reg_sequences (academic_year, width, next_value) "
+                  + "VALUES (?, ?, ?)")) {
+        ps.setInt(1, year);
+        ps.setInt(2, width);
+        ps.setLong(3, highestInUse(conn) + 1);
+        ps.executeUpdate();
+      } catch (SQLException ex) {
+        // Another registrar created the row first; lock theirs instead.
+        conn.rollback();
+        if (attempt > 0) {
+          throw ex;
+        }
+      }
+    }
+  }
+
+  private void setCounter(Connection conn, long nextValue) throws SQLException {
+    try (PreparedStatement ps =
+        conn.prepareStatement(
+            "UPDATE fees_reg_sequences SET next_value = ? WHERE academic_year = ? AND width = ?")) {
+      ps.setLong(1, nextValue);
+      ps.setInt(2, year);
+      ps.setInt(3, width);
+      ps.executeUpdate();
+    }
+  }
+
+  /** Refuses a first counter for a year whose reg numbers or counter use another width. */
+  private void checkSingleWidth(Connection conn) throws SQLException {
+    try (PreparedStatement ps =
+        conn.prepareStatement(
+            "SELECT MIN(width) FROM fees_reg_sequences WHERE academic_year = ? AND width <> ?")) {
+      ps.setInt(1, year);
+      ps.setInt(2, width);
+      try (ResultSet rs = ps.executeQuery()) {
+        if (rs.next() && rs.getObject(1) != null) {
+          throw mixedWidths(rs.getInt(1) + "-digit reg numbers");
+        }
+      }
+    }
+    try (PreparedStatement ps =
+        conn.prepareStatement(
+            "SELECT MIN(reg_number) FROM fees_students WHERE reg_number LIKE ? "
+                + "AND CHAR_LENGTH(reg_number) <> ? AND reg_number REGEXP '^[0-9]+$'")) {
+      ps.setString(1, prefix + "%");
+      ps.setInt(2, prefix.length() + width);
+      try (ResultSet rs = ps.executeQuery()) {
+        if (rs.next() && rs.getString(1) != null) {
+          throw mixedWidths("reg numbers like " + rs.getString(1));
+        }
+      }
+    }
+  }
+
+  private SQLException mixedWidths(String existing) {
+    return new SQLException(
+        year
+            + " already has "
+            + existing
+            + "; "
+            + width
+            + "-digit numbers would sort out of order with them. Use that width or another year.");
+  }
+
+  /** One-off scan for the highest sequence of this year and width already used, 0 if none. */
+  private long highestInUse(Connection conn) throws SQLException {
+    String sql =
+        "SELECT MAX(reg_number) FROM fees_students WHERE reg_number LIKE ? "
+            + "AND CHAR_LENGTH(reg_number) = ?";
+    try (PreparedStatement ps = conn.prepareStatement(sql)) {
+      ps.setString(1, prefix + "%");
+      ps.setInt(2, prefix.length() + width);
+      try (ResultSet rs = ps.executeQuery()) {
+        return rs.next() ? Math.max(0, parse(rs.getString(1))) : 0;
+      }
+    }
+  }
+
+  /** The sequence part of a reg number of this year and width, or -1 for anything else. */
+  private long parse(String regNumber) {
+    if (regNumber == null
+        || regNumber.length() != prefix.length() + width
+        || !regNumber.startsWith(prefix)) {
+      return -1;
+    }
+    long value = 0;
+    for (int i = prefix.length(); i < regNumber.length(); i++) {
+      char c = regNumber.charAt(i);
+      if (c < '0' || c > '9') {
+        return -1;
+      }
+      value = value * 10 + (c - '0');
+    }
+    return value;
+  }
+}
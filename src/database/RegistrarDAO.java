@@ -1,107 +1,148 @@
 package database;
 
-import java.math.BigDecimal;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
 import models.Course;
+import models.Money;
+import models.NewStudent;
+import models.Registration;
 
 /** Data helpers used by the registrar UI. */
 public final class RegistrarDAO {
+  // Students shown in the enrolled list; callers append further AND conditions.
+  private static final String ENROLLED_STUDENTS =
+      "SELECT s.student_id, s.reg_number, s.full_name, s.program FROM fees_students s "
+          + "WHERE EXISTS (SELECT 1 FROM fees_enrollments e WHERE e.student_id = s.student_id) ";
+
   private RegistrarDAO() {}
 
+  /** Semester 1 courses of a program, from {@link CourseCatalog}. */
   public static List<Course> loadCoursesForProgram(String program) {
-    List<Course> courses = new ArrayList<>();
-    String sql =
-        "SELECT course_id, program, course_name, price_rwf "
-            + "FROM fees_courses WHERE program = ? AND semester = 1 ORDER BY course_name";
-
-    try (Connection conn = DBConnection.getConnection();
-        PreparedStatement ps = conn.prepareStatement(sql)) {
-      ps.setString(1, program);
-      try (ResultSet rs = ps.executeQuery()) {
-        while (rs.next()) {
-          courses.add(
-              new Course(
-                  rs.getInt("course_id"),
-                  rs.getString("program"),
-                  rs.getString("course_name"),
-                  rs.getBigDecimal("price_rwf")));
-        }
-      }
+    try {
+      return CourseCatalog.coursesForProgram(program);
     } catch (Exception ex) {
       ex.printStackTrace();
+      return List.of();
     }
-    return courses;
   }
 
-  /** Loads all semester 1 courses for display/management. */
+  /** Loads all semester 1 courses for display/management, from {@link CourseCatalog}. */
   public static List<Course> loadAllCourses() {
-    List<Course> courses = new ArrayList<>();
-    String sql =
-        "SELECT course_id, program, course_name, price_rwf "
-            + "FROM fees_courses WHERE semester = 1 ORDER BY program, course_name";
-
-    try (Connection conn = DBConnection.getConnection();
-        PreparedStatement ps = conn.prepareStatement(sql);
-        ResultSet rs = ps.executeQuery()) {
-      while (rs.next()) {
-        courses.add(
-            new Course(
-                rs.getInt("course_id"),
-                rs.getString("program"),
-                rs.getString("course_name"),
-                rs.getBigDecimal("price_rwf")));
-      }
+    try {
+      return CourseCatalog.allCourses();
     } catch (Exception ex) {
       ex.printStackTrace();
+      return List.of();
     }
-    return courses;
   }
 
-  public static boolean addCourse(String program, String name, BigDecimal price) {
+  public static boolean addCourse(String program, String name, Money price) {
     String sql =
         "INSERT INTO fees_courses (program, course_name, price_rwf, semester) "
             + "VALUES (?, ?, ?, 1)";
-    try (Connection conn = DBConnection.getConnection();
-        PreparedStatement ps = conn.prepareStatement(sql)) {
-      ps.setString(1, program);
-      ps.setString(2, name);
-      ps.setBigDecimal(3, price);
-      return ps.executeUpdate() == 1;
+    try (Connection conn = DBConnection.getConnection()) {
+      conn.setAutoCommit(false);
+      try (PreparedStatement ps = conn.prepareStatement(sql)) {
+        ps.setString(1, program);
+        ps.setString(2, name);
+        ps.setBigDecimal(3, price.toBigDecimal());
+        if (ps.executeUpdate() != 1) {
+          return false;
+        }
+      }
+      CourseCatalog.bumpVersion(conn);
+      conn.commit();
+      return true;
     } catch (Exception ex) {
       ex.printStackTrace();
       return false;
+    } finally {
+      CourseCatalog.invalidate();
     }
   }
 
-  public static boolean updateCourse(int id, String program, String name, BigDecimal price) {
+  /**
+   * Updates a course. When its price changes, {@link FeeRecalculator} brings the totals of the
+   * enrolled students in line in the same transaction, so {@code false} means neither the course
+   * nor any total changed.
+   */
+  public static boolean updateCourse(int id, String program, String name, Money price) {
     String sql =
         "UPDATE fees_courses SET program = ?, course_name = ?, price_rwf = ? WHERE course_id = ?";
-    try (Connection conn = DBConnection.getConnection();
-        PreparedStatement ps = conn.prepareStatement(sql)) {
-      ps.setString(1, program);
-      ps.setString(2, name);
-      ps.setBigDecimal(3, price);
-      ps.setInt(4, id);
-      return ps.executeUpdate() == 1;
+    try (Connection conn = DBConnection.getConnection()) {
+      conn.setAutoCommit(false);
+      Money oldPrice;
+      try (PreparedStatement ps =
+          conn.prepareStatement(
+              "SELECT price_rwf FROM fees_courses WHERE course_id = ? FOR UPDATE")) {
+        ps.setInt(1, id);
+        try (ResultSet rs = ps.executeQuery()) {
+          if (!rs.next()) {
+            return false;
+          }
+          oldPrice = Money.of(rs.getBigDecimal(1));
+        }
+      }
+      try (PreparedStatement ps = conn.prepareStatement(sql)) {
+        ps.setString(1, program);
+        ps.setString(2, name);
+        ps.setBigDecimal(3, price.toBigDecimal());
+        ps.setInt(4, id);
+        if (ps.executeUpdate() != 1) {
+          return false;
+        }
+      }
+      if (!oldPrice.equals(price)) {
+        FeeRecalculator.recalculate(
+            conn, List.of(id), "Price of " + name + " changed from " + oldPrice + " to " + price);
+      }
+      CourseCatalog.bumpVersion(conn);
+      conn.commit();
+      return true;
     } catch (Exception ex) {
       ex.printStackTrace();
       return false;
+    } finally {
+      CourseCatalog.invalidate();
     }
   }
 
   public static boolean deleteCourse(int id) {
     String sql = "DELETE FROM fees_courses WHERE course_id = ?";
-    try (Connection conn = DBConnection.getConnection();
-        PreparedStatement ps = conn.prepareStatement(sql)) {
-      ps.setInt(1, id);
-      return ps.executeUpdate() == 1;
+    try (Connection conn = DBConnection.getConnection()) {
+      conn.setAutoCommit(false);
+      // Enrollments cascade away with the course, so find who was affected first.
+      List<Integer> affected = StudentBalanceDAO.studentsEnrolledIn(conn, id);
+      try (PreparedStatement ps = conn.prepareStatement(sql)) {
+        ps.setInt(1, id);
+        if (ps.executeUpdate() != 1) {
+          return false;
+        }
+      }
+      for (int studentId : affected) {
+        StudentBalanceDAO.refresh(conn, studentId);
+      }
+      CourseCatalog.bumpVersion(conn);
+      conn.commit();
+      return true;
     } catch (Exception ex) {
       ex.printStackTrace();
       return false;
+    } finally {
+      CourseCatalog.invalidate();
     }
   }
 
@@ -111,9 +152,17 @@ public final class RegistrarDAO {
         "INSERT INTO fees_students (reg_number, full_name, program, password) "
             + "VALUES (?, ?, ?, ?)";
 
+    try {
+      // A hand-typed number must not be handed out again by the generator.
+      RegNumberAllocator.getDefault().claim(List.of(regNumber));
+    } catch (Exception ex) {
+      ex.printStackTrace();
+      return -1;
+    }
     try (Connection conn = DBConnection.getConnection();
         PreparedStatement ps =
             conn.prepareStatement(sql, new String[] {"student_id"})) {
+      conn.setAutoCommit(false);
       ps.setString(1, regNumber);
       ps.setString(2, fullName);
       ps.setString(3, program);
@@ -122,7 +171,11 @@ public final class RegistrarDAO {
       if (affected == 1) {
         try (ResultSet rs = ps.getGeneratedKeys()) {
           if (rs.next()) {
-            return rs.getInt(1);
+            int studentId = rs.getInt(1);
+            // A zero balance row from the start, as the accountant report joins it.
+            StudentBalanceDAO.refresh(conn, studentId);
+            conn.commit();
+            return studentId;
           }
         }
       }
@@ -132,6 +185,103 @@ public final class RegistrarDAO {
     return -1;
   }
 
+  /**
+   * Saves a student, their enrollments and balance in one transaction, so a failure leaves nothing
+   * half-registered. A missing reg number is taken from {@link RegNumberAllocator}. The total fee
+   * is summed from the course rows read in the same transaction. Safe to call from many threads
+   * at once.
+   *
+   * @return the saved registration, or {@code null} on error (e.g. the reg number exists or a
+   *     course is gone)
+   */
+  public static Registration registerStudent(NewStudent student) {
+    String sql =
+        "INSERT INTO fees_students (reg_number, full_name, program, password) "
+            + "VALUES (?, ?, ?, ?)";
+    try {
+      String regNumber = allocateRegNumbers(List.of(student)).get(0);
+      try (Connection conn = DBConnection.getConnection()) {
+        conn.setAutoCommit(false);
+        List<Course> courses = loadCourses(conn, student.getCourseIds());
+        if (courses.size() != new HashSet<>(student.getCourseIds()).size()) {
+          return null; // a course was deleted meanwhile; rolled back on close
+        }
+        int studentId;
+        try (PreparedStatement ps = conn.prepareStatement(sql, new String[] {"student_id"})) {
+          ps.setString(1, regNumber);
+          ps.setString(2, student.getFullName());
+          ps.setString(3, student.getProgram());
+          ps.setString(4, student.getPassword());
+          ps.executeUpdate();
+          try (ResultSet keys = ps.getGeneratedKeys()) {
+            if (!keys.next()) {
+              return null;
+            }
+            studentId = keys.getInt(1);
+          }
+        }
+        try (PreparedStatement ps =
+            conn.prepareStatement(
+                "INSERT INTO fees_enrollments (student_id, course_id) VALUES (?, ?)")) {
+          for (Course course : courses) {
+            ps.setInt(1, studentId);
+            ps.setInt(2, course.getId());
+            ps.addBatch();
+          }
+          ps.executeBatch();
+        }
+        StudentBalanceDAO.refresh(conn, studentId);
+        conn.commit();
+        Money total = Money.ZERO;
+        for (Course course : courses) {
+          total = total.plus(course.getPrice());
+        }
+        return new Registration(
+            studentId, regNumber, student.getFullName(), student.getProgram(), courses, total);
+      }
+    } catch (Exception ex) {
+      ex.printStackTrace();
+      return null;
+    }
+  }
+
+  /** The given courses, on the caller's connection, in the order of {@code courseIds}. */
+  private static List<Course> loadCourses(Connection conn, List<Integer> courseIds)
+      throws SQLException {
+    Map<Integer, Course> byId = new HashMap<>();
+    if (!courseIds.isEmpty()) {
+      String sql =
+          "SELECT course_id, program, course_name, price_rwf FROM fees_courses "
+              + "WHERE course_id IN ("
+              + String.join(", ", Collections.nCopies(courseIds.size(), "?"))
+              + ")";
+      try (PreparedStatement ps = conn.prepareStatement(sql)) {
+        for (int i = 0; i < courseIds.size(); i++) {
+          ps.setInt(i + 1, courseIds.get(i));
+        }
+        try (ResultSet rs = ps.executeQuery()) {
+          while (rs.next()) {
+            byId.put(
+                rs.getInt("course_id"),
+                new Course(
+                    rs.getInt("course_id"),
+                    rs.getString("program"),
+                    rs.getString("course_name"),
+                    Money.of(rs.getBigDecimal("price_rwf"))));
+          }
+        }
+      }
+    }
+    List<Course> courses = new ArrayList<>();
+    for (Integer courseId : new LinkedHashSet<>(courseIds)) {
+      Course course = byId.get(courseId);
+      if (course != null) {
+        courses.add(course);
+      }
+    }
+    return courses;
+  }
+
   public static boolean enrollStudentInCourses(int studentId, List<Integer> courseIds) {
     if (courseIds.isEmpty()) {
       return false;
@@ -139,14 +289,18 @@ public final class RegistrarDAO {
     String sql =
         "INSERT INTO fees_enrollments (student_id, course_id) "
             + "VALUES (?, ?)";
-    try (Connection conn = DBConnection.getConnection();
-        PreparedStatement ps = conn.prepareStatement(sql)) {
-      for (Integer courseId : courseIds) {
-        ps.setInt(1, studentId);
-        ps.setInt(2, courseId);
-        ps.addBatch();
+    try (Connection conn = DBConnection.getConnection()) {
+      conn.setAutoCommit(false);
+      try (PreparedStatement ps = conn.prepareStatement(sql)) {
+        for (Integer courseId : courseIds) {
+          ps.setInt(1, studentId);
+          ps.setInt(2, courseId);
+          ps.addBatch();
+        }
+        ps.executeBatch();
       }
-      ps.executeBatch();
+      StudentBalanceDAO.refresh(conn, studentId);
+      conn.commit();
       return true;
     } catch (Exception ex) {
       ex.printStackTrace();
@@ -154,65 +308,127 @@ public final class RegistrarDAO {
     }
   }
 
-  /** Generates a reg number like 2025XXX (7 digits total) based on current max. */
+  /**
+   * The next reg number from {@link RegNumberAllocator#getDefault()}, or {@code null} if none could
+   * be reserved.
+   */
   public static String generateNextRegNumber() {
-    String sql =
-        "SELECT MAX(reg_number) AS max_reg FROM fees_students WHERE reg_number LIKE '2025___'";
-    String next = "2025001";
-    try (Connection conn = DBConnection.getConnection();
-        PreparedStatement ps = conn.prepareStatement(sql);
-        ResultSet rs = ps.executeQuery()) {
-      if (rs.next() && rs.getString("max_reg") != null) {
-        String max = rs.getString("max_reg");
-        // max is like 2025XYZ -> increment XYZ
-        if (max.length() == 7) {
-          String suffix = max.substring(4);
-          try {
-            int num = Integer.parseInt(suffix);
-            num++;
-            next = "2025" + String.format("%03d", num);
-          } catch (NumberFormatException ignored) {
-            // fall back to default
-          }
-        }
-      }
+    try {
+      return RegNumberAllocator.getDefault().next();
     } catch (Exception ex) {
       ex.printStackTrace();
+      return null;
     }
-    return next;
   }
 
-  /** Computes total fee for a set of course ids. */
-  public static BigDecimal computeTotalFee(List<Integer> courseIds) {
-    if (courseIds.isEmpty()) {
-      return BigDecimal.ZERO;
-    }
-    StringBuilder inClause = new StringBuilder();
-    for (int i = 0; i < courseIds.size(); i++) {
-      if (i > 0) {
-        inClause.append(",");
+  /**
+   * Registers a block of students with their enrollments and balances in one transaction, using
+   * one batch per table. Students without a reg number get one from {@link RegNumberAllocator},
+   * reserved before the transaction starts. Nothing is saved if any row fails.
+   *
+   * @return the reg number of each student, in input order
+   */
+  public static List<String> insertStudents(List<NewStudent> students) throws SQLException {
+    String insertStudent =
+        "INSERT INTO fees_students (reg_number, full_name, program, password) "
+            + "VALUES (?, ?, ?, ?)";
+    String insertEnrollment = "INSERT INTO fees_enrollments (student_id, course_id) VALUES (?, ?)";
+    List<String> regNumbers = allocateRegNumbers(students);
+    try (Connection conn = DBConnection.getConnection()) {
+      conn.setAutoCommit(false);
+      List<Integer> studentIds = new ArrayList<>(students.size());
+      try (PreparedStatement ps = conn.prepareStatement(insertStudent, new String[] {"student_id"})) {
+        for (int i = 0; i < students.size(); i++) {
+          NewStudent student = students.get(i);
+          ps.setString(1, regNumbers.get(i));
+          ps.setString(2, student.getFullName());
+          ps.setString(3, student.getProgram());
+          ps.setString(4, student.getPassword());
+          ps.addBatch();
+        }
+        ps.executeBatch();
+        try (ResultSet keys = ps.getGeneratedKeys()) {
+          while (keys.next()) {
+            studentIds.add(keys.getInt(1));
+          }
+        }
+      }
+      if (studentIds.size() != students.size()) {
+        throw new SQLException(
+            "Expected " + students.size() + " generated ids, got " + studentIds.size());
       }
-      inClause.append("?");
+      try (PreparedStatement ps = conn.prepareStatement(insertEnrollment)) {
+        for (int i = 0; i < students.size(); i++) {
+          for (Integer courseId : students.get(i).getCourseIds()) {
+            ps.setInt(1, studentIds.get(i));
+            ps.setInt(2, courseId);
+            ps.addBatch();
+          }
+        }
+        ps.executeBatch();
+      }
+      StudentBalanceDAO.refreshStudents(conn, studentIds);
+      conn.commit();
+      return regNumbers;
+    }
+  }
+
+  /** Which of {@code regNumbers} are already taken. */
+  public static Set<String> findExistingRegNumbers(Collection<String> regNumbers)
+      throws SQLException {
+    Set<String> existing = new HashSet<>();
+    if (regNumbers.isEmpty()) {
+      return existing;
     }
     String sql =
-        "SELECT SUM(price_rwf) AS total FROM fees_courses WHERE course_id IN (" + inClause + ")";
+        "SELECT reg_number FROM fees_students WHERE reg_number IN ("
+            + String.join(", ", Collections.nCopies(regNumbers.size(), "?"))
+            + ")";
     try (Connection conn = DBConnection.getConnection();
         PreparedStatement ps = conn.prepareStatement(sql)) {
-      for (int i = 0; i < courseIds.size(); i++) {
-        ps.setInt(i + 1, courseIds.get(i));
+      int i = 1;
+      for (String regNumber : regNumbers) {
+        ps.setString(i++, regNumber);
       }
       try (ResultSet rs = ps.executeQuery()) {
-        if (rs.next() && rs.getBigDecimal("total") != null) {
-          return rs.getBigDecimal("total");
+        while (rs.next()) {
+          existing.add(rs.getString(1));
         }
       }
+    }
+    return existing;
+  }
+
+  /** Supplied reg numbers as given, the missing ones from {@link RegNumberAllocator}. */
+  private static List<String> allocateRegNumbers(List<NewStudent> students) throws SQLException {
+    List<String> supplied = new ArrayList<>();
+    for (NewStudent student : students) {
+      if (student.getRegNumber() != null) {
+        supplied.add(student.getRegNumber());
+      }
+    }
+    RegNumberAllocator allocator = RegNumberAllocator.getDefault();
+    allocator.claim(supplied);
+    Iterator<String> allocated = allocator.next(students.size() - supplied.size()).iterator();
+    List<String> regNumbers = new ArrayList<>(students.size());
+    for (NewStudent student : students) {
+      regNumbers.add(
+          student.getRegNumber() != null ? student.getRegNumber() : allocated.next());
+    }
+    return regNumbers;
+  }
+
+  /** Computes total fee for a set of course ids from {@link CourseCatalog}, without a query. */
+  public static Money computeTotalFee(List<Integer> courseIds) {
+    try {
+      return CourseCatalog.totalFee(courseIds);
     } catch (Exception ex) {
       ex.printStackTrace();
+      return Money.ZERO;
     }
-    return BigDecimal.ZERO;
   }
 
-  /** Deletes a student by reg number (cascades to enrollments and payments). */
+  /** Deletes a student by reg number (cascades to enrollments, payments and balance). */
   public static boolean deleteStudent(String regNumber) {
     String sql = "DELETE FROM fees_students WHERE reg_number = ?";
     try (Connection conn = DBConnection.getConnection();
@@ -224,6 +440,112 @@ public final class RegistrarDAO {
       return false;
     }
   }
-}
 
+  /**
+   * Up to {@code limit} students with at least one enrollment, in reg-number order, starting just
+   * after {@code afterRegNumber} ({@code null} for the first page). A non-blank {@code search}
+   * keeps students whose reg number starts with it or whose name contains it. Pages seek on the
+   * reg number index and take courses and fees from {@link CourseCatalog}, so every page costs
+   * the same no matter how far into the list it is.
+   */
+  public static List<Registration> loadEnrolledStudentPage(
+      String search, String afterRegNumber, int limit) {
+    StringBuilder sql = new StringBuilder(ENROLLED_STUDENTS);
+    List<String> args = new ArrayList<>();
+    if (afterRegNumber != null) {
+      sql.append("AND s.reg_number > ? ");
+      args.add(afterRegNumber);
+    }
+    if (search != null && !search.isBlank()) {
+      String escaped = escapeLike(search.trim());
+      // Names are matched in lower case so the search ignores case under any collation.
+      sql.append("AND (s.reg_number LIKE ? OR LOWER(s.full_name) LIKE ?) ");
+      args.add(escaped + "%");
+      args.add("%" + escaped.toLowerCase(Locale.ROOT) + "%");
+    }
+    sql.append("ORDER BY s.reg_number LIMIT ?");
+    try (Connection conn = DBConnection.getConnection();
+        PreparedStatement ps = conn.prepareStatement(sql.toString())) {
+      for (int i = 0; i < args.size(); i++) {
+        ps.setString(i + 1, args.get(i));
+      }
+      ps.setInt(args.size() + 1, limit);
+      return readEnrolled(conn, ps);
+    } catch (Exception ex) {
+      ex.printStackTrace();
+      return new ArrayList<>();
+    }
+  }
 
+  /**
+   * The enrolled-list row of one student, for patching the list after a change, or {@code null}
+   * if there is no such student, they have no enrollments, or the lookup failed.
+   */
+  public static Registration loadEnrolledStudent(String regNumber) {
+    try (Connection conn = DBConnection.getConnection();
+        PreparedStatement ps =
+            conn.prepareStatement(ENROLLED_STUDENTS + "AND s.reg_number = ?")) {
+      ps.setString(1, regNumber);
+      List<Registration> rows = readEnrolled(conn, ps);
+      return rows.isEmpty() ? null : rows.get(0);
+    } catch (Exception ex) {
+      ex.printStackTrace();
+      return null;
+    }
+  }
+
+  /** Runs an {@link #ENROLLED_STUDENTS} query, then fetches the courses of all rows at once. */
+  private static List<Registration> readEnrolled(Connection conn, PreparedStatement ps)
+      throws SQLException {
+    List<Integer> ids = new ArrayList<>();
+    List<String[]> students = new ArrayList<>();
+    try (ResultSet rs = ps.executeQuery()) {
+      while (rs.next()) {
+        ids.add(rs.getInt("student_id"));
+        students.add(
+            new String[] {
+              rs.getString("reg_number"), rs.getString("full_name"), rs.getString("program")
+            });
+      }
+    }
+    Map<Integer, List<Integer>> courseIds = new HashMap<>();
+    if (!ids.isEmpty()) {
+      String sql =
+          "SELECT student_id, course_id FROM fees_enrollments WHERE student_id IN ("
+              + String.join(", ", Collections.nCopies(ids.size(), "?"))
+              + ")";
+      try (PreparedStatement courses = conn.prepareStatement(sql)) {
+        for (int i = 0; i < ids.size(); i++) {
+          courses.setInt(i + 1, ids.get(i));
+        }
+        try (ResultSet rs = courses.executeQuery()) {
+          while (rs.next()) {
+            courseIds
+                .computeIfAbsent(rs.getInt("student_id"), id -> new ArrayList<>())
+                .add(rs.getInt("course_id"));
+          }
+        }
+      }
+    }
+    List<Registration> rows = new ArrayList<>(ids.size());
+    for (int i = 0; i < ids.size(); i++) {
+      List<Course> courses = new ArrayList<>();
+      Money total = Money.ZERO;
+      for (Integer courseId : courseIds.getOrDefault(ids.get(i), List.of())) {
+        Course course = CourseCatalog.course(courseId);
+        if (course != null) {
+          courses.add(course);
+          total = total.plus(course.getPrice());
+        }
+      }
+      String[] student = students.get(i);
+      rows.add(new Registration(ids.get(i), student[0], student[1], student[2], courses, total));
+    }
+    return rows;
+  }
+
+  /** {@code text} with the LIKE wildcards and escape character taken literally. */
+  private static String escapeLike(String text) {
+    return text.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+  }
+}
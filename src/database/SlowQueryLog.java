@@ -0,0 +1,162 @@
+package database;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Records statements slower than {@code fees.slowlog.thresholdMs} (default 500, 0 disables) with
+ * their bound parameters and the database's {@code EXPLAIN} plan.
+ *
+ * <p>The caller only enqueues; a daemon thread runs the EXPLAIN on its own pooled connection and
+ * appends to {@code fees.slowlog.file} (default {@code logs/slow-queries.log}), rolling over to
+ * {@code .1}..{@code .N} once the file passes {@code fees.slowlog.maxBytes}. When the queue is full
+ * entries are dropped and counted rather than blocking the DAO.
+ */
+public final class SlowQueryLog {
+  private static final long THRESHOLD_NANOS =
+      TimeUnit.MILLISECONDS.toNanos(Long.getLong("fees.slowlog.thresholdMs", 500L));
+  private static final boolean EXPLAIN =
+      Boolean.parseBoolean(System.getProperty("fees.slowlog.explain", "true"));
+  private static final String FILE = System.getProperty("fees.slowlog.file", "logs/slow-queries.log");
+  private static final long MAX_BYTES = Long.getLong("fees.slowlog.maxBytes", 5L * 1024 * 1024);
+  private static final int KEEP_FILES = Integer.getInteger("fees.slowlog.files", 5);
+
+  private static final BlockingQueue<Entry> QUEUE = new ArrayBlockingQueue<>(1000);
+  private static final LongAdder DROPPED = new LongAdder();
+
+  static {
+    if (isEnabled()) {
+      Thread writer = new Thread(SlowQueryLog::drain, "slow-query-log");
+      writer.setDaemon(true);
+      writer.start();
+    }
+  }
+
+  private SlowQueryLog() {}
+
+  public static boolean isEnabled() {
+    return THRESHOLD_NANOS > 0;
+  }
+
+  static boolean isSlow(long nanos) {
+    return THRESHOLD_NANOS > 0 && nanos >= THRESHOLD_NANOS;
+  }
+
+  /** Queues a slow statement for logging; never blocks the caller. */
+  static void record(String sql, List<Object> params, long nanos) {
+    if (sql.regionMatches(true, 0, "EXPLAIN", 0, 7)) {
+      return;
+    }
+    if (!QUEUE.offer(new Entry(sql, params, nanos, LocalDateTime.now()))) {
+      DROPPED.increment();
+    }
+  }
+
+  public static long getDroppedCount() {
+    return DROPPED.sum();
+  }
+
+  private static void drain() {
+    while (true) {
+      try {
+        write(QUEUE.take());
+      } catch (InterruptedException e) {
+        return;
+      } catch (RuntimeException ex) {
+        ex.printStackTrace();
+      }
+    }
+  }
+
+  private static void write(Entry entry) {
+    String plan = EXPLAIN ? explain(entry) : null;
+    File file = new File(FILE);
+    rollIfNeeded(file);
+    if (file.getParentFile() != null) {
+      file.getParentFile().mkdirs();
+    }
+    try (PrintWriter out =
+        new PrintWriter(
+            new OutputStreamWriter(new FileOutputStream(file, true), StandardCharsets.UTF_8))) {
+      out.printf(
+          "# %s  %d ms%n%s%n# params: %s%n",
+          entry.at, TimeUnit.NANOSECONDS.toMillis(entry.nanos), entry.sql, entry.params);
+      if (plan != null) {
+        out.println("# plan:");
+        out.print(plan);
+      }
+      out.println();
+    } catch (IOException ex) {
+      ex.printStackTrace();
+    }
+  }
+
+  private static String explain(Entry entry) {
+    StringBuilder plan = new StringBuilder();
+    try (Connection conn = DBConnection.getConnection();
+        PreparedStatement ps = conn.prepareStatement("EXPLAIN " + entry.sql)) {
+      for (int i = 0; i < entry.params.size(); i++) {
+        ps.setObject(i + 1, entry.params.get(i));
+      }
+      try (ResultSet rs = ps.executeQuery()) {
+        ResultSetMetaData meta = rs.getMetaData();
+        for (int c = 1; c <= meta.getColumnCount(); c++) {
+          plan.append(c > 1 ? "\t" : "#   ").append(meta.getColumnLabel(c));
+        }
+        plan.append('\n');
+        while (rs.next()) {
+          for (int c = 1; c <= meta.getColumnCount(); c++) {
+            plan.append(c > 1 ? "\t" : "#   ").append(rs.getString(c));
+          }
+          plan.append('\n');
+        }
+      }
+    } catch (Exception ex) {
+      plan.append("#   (explain failed: ").append(ex.getMessage()).append(")\n");
+    }
+    return plan.toString();
+  }
+
+  private static void rollIfNeeded(File file) {
+    if (!file.exists() || file.length() < MAX_BYTES) {
+      return;
+    }
+    new File(FILE + "." + KEEP_FILES).delete();
+    for (int i = KEEP_FILES - 1; i >= 1; i--) {
+      File older = new File(FILE + "." + i);
+      if (older.exists()) {
+        older.renameTo(new File(FILE + "." + (i + 1)));
+      }
+    }
+    file.renameTo(new File(FILE + ".1"));
+  }
+
+  /** One slow execution waiting to be written. */
+  private static final class Entry {
+    private final String sql;
+    private final List<Object> params;
+    private final long nanos;
+    private final LocalDateTime at;
+
+    private Entry(String sql, List<Object> params, long nanos, LocalDateTime at) {
+      this.sql = sql;
+      this.params = params;
+      this.nanos = nanos;
+      this.at = at;
+    }
+  }
+}
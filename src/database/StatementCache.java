@@ -0,0 +1,192 @@
+package database;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * LRU cache of prepared statements keyed by SQL text, one per pooled physical connection.
+ *
+ * <p>DAOs keep calling {@code conn.prepareStatement(sql)} and closing the result as before; the
+ * pooled connection routes that through here, and closing the statement just parks it back in the
+ * cache with its parameters and pending batch cleared and its fetch size, max rows and query
+ * timeout put back to what the driver gave it, so one borrower's settings (e.g. the streaming
+ * export's fetch size) never leak into the next. If the same SQL is already checked out on this
+ * connection, a plain uncached statement is returned instead.
+ */
+final class StatementCache {
+  private final int capacity;
+  private final LongAdder hits;
+  private final LongAdder misses;
+  private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+  StatementCache(int capacity, LongAdder hits, LongAdder misses) {
+    this.capacity = capacity;
+    this.hits = hits;
+    this.misses = misses;
+  }
+
+  synchronized PreparedStatement prepare(Connection physical, String sql, Connection logical)
+      throws SQLException {
+    Entry entry = entries.get(sql);
+    if (entry != null && !entry.inUse) {
+      hits.increment();
+      entry.inUse = true;
+      return entry.newHandle(logical);
+    }
+    misses.increment();
+    PreparedStatement statement = physical.prepareStatement(sql);
+    if (entry != null) {
+      return statement;
+    }
+    entry = new Entry(statement);
+    try {
+      entry.rememberDefaults();
+    } catch (SQLException ex) {
+      closeQuietly(statement);
+      throw ex;
+    }
+    entry.inUse = true;
+    entries.put(sql, entry);
+    evictOverflow();
+    return entry.newHandle(logical);
+  }
+
+  /** Closes every cached statement; called before the physical connection is closed. */
+  synchronized void closeAll() {
+    for (Entry entry : entries.values()) {
+      closeQuietly(entry.statement);
+    }
+    entries.clear();
+  }
+
+  private void evictOverflow() {
+    Iterator<Entry> it = entries.values().iterator();
+    while (entries.size() > capacity && it.hasNext()) {
+      Entry eldest = it.next();
+      it.remove();
+      if (eldest.inUse) {
+        eldest.evicted = true;
+      } else {
+        closeQuietly(eldest.statement);
+      }
+    }
+  }
+
+  private synchronized void checkIn(Entry entry) {
+    entry.inUse = false;
+    try {
+      entry.reset();
+    } catch (SQLException ex) {
+      entry.evicted = true;
+      entries.values().remove(entry);
+    }
+    if (entry.evicted) {
+      closeQuietly(entry.statement);
+    }
+  }
+
+  private static void closeQuietly(PreparedStatement statement) {
+    try {
+      statement.close();
+    } catch (SQLException ignored) {
+      // ignore close failure
+    }
+  }
+
+  /** A cached physical statement and its checkout state. */
+  private final class Entry {
+    private final PreparedStatement statement;
+    private boolean inUse;
+    private boolean evicted;
+    private int fetchSize;
+    private int maxRows;
+    private int queryTimeout;
+
+    private Entry(PreparedStatement statement) {
+      this.statement = statement;
+    }
+
+    private void rememberDefaults() throws SQLException {
+      fetchSize = statement.getFetchSize();
+      maxRows = statement.getMaxRows();
+      queryTimeout = statement.getQueryTimeout();
+    }
+
+    /** Undoes what a borrower may have changed, ready for the next checkout. */
+    private void reset() throws SQLException {
+      statement.clearParameters();
+      statement.clearBatch();
+      statement.clearWarnings();
+      // Max rows first: some drivers reject a fetch size above the current max rows.
+      if (statement.getMaxRows() != maxRows) {
+        statement.setMaxRows(maxRows);
+      }
+      if (statement.getFetchSize() != fetchSize) {
+        statement.setFetchSize(fetchSize);
+      }
+      if (statement.getQueryTimeout() != queryTimeout) {
+        statement.setQueryTimeout(queryTimeout);
+      }
+    }
+
+    private PreparedStatement newHandle(Connection logical) {
+      return (PreparedStatement)
+          Proxy.newProxyInstance(
+              PreparedStatement.class.getClassLoader(),
+              new Class<?>[] {PreparedStatement.class},
+              new Handle(this, logical));
+    }
+  }
+
+  /** One checkout of a cached statement; closing it returns the statement to the cache. */
+  private final class Handle implements InvocationHandler {
+    private final Entry entry;
+    private final Connection logical;
+    private boolean closed;
+
+    private Handle(Entry entry, Connection logical) {
+      this.entry = entry;
+      this.logical = logical;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+      switch (method.getName()) {
+        case "close":
+          if (!closed) {
+            closed = true;
+            checkIn(entry);
+          }
+          return null;
+        case "isClosed":
+          return closed || entry.statement.isClosed();
+        case "getConnection":
+          return logical;
+        case "equals":
+          return proxy == args[0];
+        case "hashCode":
+          return System.identityHashCode(proxy);
+        case "toString":
+          return "CachedStatement[" + entry.statement + "]";
+        default:
+          break;
+      }
+      if (closed) {
+        throw new SQLException("Statement is closed");
+      }
+      try {
+        return method.invoke(entry.statement, args);
+      } catch (InvocationTargetException ex) {
+        throw ex.getCause();
+      }
+    }
+  }
+}
@@ -0,0 +1,258 @@
+package database;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import models.Money;
+
+/**
+ * Maintains {@code fees_student_balances}, the per-student total fee / paid / remaining read model
+ * behind the accountant report.
+ *
+ * <p>The DAOs that change payments or enrollments call these helpers on their own connection
+ * inside the same transaction as the change, so the balance never drifts from the rows it
+ * summarizes. The enrollment helpers also keep {@code fees_students.total_fee}, the total the fee
+ * account screen reads, at the sum of the student's course prices. Price changes go through {@link
+ * FeeRecalculator} instead, which updates the affected students in chunks. {@link #rebuild()}
+ * recomputes everything from scratch. Every student gets a row in the transaction that creates
+ * it, and the row carries the student's program, so the report can sort and filter on this table
+ * alone.
+ *
+ * <p>Every write stamps the rows it changes with a value from {@link #nextChange}, so the report
+ * can fetch just the rows changed since it last looked, whatever changed them.
+ */
+public final class StudentBalanceDAO {
+  /** Total fee of the student row aliased {@code t}, from the course prices of its enrollments. */
+  private static final String FEE_OF_T =
+      "COALESCE((SELECT SUM(c.price_rwf) FROM fees_enrollments e "
+          + "          JOIN fees_courses c ON c.course_id = e.course_id "
+          + "         WHERE e.student_id = t.student_id), 0)";
+
+  private static final String PAID_OF_T =
+      "COALESCE((SELECT SUM(p.amount) FROM fees_payments p WHERE p.student_id = t.student_id), 0)";
+
+  /** Brings existing rows in line, touching only those whose totals actually differ. */
+  private static final String UPDATE_CHANGED =
+      "UPDATE fees_student_balances t SET total_fee = "
+          + FEE_OF_T
+          + ", total_paid = "
+          + PAID_OF_T
+          + ", remaining = "
+          + FEE_OF_T
+          + " - "
+          + PAID_OF_T
+          + ", change_seq = ? "
+          + "WHERE (t.total_fee <> "
+          + FEE_OF_T
+          + " OR t.total_paid <> "
+          + PAID_OF_T
+          + ") AND ";
+
+  private static final String INSERT_MISSING =
+      "INSERT INTO fees_student_balances "
+          + "(student_id, program, total_fee, total_paid, remaining, change_seq) "
+          + "SELECT x.student_id, x.program, x.total_fee, x.total_paid, "
+          + "       x.total_fee - x.total_paid, ? FROM ("
+          + "  SELECT t.student_id, t.program, "
+          + FEE_OF_T
+          + " AS total_fee, "
+          + PAID_OF_T
+          + " AS total_paid "
+          + "    FROM fees_students t "
+          + "   WHERE NOT EXISTS (SELECT 1 FROM fees_student_balances b "
+          + "                      WHERE b.student_id = t.student_id) AND ";
+
+  private static final String UPDATE_STUDENT_TOTAL =
+      "UPDATE fees_students s SET total_fee = "
+          + "COALESCE((SELECT SUM(c.price_rwf) FROM fees_enrollments e "
+          + "            JOIN fees_courses c ON c.course_id = e.course_id "
+          + "           WHERE e.student_id = s.student_id), 0) ";
+
+  private StudentBalanceDAO() {}
+
+  /**
+   * Takes the next value of the balance change sequence, to stamp into {@code change_seq} of every
+   * balance row this transaction writes. The counter row stays locked until the transaction ends,
+   * so values commit in the order they are handed out: once a reader sees the counter at n, every
+   * row stamped n or lower is already visible. Take it after the transaction's other writes, to
+   * hold the lock briefly.
+   */
+  static long nextChange(Connection conn) throws SQLException {
+    try (Statement st = conn.createStatement()) {
+      if (st.executeUpdate(
+              "UPDATE fees_balance_sequence SET last_value = last_value + 1 WHERE id = 1")
+          != 1) {
+        throw new SQLException("fees_balance_sequence has no row; run 18_add_balance_changes.sql");
+      }
+      try (ResultSet rs =
+          st.executeQuery("SELECT last_value FROM fees_balance_sequence WHERE id = 1")) {
+        rs.next();
+        return rs.getLong(1);
+      }
+    }
+  }
+
+  /** The last value handed out by {@link #nextChange}, for readers to watermark on. */
+  static long lastChange(Connection conn) throws SQLException {
+    try (Statement st = conn.createStatement();
+        ResultSet rs =
+            st.executeQuery("SELECT last_value FROM fees_balance_sequence WHERE id = 1")) {
+      return rs.next() ? rs.getLong(1) : 0;
+    }
+  }
+
+  /** Adds a just-inserted payment to the student's balance. */
+  static void applyPayment(Connection conn, int studentId, Money amount) throws SQLException {
+    String sql =
+        "UPDATE fees_student_balances SET total_paid = total_paid + ?, remaining = remaining - ?, "
+            + "change_seq = ? WHERE student_id = ?";
+    try (PreparedStatement ps = conn.prepareStatement(sql)) {
+      ps.setBigDecimal(1, amount.toBigDecimal());
+      ps.setBigDecimal(2, amount.toBigDecimal());
+      ps.setLong(3, nextChange(conn));
+      ps.setInt(4, studentId);
+      if (ps.executeUpdate() == 1) {
+        return;
+      }
+    }
+    // No row yet (e.g. student created before the read model existed): compute it fully.
+    refresh(conn, studentId);
+  }
+
+  /** Recomputes one student's balance and total fee from enrollments and payments. */
+  static void refresh(Connection conn, int studentId) throws SQLException {
+    refreshStudents(conn, List.of(studentId));
+  }
+
+  /**
+   * {@link #refresh} for a batch of students, one statement each for update, insert and total. Only
+   * rows whose totals differ are written, so only they get a new {@code change_seq}.
+   */
+  static void refreshStudents(Connection conn, List<Integer> studentIds) throws SQLException {
+    if (studentIds.isEmpty()) {
+      return;
+    }
+    String in = "(" + String.join(", ", Collections.nCopies(studentIds.size(), "?")) + ")";
+    try (PreparedStatement update =
+            conn.prepareStatement(UPDATE_CHANGED + "t.student_id IN " + in);
+        PreparedStatement insert =
+            conn.prepareStatement(INSERT_MISSING + "t.student_id IN " + in + ") x");
+        PreparedStatement total =
+            conn.prepareStatement(UPDATE_STUDENT_TOTAL + "WHERE s.student_id IN " + in)) {
+      for (int i = 0; i < studentIds.size(); i++) {
+        total.setInt(i + 1, studentIds.get(i));
+      }
+      total.executeUpdate();
+      long change = nextChange(conn);
+      update.setLong(1, change);
+      insert.setLong(1, change);
+      for (int i = 0; i < studentIds.size(); i++) {
+        update.setInt(i + 2, studentIds.get(i));
+        insert.setInt(i + 2, studentIds.get(i));
+      }
+      update.executeUpdate();
+      insert.executeUpdate();
+    }
+  }
+
+  /** Copies a student's new program onto its balance row. */
+  static void updateProgram(Connection conn, int studentId, String program) throws SQLException {
+    try (PreparedStatement ps =
+        conn.prepareStatement(
+            "UPDATE fees_student_balances SET program = ?, change_seq = ? "
+                + "WHERE student_id = ? AND program <> ?")) {
+      ps.setString(1, program);
+      ps.setLong(2, nextChange(conn));
+      ps.setInt(3, studentId);
+      ps.setString(4, program);
+      ps.executeUpdate();
+    }
+  }
+
+  /**
+   * Adds the balance row of any of {@code studentIds} that has none, leaving existing rows and
+   * {@code fees_students.total_fee} alone. Every student needs a row, since the report joins it.
+   */
+  static void createMissing(Connection conn, List<Integer> studentIds) throws SQLException {
+    if (studentIds.isEmpty()) {
+      return;
+    }
+    String in = "(" + String.join(", ", Collections.nCopies(studentIds.size(), "?")) + ")";
+    try (PreparedStatement insert =
+        conn.prepareStatement(INSERT_MISSING + "t.student_id IN " + in + ") x")) {
+      insert.setLong(1, nextChange(conn));
+      for (int i = 0; i < studentIds.size(); i++) {
+        insert.setInt(i + 2, studentIds.get(i));
+      }
+      insert.executeUpdate();
+    }
+  }
+
+  /** Student ids enrolled in a course; read before the course or its enrollments change. */
+  static List<Integer> studentsEnrolledIn(Connection conn, int courseId) throws SQLException {
+    List<Integer> ids = new ArrayList<>();
+    try (PreparedStatement ps =
+        conn.prepareStatement(
+            "SELECT DISTINCT student_id FROM fees_enrollments WHERE course_id = ?")) {
+      ps.setInt(1, courseId);
+      try (ResultSet rs = ps.executeQuery()) {
+        while (rs.next()) {
+          ids.add(rs.getInt(1));
+        }
+      }
+    }
+    return ids;
+  }
+
+  /** Rebuilds the whole table in one transaction. Returns the number of rows, or -1 on error. */
+  public static int rebuild() {
+    try (Connection conn = DBConnection.getConnection()) {
+      conn.setAutoCommit(false);
+      int rows = rebuild(conn);
+      conn.commit();
+      return rows;
+    } catch (Exception ex) {
+      ex.printStackTrace();
+      return -1;
+    }
+  }
+
+  /**
+   * Rebuild on a caller-supplied connection, e.g. right after seeding a database. The total fee of
+   * every student with enrollments is brought in line too; others keep theirs. Every row is
+   * rewritten, so all of them share one new {@code change_seq}.
+   */
+  public static int rebuild(Connection conn) throws SQLException {
+    try (Statement st = conn.createStatement()) {
+      st.executeUpdate(
+          UPDATE_STUDENT_TOTAL
+              + "WHERE EXISTS (SELECT 1 FROM fees_enrollments e "
+              + "WHERE e.student_id = s.student_id)");
+      st.executeUpdate("DELETE FROM fees_student_balances");
+    }
+    try (PreparedStatement insert =
+        conn.prepareStatement(
+            "INSERT INTO fees_student_balances "
+                + "(student_id, program, total_fee, total_paid, remaining, change_seq) "
+                + "SELECT s.student_id, s.program, COALESCE(f.total_fee, 0), "
+                + "       COALESCE(p.total_paid, 0), "
+                + "       COALESCE(f.total_fee, 0) - COALESCE(p.total_paid, 0), ? "
+                + "FROM fees_students s "
+                + "LEFT JOIN (SELECT e.student_id, SUM(c.price_rwf) AS total_fee "
+                + "             FROM fees_enrollments e "
+                + "             JOIN fees_courses c ON c.course_id = e.course_id "
+                + "            GROUP BY e.student_id) f ON f.student_id = s.student_id "
+                + "LEFT JOIN (SELECT student_id, SUM(amount) AS total_paid "
+                + "             FROM fees_payments GROUP BY student_id) p "
+                + "       ON p.student_id = s.student_id")) {
+      insert.setLong(1, nextChange(conn));
+      return insert.executeUpdate();
+    }
+  }
+}
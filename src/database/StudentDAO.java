@@ -22,13 +22,23 @@ public final class StudentDAO {
     try (Connection conn = DBConnection.getConnection();
         PreparedStatement ps =
             conn.prepareStatement(sql, new String[] {"student_id"})) {
-
+      conn.setAutoCommit(false);
       ps.setString(1, student.getFullName());
       ps.setString(2, student.getProgram());
       ps.setBigDecimal(3, student.getTotalFee());
 
-      int affected = ps.executeUpdate();
-      return affected == 1;
+      if (ps.executeUpdate() != 1) {
+        return false;
+      }
+      try (ResultSet rs = ps.getGeneratedKeys()) {
+        if (!rs.next()) {
+          return false;
+        }
+        // Its balance row, so the student is never missing from the accountant report's join.
+        StudentBalanceDAO.createMissing(conn, List.of(rs.getInt(1)));
+      }
+      conn.commit();
+      return true;
     } catch (Exception ex) {
       ex.printStackTrace();
       return false;
@@ -42,12 +52,17 @@ public final class StudentDAO {
 
     try (Connection conn = DBConnection.getConnection();
         PreparedStatement ps = conn.prepareStatement(sql)) {
-
+      conn.setAutoCommit(false);
       ps.setString(1, student.getFullName());
       ps.setString(2, student.getProgram());
       ps.setBigDecimal(3, student.getTotalFee());
       ps.setInt(4, student.getId());
-      return ps.executeUpdate() == 1;
+      if (ps.executeUpdate() != 1) {
+        return false;
+      }
+      StudentBalanceDAO.updateProgram(conn, student.getId(), student.getProgram());
+      conn.commit();
+      return true;
     } catch (Exception ex) {
       ex.printStackTrace();
       return false;
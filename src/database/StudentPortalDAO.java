@@ -10,6 +10,7 @@ import java.util.ArrayList;
 import java.util.List;
 import models.Course;
 import models.FeeSummary;
+import models.Money;
 import models.Payment;
 import models.StudentInfo;
 
@@ -21,21 +22,17 @@ public final class StudentPortalDAO {
   public static StudentInfo loadStudentInfo(int studentId) {
     String sqlStudent =
         "SELECT reg_number, full_name, program FROM fees_students WHERE student_id = ?";
-    String sqlCourses =
-        "SELECT c.course_id, c.program, c.course_name, c.price_rwf "
-            + "FROM fees_enrollments e "
-            + "JOIN fees_courses c ON c.course_id = e.course_id "
-            + "WHERE e.student_id = ? AND c.semester = 1 "
-            + "ORDER BY c.course_name";
+    String sqlCourses = "SELECT course_id FROM fees_enrollments WHERE student_id = ?";
 
+    String reg;
+    String name;
+    String program;
+    List<Integer> courseIds = new ArrayList<>();
     try (Connection conn = DBConnection.getConnection();
         PreparedStatement psStudent = conn.prepareStatement(sqlStudent);
         PreparedStatement psCourses = conn.prepareStatement(sqlCourses)) {
 
       psStudent.setInt(1, studentId);
-      String reg = null;
-      String name = null;
-      String program = null;
       try (ResultSet rs = psStudent.executeQuery()) {
         if (rs.next()) {
           reg = rs.getString("reg_number");
@@ -47,22 +44,26 @@ public final class StudentPortalDAO {
       }
 
       psCourses.setInt(1, studentId);
-      List<Course> courses = new ArrayList<>();
-      BigDecimal total = BigDecimal.ZERO;
       try (ResultSet rs = psCourses.executeQuery()) {
         while (rs.next()) {
-          Course c =
-              new Course(
-                  rs.getInt("course_id"),
-                  rs.getString("program"),
-                  rs.getString("course_name"),
-                  rs.getBigDecimal("price_rwf"));
-          courses.add(c);
-          total = total.add(c.getPrice());
+          courseIds.add(rs.getInt("course_id"));
         }
       }
+    } catch (Exception ex) {
+      ex.printStackTrace();
+      return null;
+    }
 
-      return new StudentInfo(reg, name, program, courses, total);
+    try {
+      // Course details and prices come from the catalog cache, every semester the student is
+      // enrolled in, so the courses add up to the total the balances hold.
+      List<Course> courses = CourseCatalog.courses(courseIds);
+      long totalMinor = 0;
+      for (Course c : courses) {
+        totalMinor = Math.addExact(totalMinor, c.getPrice().minorUnits());
+      }
+
+      return new StudentInfo(reg, name, program, courses, Money.ofMinor(totalMinor));
     } catch (Exception ex) {
       ex.printStackTrace();
       return null;
@@ -83,7 +84,7 @@ public final class StudentPortalDAO {
               new Payment(
                   rs.getInt("payment_id"),
                   rs.getInt("student_id"),
-                  rs.getBigDecimal("amount"),
+                  Money.of(rs.getBigDecimal("amount")),
                   rs.getString("method"),
                   rs.getString("note"),
                   rs.getDate("paid_on")));
@@ -104,8 +105,8 @@ public final class StudentPortalDAO {
     String paidSql =
         "SELECT COALESCE(SUM(amount), 0) AS total_paid FROM fees_payments WHERE student_id = ?";
 
-    BigDecimal total = BigDecimal.ZERO;
-    BigDecimal paid = BigDecimal.ZERO;
+    Money total = Money.ZERO;
+    Money paid = Money.ZERO;
 
     try (Connection conn = DBConnection.getConnection();
         PreparedStatement totalPs = conn.prepareStatement(totalSql);
@@ -113,43 +114,51 @@ public final class StudentPortalDAO {
 
       totalPs.setInt(1, studentId);
       try (ResultSet rs = totalPs.executeQuery()) {
-        if (rs.next() && rs.getBigDecimal("total_fee") != null) {
-          total = rs.getBigDecimal("total_fee");
+        if (rs.next()) {
+          total = Money.ofNullable(rs.getBigDecimal("total_fee"));
         }
       }
 
       paidPs.setInt(1, studentId);
       try (ResultSet rs = paidPs.executeQuery()) {
-        if (rs.next() && rs.getBigDecimal("total_paid") != null) {
-          paid = rs.getBigDecimal("total_paid");
+        if (rs.next()) {
+          paid = Money.ofNullable(rs.getBigDecimal("total_paid"));
         }
       }
     } catch (Exception ex) {
       ex.printStackTrace();
     }
 
-    BigDecimal outstanding = total.subtract(paid);
+    Money outstanding = total.minus(paid);
     return new FeeSummary(studentId, total, paid, outstanding);
   }
 
   /** Records a MOMO payment for the given student. */
-  public static boolean recordMomoPayment(int studentId, BigDecimal amount, String note) {
+  public static boolean recordMomoPayment(int studentId, Money amount, String note) {
     return recordPayment(studentId, amount, "MOMO", note);
   }
 
   /** Records a payment with specified method (MOMO or BK). */
-  public static boolean recordPayment(int studentId, BigDecimal amount, String method, String note) {
+  public static boolean recordPayment(int studentId, Money amount, String method, String note) {
     String sql =
         "INSERT INTO fees_payments (student_id, amount, method, note, paid_on) "
             + "VALUES (?, ?, ?, ?, ?)";
-    try (Connection conn = DBConnection.getConnection();
-        PreparedStatement ps = conn.prepareStatement(sql)) {
-      ps.setInt(1, studentId);
-      ps.setBigDecimal(2, amount);
-      ps.setString(3, method);
-      ps.setString(4, note);
-      ps.setDate(5, Date.valueOf(LocalDate.now()));
-      return ps.executeUpdate() == 1;
+    try (Connection conn = DBConnection.getConnection()) {
+      conn.setAutoCommit(false);
+      try (PreparedStatement ps = conn.prepareStatement(sql)) {
+        ps.setInt(1, studentId);
+        ps.setBigDecimal(2, amount.toBigDecimal());
+        ps.setString(3, method);
+        ps.setString(4, note);
+        ps.setDate(5, Date.valueOf(LocalDate.now()));
+        if (ps.executeUpdate() != 1) {
+          return false;
+        }
+      }
+      StudentBalanceDAO.applyPayment(conn, studentId, amount);
+      conn.commit();
+      AsyncAccountantDAO.invalidatePaymentsForStudent(studentId);
+      return true;
     } catch (Exception ex) {
       ex.printStackTrace();
       return false;
@@ -0,0 +1,32 @@
+package models;
+
+import java.util.List;
+
+/**
+ * What changed in the accountant report since a watermark: the student rows whose balance was
+ * written since then, plus the new watermark and current student count.
+ */
+public class AccountantReportDelta {
+  private final long lastChange;
+  private final int studentCount;
+  private final List<AccountantStudentSummary> changedRows;
+
+  public AccountantReportDelta(
+      long lastChange, int studentCount, List<AccountantStudentSummary> changedRows) {
+    this.lastChange = lastChange;
+    this.studentCount = studentCount;
+    this.changedRows = changedRows;
+  }
+
+  public long getLastChange() {
+    return lastChange;
+  }
+
+  public int getStudentCount() {
+    return studentCount;
+  }
+
+  public List<AccountantStudentSummary> getChangedRows() {
+    return changedRows;
+  }
+}
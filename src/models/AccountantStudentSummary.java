@@ -1,25 +1,25 @@
 package models;
 
-import java.math.BigDecimal;
-
 /** Aggregate row for accountant report: one per student. */
 public class AccountantStudentSummary {
   private final int studentId;
   private final String regNumber;
   private final String fullName;
   private final String program;
-  private final BigDecimal totalFee;
-  private final BigDecimal totalPaid;
-  private final BigDecimal remaining;
+  private final Money totalFee;
+  private final Money totalPaid;
+  private final Money remaining;
+  private final PaymentStatus status;
 
   public AccountantStudentSummary(
       int studentId,
       String regNumber,
       String fullName,
       String program,
-      BigDecimal totalFee,
-      BigDecimal totalPaid,
-      BigDecimal remaining) {
+      Money totalFee,
+      Money totalPaid,
+      Money remaining,
+      PaymentStatus status) {
     this.studentId = studentId;
     this.regNumber = regNumber;
     this.fullName = fullName;
@@ -27,6 +27,7 @@ public class AccountantStudentSummary {
     this.totalFee = totalFee;
     this.totalPaid = totalPaid;
     this.remaining = remaining;
+    this.status = status;
   }
 
   public int getStudentId() {
@@ -45,17 +46,20 @@ public class AccountantStudentSummary {
     return program;
   }
 
-  public BigDecimal getTotalFee() {
+  public Money getTotalFee() {
     return totalFee;
   }
 
-  public BigDecimal getTotalPaid() {
+  public Money getTotalPaid() {
     return totalPaid;
   }
 
-  public BigDecimal getRemaining() {
+  public Money getRemaining() {
     return remaining;
   }
-}
 
+  public PaymentStatus getStatus() {
+    return status;
+  }
+}
 
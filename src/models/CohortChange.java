@@ -0,0 +1,41 @@
+package models;
+
+/**
+ * Outcome of a cohort operation in {@code CohortDAO}: how many students and enrollment rows it
+ * touched, or would touch when it was a dry run.
+ */
+public final class CohortChange {
+  private final int students;
+  private final int enrollments;
+  private final boolean dryRun;
+
+  public CohortChange(int students, int enrollments, boolean dryRun) {
+    this.students = students;
+    this.enrollments = enrollments;
+    this.dryRun = dryRun;
+  }
+
+  /** Distinct students whose enrollments change. */
+  public int getStudents() {
+    return students;
+  }
+
+  /** Enrollment rows inserted, moved or removed. */
+  public int getEnrollments() {
+    return enrollments;
+  }
+
+  /** Whether nothing was written and the counts are a preview. */
+  public boolean isDryRun() {
+    return dryRun;
+  }
+
+  @Override
+  public String toString() {
+    return (dryRun ? "would change " : "changed ")
+        + enrollments
+        + " enrollments of "
+        + students
+        + " students";
+  }
+}
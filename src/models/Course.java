@@ -1,15 +1,13 @@
 package models;
 
-import java.math.BigDecimal;
-
 /** Simple course descriptor used in registrar and student views. */
 public class Course {
   private final int id;
   private final String program;
   private final String name;
-  private final BigDecimal price;
+  private final Money price;
 
-  public Course(int id, String program, String name, BigDecimal price) {
+  public Course(int id, String program, String name, Money price) {
     this.id = id;
     this.program = program;
     this.name = name;
@@ -28,7 +26,7 @@ public class Course {
     return name;
   }
 
-  public BigDecimal getPrice() {
+  public Money getPrice() {
     return price;
   }
 
@@ -38,4 +36,3 @@ public class Course {
   }
 }
 
-
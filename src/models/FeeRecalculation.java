@@ -0,0 +1,31 @@
+package models;
+
+/**
+ * One run of {@code FeeRecalculator}: the audit run id, how many students' totals changed and by
+ * how much in all.
+ */
+public final class FeeRecalculation {
+  private final long runId;
+  private final int students;
+  private final Money totalDelta;
+
+  public FeeRecalculation(long runId, int students, Money totalDelta) {
+    this.runId = runId;
+    this.students = students;
+    this.totalDelta = totalDelta;
+  }
+
+  /** Key of the run in {@code fees_fee_recalculations} and its rows in {@code fees_fee_adjustments}. */
+  public long getRunId() {
+    return runId;
+  }
+
+  public int getStudents() {
+    return students;
+  }
+
+  /** New totals minus old totals, summed over every adjusted student. */
+  public Money getTotalDelta() {
+    return totalDelta;
+  }
+}
@@ -1,35 +1,39 @@
 package models;
 
-import java.math.BigDecimal;
-
 public class FeeSummary {
   private final int studentId;
-  private final BigDecimal totalFee;
-  private final BigDecimal totalPaid;
-  private final BigDecimal outstanding;
+  private final Money totalFee;
+  private final Money totalPaid;
+  private final Money outstanding;
+  private final PaymentStatus status;
 
-  public FeeSummary(int studentId, BigDecimal totalFee, BigDecimal totalPaid,
-      BigDecimal outstanding) {
+  public FeeSummary(int studentId, Money totalFee, Money totalPaid,
+      Money outstanding) {
     this.studentId = studentId;
     this.totalFee = totalFee;
     this.totalPaid = totalPaid;
     this.outstanding = outstanding;
+    this.status = PaymentStatus.of(totalFee, totalPaid);
   }
 
   public int getStudentId() {
     return studentId;
   }
 
-  public BigDecimal getTotalFee() {
+  public Money getTotalFee() {
     return totalFee;
   }
 
-  public BigDecimal getTotalPaid() {
+  public Money getTotalPaid() {
     return totalPaid;
   }
 
-  public BigDecimal getOutstanding() {
+  public Money getOutstanding() {
     return outstanding;
   }
+
+  public PaymentStatus getStatus() {
+    return status;
+  }
 }
 
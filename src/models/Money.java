@@ -0,0 +1,131 @@
+package models;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * An amount of RWF held as a {@code long} count of minor units (1/100), matching the {@code
+ * DECIMAL(12, 2)} columns.
+ *
+ * <p>Arithmetic is exact and throws {@link ArithmeticException} on overflow instead of wrapping.
+ * Convert at the JDBC boundary with {@link #of(BigDecimal)} / {@link #toBigDecimal()}; loops that
+ * total many amounts can add {@link #minorUnits()} with {@link Math#addExact} and wrap the result
+ * once.
+ */
+public final class Money implements Comparable<Money> {
+  /** Digits after the decimal point. */
+  public static final int SCALE = 2;
+
+  public static final Money ZERO = new Money(0);
+
+  private static final long MINOR_PER_UNIT = 100;
+
+  private final long minor;
+
+  private Money(long minor) {
+    this.minor = minor;
+  }
+
+  public static Money ofMinor(long minor) {
+    return minor == 0 ? ZERO : new Money(minor);
+  }
+
+  /**
+   * Exact conversion from a database or user value.
+   *
+   * @throws ArithmeticException if {@code value} has more than two decimals or does not fit
+   */
+  public static Money of(BigDecimal value) {
+    BigDecimal scaled = value.setScale(SCALE, RoundingMode.UNNECESSARY);
+    return ofMinor(scaled.unscaledValue().longValueExact());
+  }
+
+  /** Like {@link #of(BigDecimal)}, with SQL {@code NULL} read as zero. */
+  public static Money ofNullable(BigDecimal value) {
+    return value == null ? ZERO : of(value);
+  }
+
+  /**
+   * Parses user input such as {@code 15000} or {@code 15000.50}.
+   *
+   * @throws NumberFormatException if the text is not a number with at most two decimals
+   */
+  public static Money parse(String text) {
+    try {
+      return of(new BigDecimal(text.trim()));
+    } catch (ArithmeticException ex) {
+      throw new NumberFormatException("Not a valid amount: " + text);
+    }
+  }
+
+  public long minorUnits() {
+    return minor;
+  }
+
+  public BigDecimal toBigDecimal() {
+    return BigDecimal.valueOf(minor, SCALE);
+  }
+
+  public Money plus(Money other) {
+    return other.minor == 0 ? this : ofMinor(Math.addExact(minor, other.minor));
+  }
+
+  public Money minus(Money other) {
+    return other.minor == 0 ? this : ofMinor(Math.subtractExact(minor, other.minor));
+  }
+
+  public Money times(long factor) {
+    return ofMinor(Math.multiplyExact(minor, factor));
+  }
+
+  public Money negate() {
+    return ofMinor(Math.negateExact(minor));
+  }
+
+  public int signum() {
+    return Long.signum(minor);
+  }
+
+  public boolean isZero() {
+    return minor == 0;
+  }
+
+  public boolean isPositive() {
+    return minor > 0;
+  }
+
+  public boolean isNegative() {
+    return minor < 0;
+  }
+
+  @Override
+  public int compareTo(Money other) {
+    return Long.compare(minor, other.minor);
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    return obj instanceof Money && ((Money) obj).minor == minor;
+  }
+
+  @Override
+  public int hashCode() {
+    return Long.hashCode(minor);
+  }
+
+  /** Plain decimal with two places, e.g. {@code 150000.00}, as the DECIMAL columns print. */
+  @Override
+  public String toString() {
+    long whole = minor / MINOR_PER_UNIT;
+    int cents = (int) Math.abs(minor % MINOR_PER_UNIT);
+    StringBuilder sb = new StringBuilder(24);
+    if (minor < 0 && whole == 0) {
+      sb.append('-');
+    }
+    sb.append(whole).append('.');
+    if (cents < 10) {
+      sb.append('0');
+    }
+    return sb.append(cents).toString();
+  }
+}
@@ -0,0 +1,44 @@
+package models;
+
+import java.util.List;
+
+/**
+ * A student about to be registered, with the courses to enroll them in. A {@code null} reg number
+ * asks the DAO to allocate one.
+ */
+public final class NewStudent {
+  private final String regNumber;
+  private final String fullName;
+  private final String program;
+  private final String password;
+  private final List<Integer> courseIds;
+
+  public NewStudent(
+      String regNumber, String fullName, String program, String password, List<Integer> courseIds) {
+    this.regNumber = regNumber;
+    this.fullName = fullName;
+    this.program = program;
+    this.password = password;
+    this.courseIds = List.copyOf(courseIds);
+  }
+
+  public String getRegNumber() {
+    return regNumber;
+  }
+
+  public String getFullName() {
+    return fullName;
+  }
+
+  public String getProgram() {
+    return program;
+  }
+
+  public String getPassword() {
+    return password;
+  }
+
+  public List<Integer> getCourseIds() {
+    return courseIds;
+  }
+}
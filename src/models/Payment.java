@@ -1,18 +1,17 @@
 package models;
 
-import java.math.BigDecimal;
 import java.util.Date;
 
 public class Payment {
   private int id;
   private int studentId;
-  private BigDecimal amount;
+  private Money amount;
   private String method;
   private String note;
   private Date paidOn;
 
   public Payment(
-      int id, int studentId, BigDecimal amount, String method, String note, Date paidOn) {
+      int id, int studentId, Money amount, String method, String note, Date paidOn) {
     this.id = id;
     this.studentId = studentId;
     this.amount = amount;
@@ -21,7 +20,7 @@ public class Payment {
     this.paidOn = paidOn;
   }
 
-  public Payment(int studentId, BigDecimal amount, String method, String note, Date paidOn) {
+  public Payment(int studentId, Money amount, String method, String note, Date paidOn) {
     this.studentId = studentId;
     this.amount = amount;
     this.method = method;
@@ -37,7 +36,7 @@ public class Payment {
     return studentId;
   }
 
-  public BigDecimal getAmount() {
+  public Money getAmount() {
     return amount;
   }
 
@@ -0,0 +1,33 @@
+package models;
+
+/**
+ * Where a student stands against their fees. The accountant report gets it from SQL with every
+ * row (see {@code AccountantDAO}); {@link #of} applies the same rules in Java.
+ */
+public enum PaymentStatus {
+  NO_COURSES("No courses registered"),
+  PAID("Fully paid"),
+  PARTIAL("Partially paid"),
+  UNPAID("Not paid");
+
+  private final String label;
+
+  PaymentStatus(String label) {
+    this.label = label;
+  }
+
+  public String getLabel() {
+    return label;
+  }
+
+  /** Classifies a student from their total fee and what they have paid so far. */
+  public static PaymentStatus of(Money totalFee, Money totalPaid) {
+    if (totalFee.isZero()) {
+      return NO_COURSES;
+    }
+    if (!totalPaid.isPositive()) {
+      return UNPAID;
+    }
+    return totalPaid.compareTo(totalFee) >= 0 ? PAID : PARTIAL;
+  }
+}
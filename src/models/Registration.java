@@ -0,0 +1,55 @@
+package models;
+
+import java.util.List;
+
+/**
+ * A student with their courses and total fee, as saved by {@code RegistrarDAO.registerStudent} or
+ * listed by {@code RegistrarDAO.loadEnrolledStudentPage}.
+ */
+public final class Registration {
+  private final int studentId;
+  private final String regNumber;
+  private final String fullName;
+  private final String program;
+  private final List<Course> courses;
+  private final Money totalFee;
+
+  public Registration(
+      int studentId,
+      String regNumber,
+      String fullName,
+      String program,
+      List<Course> courses,
+      Money totalFee) {
+    this.studentId = studentId;
+    this.regNumber = regNumber;
+    this.fullName = fullName;
+    this.program = program;
+    this.courses = List.copyOf(courses);
+    this.totalFee = totalFee;
+  }
+
+  public int getStudentId() {
+    return studentId;
+  }
+
+  public String getRegNumber() {
+    return regNumber;
+  }
+
+  public String getFullName() {
+    return fullName;
+  }
+
+  public String getProgram() {
+    return program;
+  }
+
+  public List<Course> getCourses() {
+    return courses;
+  }
+
+  public Money getTotalFee() {
+    return totalFee;
+  }
+}
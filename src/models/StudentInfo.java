@@ -1,6 +1,5 @@
 package models;
 
-import java.math.BigDecimal;
 import java.util.List;
 
 /** Aggregated view of a student's profile and enrolled courses. */
@@ -9,10 +8,10 @@ public class StudentInfo {
   private final String fullName;
   private final String program;
   private final List<Course> courses;
-  private final BigDecimal totalFee;
+  private final Money totalFee;
 
   public StudentInfo(
-      String regNumber, String fullName, String program, List<Course> courses, BigDecimal totalFee) {
+      String regNumber, String fullName, String program, List<Course> courses, Money totalFee) {
     this.regNumber = regNumber;
     this.fullName = fullName;
     this.program = program;
@@ -36,9 +35,8 @@ public class StudentInfo {
     return courses;
   }
 
-  public BigDecimal getTotalFee() {
+  public Money getTotalFee() {
     return totalFee;
   }
 }
 
-
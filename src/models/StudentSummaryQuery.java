@@ -0,0 +1,122 @@
+package models;
+
+import java.util.Objects;
+
+/**
+ * Sort order and filters for the accountant report; {@code AccountantDAO} turns them into the
+ * {@code WHERE} and {@code ORDER BY} of its paged queries. Immutable: the {@code with} methods
+ * return a changed copy. A {@code null} filter matches every student.
+ */
+public final class StudentSummaryQuery {
+  /** Columns the report can be sorted by. Ties are broken by student id in the same direction. */
+  public enum SortKey {
+    REG_NUMBER,
+    FULL_NAME,
+    PROGRAM,
+    TOTAL_FEE,
+    TOTAL_PAID,
+    REMAINING;
+
+    /** Whether the sort value changes when a payment or enrollment is recorded. */
+    public boolean isBalance() {
+      return this == TOTAL_FEE || this == TOTAL_PAID || this == REMAINING;
+    }
+  }
+
+  /** Every student in reg-number order. */
+  public static final StudentSummaryQuery ALL =
+      new StudentSummaryQuery(SortKey.REG_NUMBER, false, null, null, null, null);
+
+  private final SortKey sortKey;
+  private final boolean descending;
+  private final String program;
+  private final PaymentStatus status;
+  private final Money minRemaining;
+  private final Money maxRemaining;
+
+  private StudentSummaryQuery(
+      SortKey sortKey,
+      boolean descending,
+      String program,
+      PaymentStatus status,
+      Money minRemaining,
+      Money maxRemaining) {
+    this.sortKey = sortKey;
+    this.descending = descending;
+    this.program = program;
+    this.status = status;
+    this.minRemaining = minRemaining;
+    this.maxRemaining = maxRemaining;
+  }
+
+  public StudentSummaryQuery sortedBy(SortKey sortKey, boolean descending) {
+    return new StudentSummaryQuery(
+        sortKey, descending, program, status, minRemaining, maxRemaining);
+  }
+
+  public StudentSummaryQuery withProgram(String program) {
+    return new StudentSummaryQuery(
+        sortKey, descending, program, status, minRemaining, maxRemaining);
+  }
+
+  public StudentSummaryQuery withStatus(PaymentStatus status) {
+    return new StudentSummaryQuery(
+        sortKey, descending, program, status, minRemaining, maxRemaining);
+  }
+
+  /** Keeps students whose remaining balance is within {@code [min, max]}; either end may be open. */
+  public StudentSummaryQuery withRemainingBetween(Money min, Money max) {
+    return new StudentSummaryQuery(sortKey, descending, program, status, min, max);
+  }
+
+  public SortKey getSortKey() {
+    return sortKey;
+  }
+
+  public boolean isDescending() {
+    return descending;
+  }
+
+  public String getProgram() {
+    return program;
+  }
+
+  public PaymentStatus getStatus() {
+    return status;
+  }
+
+  public Money getMinRemaining() {
+    return minRemaining;
+  }
+
+  public Money getMaxRemaining() {
+    return maxRemaining;
+  }
+
+  /** Whether {@code row} passes the filters, the same test the SQL applies. */
+  public boolean matches(AccountantStudentSummary row) {
+    return (program == null || program.equals(row.getProgram()))
+        && (status == null || status == row.getStatus())
+        && (minRemaining == null || row.getRemaining().compareTo(minRemaining) >= 0)
+        && (maxRemaining == null || row.getRemaining().compareTo(maxRemaining) <= 0);
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (!(obj instanceof StudentSummaryQuery)) {
+      return false;
+    }
+    StudentSummaryQuery other = (StudentSummaryQuery) obj;
+    return sortKey == other.sortKey
+        && descending == other.descending
+        && Objects.equals(program, other.program)
+        && status == other.status
+        && Objects.equals(minRemaining, other.minRemaining)
+        && Objects.equals(maxRemaining, other.maxRemaining);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(sortKey, descending, program, status, minRemaining, maxRemaining);
+  }
+}
@@ -1,109 +1,290 @@
 package ui;
 
-import database.AccountantDAO;
+import controllers.ReportExporter;
+import database.AsyncAccountantDAO;
 import java.awt.Color;
 import java.awt.Component;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 import javax.swing.JTable;
+import javax.swing.SwingUtilities;
 import javax.swing.table.DefaultTableCellRenderer;
-import javax.swing.table.DefaultTableModel;
+import models.AccountantReportDelta;
 import models.AccountantStudentSummary;
 import models.Payment;
+import models.Money;
+import models.PaymentStatus;
+import models.StudentSummaryQuery;
 
-/** Accountant main window - report tab wired to DB plus simple print placeholder. */
+/** Accountant main window - report tab wired to DB plus print and export. */
 public class AccountantDashboard extends javax.swing.JFrame {
+  /** How often new payments are merged into the open report; 0 turns it off. */
+  private static final int REFRESH_SECONDS = Integer.getInteger("fees.report.refreshSec", 60);
+  /** Quiet time after the last selection change before a student's payments are queried. */
+  private static final int SELECTION_DEBOUNCE_MS = 150;
+  /** Rows above and below the selection whose payments are fetched ahead of time. */
+  private static final int PREFETCH_ROWS = 2;
+  /** What clicking each report column header sorts by; {@code null} columns do not sort. */
+  private static final StudentSummaryQuery.SortKey[] SORT_KEYS = {
+    null,
+    StudentSummaryQuery.SortKey.REG_NUMBER,
+    StudentSummaryQuery.SortKey.FULL_NAME,
+    StudentSummaryQuery.SortKey.PROGRAM,
+    StudentSummaryQuery.SortKey.TOTAL_FEE,
+    StudentSummaryQuery.SortKey.TOTAL_PAID,
+    StudentSummaryQuery.SortKey.REMAINING,
+    null,
+  };
 
   private final int userId;
+  private final StudentSummaryTableModel reportModel = new StudentSummaryTableModel();
+  private final ColumnarTableModel paymentsModel = Tables.paymentsModel();
+  private final BackgroundLoader<AccountantReportDelta> reportLoader;
+  private final BackgroundLoader<AccountantReportDelta> refreshLoader;
+  private final BackgroundLoader<List<Payment>> paymentsLoader;
+  private final BackgroundLoader<List<AccountantStudentSummary>> printLoader;
+  private final BackgroundLoader<Long> exportLoader;
+  private final javax.swing.Timer refreshTimer;
+  private final javax.swing.Timer selectionTimer;
+  /** Newest payment/enrollment already reflected in the report; null until the first load. */
+  private AccountantReportDelta watermark;
+  private StudentSummaryQuery.SortKey sortKey = StudentSummaryQuery.SortKey.REG_NUMBER;
+  private boolean sortDescending;
 
   public AccountantDashboard(int userId) {
     this.userId = userId;
     initComponents();
+    reportLoader = new BackgroundLoader<>(tableSummary, this::showReportLoading);
+    paymentsLoader = new BackgroundLoader<>(tableDetails);
+    printLoader = new BackgroundLoader<>(btnPrintSummary);
+    exportLoader = new BackgroundLoader<>(panelPrint, this::showExporting);
+    // No busy cursor: the periodic refresh should go unnoticed unless something changed.
+    refreshLoader = new BackgroundLoader<>(null);
+    refreshTimer = new javax.swing.Timer(REFRESH_SECONDS * 1000, e -> refreshReport());
+    selectionTimer = new javax.swing.Timer(SELECTION_DEBOUNCE_MS, e -> loadSelectedPayments());
+    selectionTimer.setRepeats(false);
+    setUpReportTable();
+    tableDetails.setModel(paymentsModel);
     loadReportTable();
     bindReportSelection();
+    if (REFRESH_SECONDS > 0) {
+      refreshTimer.start();
+    }
+  }
+
+  @Override
+  public void dispose() {
+    refreshTimer.stop();
+    selectionTimer.stop();
+    refreshLoader.cancel();
+    reportLoader.cancel();
+    paymentsLoader.cancel();
+    printLoader.cancel();
+    exportLoader.cancel();
+    reportModel.cancelLoads();
+    super.dispose();
+  }
+
+  private void showReportLoading(boolean loading) {
+    lblHint.setText(
+        loading
+            ? "Loading report..."
+            : "Click a student on the left to see payment details on the right.");
   }
 
   private void loadReportTable() {
-    List<AccountantStudentSummary> rows = AccountantDAO.loadStudentSummaries();
-    DefaultTableModel model =
-        new DefaultTableModel(
-            new Object[] {
-              "Student ID", "Reg Number", "Full Name", "Program", "Total", "Paid", "Remaining",
-            },
-            0) {
-          @Override
-          public boolean isCellEditable(int row, int column) {
-            return false;
-          }
-        };
-    for (AccountantStudentSummary s : rows) {
-      model.addRow(
-          new Object[] {
-            s.getStudentId(),
-            s.getRegNumber(),
-            s.getFullName(),
-            s.getProgram(),
-            s.getTotalFee(),
-            s.getTotalPaid(),
-            s.getRemaining()
-          });
+    // Only the watermark and count are fetched here; rows are paged in as they scroll into view.
+    StudentSummaryQuery query = buildQuery();
+    if (query == null) {
+      return;
+    }
+    refreshLoader.cancel();
+    reportLoader.load(
+        AsyncAccountantDAO.loadReportWatermark(query), loaded -> showReport(query, loaded));
+  }
+
+  private void showReport(StudentSummaryQuery query, AccountantReportDelta loaded) {
+    if (loaded == null) {
+      return;
+    }
+    watermark = loaded;
+    reportModel.reset(query, loaded.getStudentCount());
+  }
+
+  /**
+   * The sort column and the filters picked above the report, for the database to apply. Returns
+   * {@code null}, after telling the user, if a balance bound is not a valid amount.
+   */
+  private StudentSummaryQuery buildQuery() {
+    int program = comboProgramFilter.getSelectedIndex();
+    int status = comboStatusFilter.getSelectedIndex();
+    Money min;
+    Money max;
+    try {
+      min = parseBound(txtMinRemaining.getText());
+      max = parseBound(txtMaxRemaining.getText());
+    } catch (NumberFormatException ex) {
+      javax.swing.JOptionPane.showMessageDialog(this, "Remaining balance bounds must be numeric.");
+      return null;
+    }
+    return StudentSummaryQuery.ALL
+        .sortedBy(sortKey, sortDescending)
+        .withProgram(program <= 0 ? null : comboProgramFilter.getItemAt(program))
+        .withStatus(status <= 0 ? null : PaymentStatus.values()[status - 1])
+        .withRemainingBetween(min, max);
+  }
+
+  private static Money parseBound(String text) {
+    return text.trim().isEmpty() ? null : Money.parse(text);
+  }
+
+  /**
+   * Header click: sort by that column, or flip the direction if it already is. Balances start
+   * largest first, so the biggest debtors come up on top.
+   */
+  private void sortBy(int column) {
+    StudentSummaryQuery.SortKey key = SORT_KEYS[column];
+    if (key == null) {
+      return;
     }
-    tableSummary.setModel(model);
+    sortDescending = key == sortKey ? !sortDescending : key.isBalance();
+    sortKey = key;
+    for (int c = 0; c < SORT_KEYS.length; c++) {
+      String arrow = SORT_KEYS[c] != sortKey ? "" : sortDescending ? " \u25BC" : " \u25B2";
+      tableSummary
+          .getColumnModel()
+          .getColumn(tableSummary.convertColumnIndexToView(c))
+          .setHeaderValue(reportModel.getColumnName(c) + arrow);
+    }
+    tableSummary.getTableHeader().repaint();
+    loadReportTable();
+  }
+
+  /** Timer tick: fetch only what changed since the watermark and patch it into the table. */
+  private void refreshReport() {
+    if (watermark == null || reportLoader.isLoading() || refreshLoader.isLoading()) {
+      return;
+    }
+    refreshLoader.load(
+        AsyncAccountantDAO.loadReportChangesSince(
+            reportModel.getQuery(), watermark.getLastChange()),
+        this::applyReportChanges);
+  }
+
+  private void applyReportChanges(AccountantReportDelta delta) {
+    if (delta == null) {
+      return;
+    }
+    watermark = delta;
+    for (AccountantStudentSummary changed : delta.getChangedRows()) {
+      AsyncAccountantDAO.invalidatePaymentsForStudent(changed.getStudentId());
+    }
+    if (delta.getStudentCount() != reportModel.getRowCount() || needsRepage(delta)) {
+      // Students were added, removed, moved out of the filter or re-sorted, so rows have
+      // shifted; re-page from the new count.
+      reportModel.reset(delta.getStudentCount());
+      return;
+    }
+    reportModel.patch(delta.getChangedRows());
+
+    AccountantStudentSummary selected = selectedSummary();
+    if (selected == null) {
+      return;
+    }
+    for (AccountantStudentSummary changed : delta.getChangedRows()) {
+      if (changed.getStudentId() == selected.getStudentId()) {
+        loadPaymentsFor(selected.getStudentId());
+        return;
+      }
+    }
+  }
+
+  /**
+   * Whether the changes move rows rather than just update them: a loaded row no longer passes the
+   * filters, or the report is sorted by a balance and a changed row is or belongs on screen.
+   */
+  private boolean needsRepage(AccountantReportDelta delta) {
+    StudentSummaryQuery query = reportModel.getQuery();
+    for (AccountantStudentSummary changed : delta.getChangedRows()) {
+      boolean loaded = reportModel.isLoaded(changed.getStudentId());
+      boolean matches = query.matches(changed);
+      if (query.getSortKey().isBalance() ? loaded || matches : loaded && !matches) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private void setUpReportTable() {
+    tableSummary.setModel(reportModel);
 
     // Hide internal studentId column
     tableSummary.getColumnModel().getColumn(0).setMinWidth(0);
     tableSummary.getColumnModel().getColumn(0).setMaxWidth(0);
 
     // Color rows based on status
-    tableSummary.setDefaultRenderer(
-        Object.class,
-        new DefaultTableCellRenderer() {
-          @Override
-          public Component getTableCellRendererComponent(
-              JTable table,
-              Object value,
-              boolean isSelected,
-              boolean hasFocus,
-              int row,
-              int column) {
-            Component c =
-                super.getTableCellRendererComponent(table, value, isSelected, hasFocus, row, column);
-            Object totalObj = table.getValueAt(row, 4);
-            Object paidObj = table.getValueAt(row, 5);
-            Object remainingObj = table.getValueAt(row, 6);
-            c.setForeground(Color.BLACK);
-            if (!isSelected) {
-              c.setBackground(new Color(230, 248, 255));  // light sky blue
-              try {
-                java.math.BigDecimal total =
-                    (totalObj instanceof java.math.BigDecimal)
-                        ? (java.math.BigDecimal) totalObj
-                        : new java.math.BigDecimal(totalObj.toString());
-                java.math.BigDecimal paid =
-                    (paidObj instanceof java.math.BigDecimal)
-                        ? (java.math.BigDecimal) paidObj
-                        : new java.math.BigDecimal(paidObj.toString());
-                java.math.BigDecimal remaining =
-                    (remainingObj instanceof java.math.BigDecimal)
-                        ? (java.math.BigDecimal) remainingObj
-                        : new java.math.BigDecimal(remainingObj.toString());
-                if (total.compareTo(java.math.BigDecimal.ZERO) == 0) {
-                  c.setBackground(new Color(230, 230, 230)); // gray
-                } else if (remaining.compareTo(java.math.BigDecimal.ZERO) <= 0
-                    && paid.compareTo(java.math.BigDecimal.ZERO) > 0) {
-                  c.setBackground(new Color(200, 255, 200)); // green
-                } else if (paid.compareTo(java.math.BigDecimal.ZERO) > 0) {
-                  c.setBackground(new Color(255, 235, 200)); // orange
-                } else {
-                  c.setBackground(new Color(255, 200, 200)); // red
+    tableSummary.setDefaultRenderer(Object.class, new SummaryRowRenderer());
+
+    // Sorting and filtering run in the database; the table only ever holds a few pages.
+    tableSummary
+        .getTableHeader()
+        .addMouseListener(
+            new java.awt.event.MouseAdapter() {
+              @Override
+              public void mouseClicked(java.awt.event.MouseEvent e) {
+                int column = tableSummary.columnAtPoint(e.getPoint());
+                if (column >= 0) {
+                  sortBy(tableSummary.convertColumnIndexToModel(column));
                 }
-              } catch (Exception ignored) {
               }
-            } else {
-              c.setBackground(new Color(184, 207, 229));
-            }
-            return c;
-          }
-        });
+            });
+
+    comboProgramFilter.addItem("All programs");
+    for (String program : new String[] {"SOFTWARE ENGINEERING", "INFO MANAGEMENT", "NETWORKING"}) {
+      comboProgramFilter.addItem(program);
+    }
+    comboStatusFilter.addItem("All statuses");
+    for (PaymentStatus status : PaymentStatus.values()) {
+      comboStatusFilter.addItem(status.getLabel());
+    }
+    comboProgramFilter.addActionListener(e -> loadReportTable());
+    comboStatusFilter.addActionListener(e -> loadReportTable());
+    txtMinRemaining.addActionListener(e -> loadReportTable());
+    txtMaxRemaining.addActionListener(e -> loadReportTable());
+  }
+
+  /**
+   * Colors a report row by the status that came with it; rows still loading keep the plain
+   * background. Runs for every visible cell on every repaint, so it only looks the row up and
+   * picks a prebuilt color.
+   */
+  private static final class SummaryRowRenderer extends DefaultTableCellRenderer {
+    private static final Color LOADING = new Color(230, 248, 255); // light sky blue
+    private static final Color SELECTED = new Color(184, 207, 229);
+    private static final Map<PaymentStatus, Color> BACKGROUNDS =
+        new EnumMap<>(
+            Map.of(
+                PaymentStatus.NO_COURSES, new Color(230, 230, 230), // gray
+                PaymentStatus.PAID, new Color(200, 255, 200), // green
+                PaymentStatus.PARTIAL, new Color(255, 235, 200), // orange
+                PaymentStatus.UNPAID, new Color(255, 200, 200))); // red
+
+    @Override
+    public Component getTableCellRendererComponent(
+        JTable table, Object value, boolean isSelected, boolean hasFocus, int row, int column) {
+      Component c =
+          super.getTableCellRendererComponent(table, value, isSelected, hasFocus, row, column);
+      c.setForeground(Color.BLACK);
+      if (isSelected) {
+        c.setBackground(SELECTED);
+        return c;
+      }
+      AccountantStudentSummary s =
+          ((StudentSummaryTableModel) table.getModel()).getRow(table.convertRowIndexToModel(row));
+      c.setBackground(s == null ? LOADING : BACKGROUNDS.get(s.getStatus()));
+      return c;
+    }
   }
 
   private void bindReportSelection() {
@@ -111,28 +292,173 @@ public class AccountantDashboard extends javax.swing.JFrame {
         .getSelectionModel()
         .addListSelectionListener(
             e -> {
-              int row = tableSummary.getSelectedRow();
-              if (row < 0) {
-                return;
+              if (!e.getValueIsAdjusting()) {
+                showSelectedPayments();
               }
-              int studentId = (Integer) tableSummary.getValueAt(row, 0);
-              loadPaymentsFor(studentId);
             });
   }
 
+  /**
+   * Shows the selected student's payments straight from the cache if they are there. Queries wait
+   * until the selection has been still for {@link #SELECTION_DEBOUNCE_MS}, so holding an arrow key
+   * down does not fire one query per row passed.
+   */
+  private void showSelectedPayments() {
+    AccountantStudentSummary selected = selectedSummary();
+    if (selected == null) {
+      return;
+    }
+    List<Payment> cached = AsyncAccountantDAO.cachedPaymentsForStudent(selected.getStudentId());
+    paymentsLoader.cancel();
+    showPayments(cached == null ? List.of() : cached);
+    selectionTimer.restart();
+  }
+
+  /** Debounce expired: load the selection if it was not cached, and warm the rows around it. */
+  private void loadSelectedPayments() {
+    AccountantStudentSummary selected = selectedSummary();
+    if (selected == null) {
+      return;
+    }
+    if (AsyncAccountantDAO.cachedPaymentsForStudent(selected.getStudentId()) == null) {
+      loadPaymentsFor(selected.getStudentId());
+    }
+    int row = tableSummary.getSelectedRow();
+    int last = Math.min(reportModel.getRowCount() - 1, row + PREFETCH_ROWS);
+    for (int r = Math.max(0, row - PREFETCH_ROWS); r <= last; r++) {
+      AccountantStudentSummary neighbour = r == row ? null : reportModel.getRow(r);
+      if (neighbour != null) {
+        AsyncAccountantDAO.prefetchPaymentsForStudent(neighbour.getStudentId());
+      }
+    }
+  }
+
+  /** The selected row's summary, or {@code null} if nothing is selected or its page is loading. */
+  private AccountantStudentSummary selectedSummary() {
+    int row = tableSummary.getSelectedRow();
+    return row < 0 ? null : reportModel.getRow(row);
+  }
+
   private void loadPaymentsFor(int studentId) {
-    List<Payment> payments = AccountantDAO.loadPaymentsForStudent(studentId);
-    DefaultTableModel model =
-        new DefaultTableModel(new Object[] {"Paid On", "Amount", "Method", "Note"}, 0) {
-          @Override
-          public boolean isCellEditable(int row, int column) {
-            return false;
-          }
-        };
-    for (Payment p : payments) {
-      model.addRow(new Object[] {p.getPaidOn(), p.getAmount(), p.getMethod(), p.getNote()});
+    // Rapid selection changes supersede each other; only the last one is shown.
+    paymentsLoader.load(AsyncAccountantDAO.loadPaymentsForStudent(studentId), this::showPayments);
+  }
+
+  private void showPayments(List<Payment> payments) {
+    paymentsModel.replaceAll(payments, Tables.PAYMENT_ROW);
+  }
+
+  /**
+   * Prints the report as filtered and sorted on screen. The on-screen table only holds the pages
+   * near the viewport, so the printout is rendered from a full snapshot in a table of its own.
+   */
+  private void printReport(List<AccountantStudentSummary> rows) {
+    ColumnarTableModel model =
+        new ColumnarTableModel(
+            new String[] {"Reg Number", "Full Name", "Program", "Total", "Paid", "Remaining"},
+            ColumnarTableModel.Type.TEXT,
+            ColumnarTableModel.Type.TEXT,
+            ColumnarTableModel.Type.TEXT,
+            ColumnarTableModel.Type.AMOUNT,
+            ColumnarTableModel.Type.AMOUNT,
+            ColumnarTableModel.Type.AMOUNT);
+    model.replaceAll(
+        rows,
+        (s, row) ->
+            row.text(s.getRegNumber())
+                .text(s.getFullName())
+                .text(s.getProgram())
+                .amount(s.getTotalFee())
+                .amount(s.getTotalPaid())
+                .amount(s.getRemaining()));
+    JTable printable = new JTable(model);
+    printable.setSize(printable.getPreferredSize());
+    printable.getTableHeader().setSize(printable.getTableHeader().getPreferredSize());
+    try {
+      boolean done =
+          printable.print(
+              JTable.PrintMode.FIT_WIDTH,
+              new java.text.MessageFormat("Student Fees Report"),
+              new java.text.MessageFormat("Page - {0}"));
+      if (!done) {
+        javax.swing.JOptionPane.showMessageDialog(
+            this, "Printing was cancelled.", "Print", javax.swing.JOptionPane.INFORMATION_MESSAGE);
+      }
+    } catch (Exception ex) {
+      ex.printStackTrace();
+      javax.swing.JOptionPane.showMessageDialog(
+          this, "Unable to print report: " + ex.getMessage(), "Print Error",
+          javax.swing.JOptionPane.ERROR_MESSAGE);
+    }
+  }
+
+  /** Asks for a target file and streams the whole report into it as CSV or XLSX. */
+  private void exportReport() {
+    javax.swing.filechooser.FileNameExtensionFilter xlsx =
+        new javax.swing.filechooser.FileNameExtensionFilter("Excel workbook (*.xlsx)", "xlsx");
+    javax.swing.filechooser.FileNameExtensionFilter csv =
+        new javax.swing.filechooser.FileNameExtensionFilter("CSV file (*.csv)", "csv");
+    javax.swing.JFileChooser chooser = new javax.swing.JFileChooser();
+    chooser.setDialogTitle("Export report");
+    chooser.addChoosableFileFilter(xlsx);
+    chooser.addChoosableFileFilter(csv);
+    chooser.setFileFilter(xlsx);
+    chooser.setSelectedFile(
+        new java.io.File("student-fees-" + java.time.LocalDate.now() + ".xlsx"));
+    if (chooser.showSaveDialog(this) != javax.swing.JFileChooser.APPROVE_OPTION) {
+      return;
+    }
+    java.io.File selected = chooser.getSelectedFile();
+    String name = selected.getName().toLowerCase();
+    if (!name.endsWith(".xlsx") && !name.endsWith(".csv")) {
+      selected =
+          new java.io.File(
+              selected.getPath() + (chooser.getFileFilter() == csv ? ".csv" : ".xlsx"));
     }
-    tableDetails.setModel(model);
+    java.nio.file.Path file = selected.toPath();
+
+    progressExport.setValue(0);
+    progressExport.setString("Starting export...");
+    exportLoader.load(
+        ReportExporter.exportStudentSummariesAsync(
+            file,
+            ReportExporter.Format.forFile(file),
+            (done, total) -> SwingUtilities.invokeLater(() -> showExportProgress(done, total))),
+        rows -> {
+          progressExport.setValue(progressExport.getMaximum());
+          progressExport.setString("Exported " + rows + " students");
+          javax.swing.JOptionPane.showMessageDialog(
+              this,
+              "Exported " + rows + " students to\n" + file,
+              "Export",
+              javax.swing.JOptionPane.INFORMATION_MESSAGE);
+        },
+        error -> {
+          error.printStackTrace();
+          progressExport.setString("Export failed");
+          javax.swing.JOptionPane.showMessageDialog(
+              this,
+              "Unable to export report: " + error.getMessage(),
+              "Export Error",
+              javax.swing.JOptionPane.ERROR_MESSAGE);
+        });
+  }
+
+  private void showExporting(boolean exporting) {
+    btnExportReport.setEnabled(!exporting);
+    btnCancelExport.setEnabled(exporting);
+    if (!exporting && progressExport.getValue() < progressExport.getMaximum()) {
+      progressExport.setString("Export stopped");
+    }
+  }
+
+  private void showExportProgress(long done, long total) {
+    if (!exportLoader.isLoading()) {
+      return; // late update from a cancelled export
+    }
+    int percent = total > 0 ? (int) Math.min(100, done * 100 / total) : 0;
+    progressExport.setValue(percent);
+    progressExport.setString(done + " / " + total + " students");
   }
 
   @SuppressWarnings("unchecked")
@@ -142,11 +468,21 @@ public class AccountantDashboard extends javax.swing.JFrame {
     panelReport = new javax.swing.JPanel();
     panelPrint = new javax.swing.JPanel();
     btnPrintSummary = new javax.swing.JButton();
+    btnExportReport = new javax.swing.JButton();
+    btnCancelExport = new javax.swing.JButton();
+    progressExport = new javax.swing.JProgressBar();
     scrollSummary = new javax.swing.JScrollPane();
     tableSummary = new javax.swing.JTable();
     scrollDetails = new javax.swing.JScrollPane();
     tableDetails = new javax.swing.JTable();
     lblHint = new javax.swing.JLabel();
+    lblFilter = new javax.swing.JLabel();
+    comboProgramFilter = new javax.swing.JComboBox<>();
+    comboStatusFilter = new javax.swing.JComboBox<>();
+    lblRemainingRange = new javax.swing.JLabel();
+    txtMinRemaining = new javax.swing.JTextField();
+    lblRemainingTo = new javax.swing.JLabel();
+    txtMaxRemaining = new javax.swing.JTextField();
 
     setDefaultCloseOperation(javax.swing.WindowConstants.DISPOSE_ON_CLOSE);
     setTitle("Accountant - Fees Reports");
@@ -176,6 +512,14 @@ public class AccountantDashboard extends javax.swing.JFrame {
 
     lblHint.setText("Click a student on the left to see payment details on the right.");
     lblHint.setForeground(text);
+    lblFilter.setText("Show:");
+    lblFilter.setForeground(text);
+    lblRemainingRange.setText("Remaining from");
+    lblRemainingRange.setForeground(text);
+    lblRemainingTo.setText("to");
+    lblRemainingTo.setForeground(text);
+    txtMinRemaining.setToolTipText("Lowest remaining balance (RWF); press Enter to apply");
+    txtMaxRemaining.setToolTipText("Highest remaining balance (RWF); press Enter to apply");
 
     javax.swing.GroupLayout reportLayout = new javax.swing.GroupLayout(panelReport);
     panelReport.setLayout(reportLayout);
@@ -203,6 +547,40 @@ public class AccountantDashboard extends javax.swing.JFrame {
                     .createSequentialGroup()
                     .addGap(10)
                     .addComponent(lblHint)
+                    .addGap(10))
+            .addGroup(
+                reportLayout
+                    .createSequentialGroup()
+                    .addGap(10)
+                    .addComponent(lblFilter)
+                    .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.RELATED)
+                    .addComponent(
+                        comboProgramFilter,
+                        javax.swing.GroupLayout.PREFERRED_SIZE,
+                        javax.swing.GroupLayout.DEFAULT_SIZE,
+                        javax.swing.GroupLayout.PREFERRED_SIZE)
+                    .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.RELATED)
+                    .addComponent(
+                        comboStatusFilter,
+                        javax.swing.GroupLayout.PREFERRED_SIZE,
+                        javax.swing.GroupLayout.DEFAULT_SIZE,
+                        javax.swing.GroupLayout.PREFERRED_SIZE)
+                    .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.UNRELATED)
+                    .addComponent(lblRemainingRange)
+                    .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.RELATED)
+                    .addComponent(
+                        txtMinRemaining,
+                        javax.swing.GroupLayout.PREFERRED_SIZE,
+                        90,
+                        javax.swing.GroupLayout.PREFERRED_SIZE)
+                    .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.RELATED)
+                    .addComponent(lblRemainingTo)
+                    .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.RELATED)
+                    .addComponent(
+                        txtMaxRemaining,
+                        javax.swing.GroupLayout.PREFERRED_SIZE,
+                        90,
+                        javax.swing.GroupLayout.PREFERRED_SIZE)
                     .addGap(10)));
     reportLayout.setVerticalGroup(
         reportLayout
@@ -213,6 +591,33 @@ public class AccountantDashboard extends javax.swing.JFrame {
                     .addGap(10)
                     .addComponent(lblHint)
                     .addGap(5)
+                    .addGroup(
+                        reportLayout
+                            .createParallelGroup(javax.swing.GroupLayout.Alignment.BASELINE)
+                            .addComponent(lblFilter)
+                            .addComponent(
+                                comboProgramFilter,
+                                javax.swing.GroupLayout.PREFERRED_SIZE,
+                                javax.swing.GroupLayout.DEFAULT_SIZE,
+                                javax.swing.GroupLayout.PREFERRED_SIZE)
+                            .addComponent(
+                                comboStatusFilter,
+                                javax.swing.GroupLayout.PREFERRED_SIZE,
+                                javax.swing.GroupLayout.DEFAULT_SIZE,
+                                javax.swing.GroupLayout.PREFERRED_SIZE)
+                            .addComponent(lblRemainingRange)
+                            .addComponent(
+                                txtMinRemaining,
+                                javax.swing.GroupLayout.PREFERRED_SIZE,
+                                javax.swing.GroupLayout.DEFAULT_SIZE,
+                                javax.swing.GroupLayout.PREFERRED_SIZE)
+                            .addComponent(lblRemainingTo)
+                            .addComponent(
+                                txtMaxRemaining,
+                                javax.swing.GroupLayout.PREFERRED_SIZE,
+                                javax.swing.GroupLayout.DEFAULT_SIZE,
+                                javax.swing.GroupLayout.PREFERRED_SIZE))
+                    .addGap(5)
                     .addGroup(
                         reportLayout
                             .createParallelGroup(javax.swing.GroupLayout.Alignment.LEADING)
@@ -230,31 +635,29 @@ public class AccountantDashboard extends javax.swing.JFrame {
 
     tabs.addTab("Report", panelReport);
 
-    // Print tab - simple button that prints the summary table from the report tab
+    // Print tab - prints the report, or streams it to an Excel/CSV file
     panelPrint.setBackground(panel);
     btnPrintSummary.setText("Print current report");
     btnPrintSummary.setBackground(accent);
     btnPrintSummary.setForeground(Color.WHITE);
     btnPrintSummary.setFocusPainted(false);
     btnPrintSummary.addActionListener(
-        e -> {
-          try {
-            boolean done =
-                tableSummary.print(
-                    JTable.PrintMode.FIT_WIDTH,
-                    new java.text.MessageFormat("Student Fees Report"),
-                    new java.text.MessageFormat("Page - {0}"));
-            if (!done) {
-              javax.swing.JOptionPane.showMessageDialog(
-                  this, "Printing was cancelled.", "Print", javax.swing.JOptionPane.INFORMATION_MESSAGE);
-            }
-          } catch (Exception ex) {
-            ex.printStackTrace();
-            javax.swing.JOptionPane.showMessageDialog(
-                this, "Unable to print report: " + ex.getMessage(), "Print Error",
-                javax.swing.JOptionPane.ERROR_MESSAGE);
-          }
-        });
+        e ->
+            printLoader.load(
+                AsyncAccountantDAO.loadStudentSummaries(reportModel.getQuery()),
+                this::printReport));
+
+    btnExportReport.setText("Export to Excel / CSV...");
+    btnExportReport.setBackground(accent);
+    btnExportReport.setForeground(Color.WHITE);
+    btnExportReport.setFocusPainted(false);
+    btnExportReport.addActionListener(e -> exportReport());
+
+    progressExport.setStringPainted(true);
+    progressExport.setString("");
+    btnCancelExport.setText("Cancel");
+    btnCancelExport.setEnabled(false);
+    btnCancelExport.addActionListener(e -> exportLoader.cancel());
 
     javax.swing.GroupLayout printLayout = new javax.swing.GroupLayout(panelPrint);
     panelPrint.setLayout(printLayout);
@@ -265,11 +668,37 @@ public class AccountantDashboard extends javax.swing.JFrame {
                 printLayout
                     .createSequentialGroup()
                     .addGap(30)
-                    .addComponent(
-                        btnPrintSummary,
-                        javax.swing.GroupLayout.PREFERRED_SIZE,
-                        200,
-                        javax.swing.GroupLayout.PREFERRED_SIZE)
+                    .addGroup(
+                        printLayout
+                            .createParallelGroup(javax.swing.GroupLayout.Alignment.LEADING)
+                            .addGroup(
+                                printLayout
+                                    .createSequentialGroup()
+                                    .addComponent(
+                                        btnPrintSummary,
+                                        javax.swing.GroupLayout.PREFERRED_SIZE,
+                                        200,
+                                        javax.swing.GroupLayout.PREFERRED_SIZE)
+                                    .addGap(10)
+                                    .addComponent(
+                                        btnExportReport,
+                                        javax.swing.GroupLayout.PREFERRED_SIZE,
+                                        200,
+                                        javax.swing.GroupLayout.PREFERRED_SIZE))
+                            .addGroup(
+                                printLayout
+                                    .createSequentialGroup()
+                                    .addComponent(
+                                        progressExport,
+                                        javax.swing.GroupLayout.PREFERRED_SIZE,
+                                        300,
+                                        javax.swing.GroupLayout.PREFERRED_SIZE)
+                                    .addGap(10)
+                                    .addComponent(
+                                        btnCancelExport,
+                                        javax.swing.GroupLayout.PREFERRED_SIZE,
+                                        90,
+                                        javax.swing.GroupLayout.PREFERRED_SIZE)))
                     .addGap(30)));
     printLayout.setVerticalGroup(
         printLayout
@@ -278,14 +707,32 @@ public class AccountantDashboard extends javax.swing.JFrame {
                 printLayout
                     .createSequentialGroup()
                     .addGap(40)
-                    .addComponent(
-                        btnPrintSummary,
-                        javax.swing.GroupLayout.PREFERRED_SIZE,
-                        40,
-                        javax.swing.GroupLayout.PREFERRED_SIZE)
+                    .addGroup(
+                        printLayout
+                            .createParallelGroup(javax.swing.GroupLayout.Alignment.LEADING)
+                            .addComponent(
+                                btnPrintSummary,
+                                javax.swing.GroupLayout.PREFERRED_SIZE,
+                                40,
+                                javax.swing.GroupLayout.PREFERRED_SIZE)
+                            .addComponent(
+                                btnExportReport,
+                                javax.swing.GroupLayout.PREFERRED_SIZE,
+                                40,
+                                javax.swing.GroupLayout.PREFERRED_SIZE))
+                    .addGap(15)
+                    .addGroup(
+                        printLayout
+                            .createParallelGroup(javax.swing.GroupLayout.Alignment.CENTER)
+                            .addComponent(
+                                progressExport,
+                                javax.swing.GroupLayout.PREFERRED_SIZE,
+                                24,
+                                javax.swing.GroupLayout.PREFERRED_SIZE)
+                            .addComponent(btnCancelExport))
                     .addGap(40)));
 
-    tabs.addTab("Print", panelPrint);
+    tabs.addTab("Print / Export", panelPrint);
 
     javax.swing.JPanel mainPanel = new javax.swing.JPanel();
     mainPanel.setOpaque(false);
@@ -324,7 +771,17 @@ public class AccountantDashboard extends javax.swing.JFrame {
   }
 
   private javax.swing.JLabel lblHint;
+  private javax.swing.JLabel lblFilter;
+  private javax.swing.JComboBox<String> comboProgramFilter;
+  private javax.swing.JComboBox<String> comboStatusFilter;
+  private javax.swing.JLabel lblRemainingRange;
+  private javax.swing.JTextField txtMinRemaining;
+  private javax.swing.JLabel lblRemainingTo;
+  private javax.swing.JTextField txtMaxRemaining;
   private javax.swing.JButton btnPrintSummary;
+  private javax.swing.JButton btnExportReport;
+  private javax.swing.JButton btnCancelExport;
+  private javax.swing.JProgressBar progressExport;
   private javax.swing.JPanel panelPrint;
   private javax.swing.JPanel panelReport;
   private javax.swing.JScrollPane scrollDetails;
@@ -0,0 +1,90 @@
+package ui;
+
+import java.awt.Cursor;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+import javax.swing.JComponent;
+import javax.swing.SwingUtilities;
+
+/**
+ * Runs one kind of dashboard load off the EDT and publishes the result back on it.
+ *
+ * <p>Each loader tracks a single in-flight request: starting a new load cancels the previous one,
+ * and a result that arrives after being superseded is dropped. While a load is pending the target
+ * component (if any) shows a wait cursor and the optional busy listener is told. Use from the EDT
+ * only.
+ */
+final class BackgroundLoader<T> {
+  private final JComponent busyTarget;
+  private final Consumer<Boolean> busyListener;
+  private CompletableFuture<T> pending;
+  private int generation;
+
+  BackgroundLoader(JComponent busyTarget) {
+    this(busyTarget, null);
+  }
+
+  BackgroundLoader(JComponent busyTarget, Consumer<Boolean> busyListener) {
+    this.busyTarget = busyTarget;
+    this.busyListener = busyListener;
+  }
+
+  /** Starts tracking {@code request}; {@code onLoaded} runs on the EDT if it is still current. */
+  void load(CompletableFuture<T> request, Consumer<T> onLoaded) {
+    load(request, onLoaded, error -> error.printStackTrace());
+  }
+
+  /** Like {@link #load(CompletableFuture, Consumer)}, but failures go to {@code onFailed}. */
+  void load(CompletableFuture<T> request, Consumer<T> onLoaded, Consumer<Throwable> onFailed) {
+    cancel();
+    int current = ++generation;
+    pending = request;
+    setBusy(true);
+    request.whenComplete(
+        (value, error) ->
+            SwingUtilities.invokeLater(
+                () -> {
+                  if (current != generation) {
+                    return;
+                  }
+                  pending = null;
+                  setBusy(false);
+                  if (error == null) {
+                    onLoaded.accept(value);
+                  } else if (!(unwrap(error) instanceof CancellationException)) {
+                    onFailed.accept(unwrap(error));
+                  }
+                }));
+  }
+
+  /** Cancels the pending load, if any; its result will never be published. */
+  void cancel() {
+    if (pending != null) {
+      generation++;
+      pending.cancel(true);
+      pending = null;
+      setBusy(false);
+    }
+  }
+
+  boolean isLoading() {
+    return pending != null;
+  }
+
+  private void setBusy(boolean busy) {
+    if (busyTarget != null) {
+      busyTarget.setCursor(busy ? Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR) : null);
+    }
+    if (busyListener != null) {
+      busyListener.accept(busy);
+    }
+  }
+
+  private static Throwable unwrap(Throwable error) {
+    return error instanceof CompletionException && error.getCause() != null
+        ? error.getCause()
+        : error;
+  }
+}
@@ -0,0 +1,284 @@
+package ui;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import javax.swing.table.AbstractTableModel;
+import models.Money;
+
+/**
+ * Read-only table model that stores each column in one array instead of a row of boxed cells.
+ *
+ * <p>Ids are kept in {@code int[]}, amounts as minor units (cents) in {@code long[]}, dates as
+ * epoch days in {@code int[]} and text by reference in {@code String[]}. Boxed values are only
+ * created for the cells JTable actually paints. Rows are filled through a {@link RowBinder} that
+ * writes one cell per column, left to right:
+ *
+ * <pre>{@code
+ * model.replaceAll(payments, (p, row) ->
+ *     row.date(p.getPaidOn()).amount(p.getAmount()).text(p.getMethod()).text(p.getNote()));
+ * }</pre>
+ *
+ * Use from the EDT only.
+ */
+final class ColumnarTableModel extends AbstractTableModel {
+  /** Storage type of a column. */
+  enum Type {
+    INT,
+    AMOUNT,
+    DATE,
+    TEXT
+  }
+
+  /** Copies one source item into a row, one call per column in order. */
+  interface RowBinder<T> {
+    void bind(T item, RowWriter row);
+  }
+
+  private static final int NULL_INT = Integer.MIN_VALUE;
+  private static final long NULL_AMOUNT = Long.MIN_VALUE;
+
+  private final String[] names;
+  private final Type[] types;
+  private final Object[] columns;
+  private final RowWriter writer = new RowWriter();
+  private int rowCount;
+  private int capacity;
+
+  ColumnarTableModel(String[] names, Type... types) {
+    if (names.length != types.length) {
+      throw new IllegalArgumentException(names.length + " names for " + types.length + " types");
+    }
+    this.names = names.clone();
+    this.types = types.clone();
+    this.columns = new Object[types.length];
+    allocate(0);
+  }
+
+  /** Replaces every row with {@code items}, sized exactly to fit. */
+  <T> void replaceAll(List<? extends T> items, RowBinder<T> binder) {
+    allocate(items.size());
+    rowCount = items.size();
+    for (int i = 0; i < rowCount; i++) {
+      write(i, items.get(i), binder);
+    }
+    fireTableDataChanged();
+  }
+
+  /** Overwrites row {@code row} in place and repaints just that row. */
+  <T> void patchRow(int row, T item, RowBinder<T> binder) {
+    if (row < 0 || row >= rowCount) {
+      throw new IndexOutOfBoundsException("row " + row + " of " + rowCount);
+    }
+    write(row, item, binder);
+    fireTableRowsUpdated(row, row);
+  }
+
+  /** Appends a row, growing the arrays by half when full. Returns its index. */
+  <T> int addRow(T item, RowBinder<T> binder) {
+    insertRow(rowCount, item, binder);
+    return rowCount - 1;
+  }
+
+  /** Inserts a row before {@code row}, shifting the rows below it down by one. */
+  <T> void insertRow(int row, T item, RowBinder<T> binder) {
+    if (row < 0 || row > rowCount) {
+      throw new IndexOutOfBoundsException("row " + row + " of " + rowCount);
+    }
+    if (rowCount == capacity) {
+      grow(Math.max(8, rowCount + (rowCount >> 1)));
+    }
+    for (Object column : columns) {
+      System.arraycopy(column, row, column, row + 1, rowCount - row);
+    }
+    rowCount++;
+    write(row, item, binder);
+    fireTableRowsInserted(row, row);
+  }
+
+  /** Removes row {@code row}, shifting the rows below it up by one. */
+  void removeRow(int row) {
+    if (row < 0 || row >= rowCount) {
+      throw new IndexOutOfBoundsException("row " + row + " of " + rowCount);
+    }
+    rowCount--;
+    for (int c = 0; c < columns.length; c++) {
+      System.arraycopy(columns[c], row + 1, columns[c], row, rowCount - row);
+      if (types[c] == Type.TEXT) {
+        ((String[]) columns[c])[rowCount] = null; // let the string go
+      }
+    }
+    fireTableRowsDeleted(row, row);
+  }
+
+  /** First row whose INT column {@code column} holds {@code value}, or -1. */
+  int findRow(int column, int value) {
+    int[] values = (int[]) columns[column];
+    for (int i = 0; i < rowCount; i++) {
+      if (values[i] == value) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  /** First row whose TEXT column {@code column} equals {@code value}, or -1. */
+  int findRow(int column, String value) {
+    String[] values = (String[]) columns[column];
+    for (int i = 0; i < rowCount; i++) {
+      if (value.equals(values[i])) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  int getInt(int row, int column) {
+    return ((int[]) columns[column])[row];
+  }
+
+  /** Amount in minor units (cents); {@code Long.MIN_VALUE} for an empty cell. */
+  long getAmountMinor(int row, int column) {
+    return ((long[]) columns[column])[row];
+  }
+
+  Money getAmount(int row, int column) {
+    long minor = getAmountMinor(row, column);
+    return minor == NULL_AMOUNT ? null : Money.ofMinor(minor);
+  }
+
+  LocalDate getDate(int row, int column) {
+    int day = ((int[]) columns[column])[row];
+    return day == NULL_INT ? null : LocalDate.ofEpochDay(day);
+  }
+
+  String getText(int row, int column) {
+    return ((String[]) columns[column])[row];
+  }
+
+  @Override
+  public int getRowCount() {
+    return rowCount;
+  }
+
+  @Override
+  public int getColumnCount() {
+    return names.length;
+  }
+
+  @Override
+  public String getColumnName(int column) {
+    return names[column];
+  }
+
+  @Override
+  public Object getValueAt(int row, int column) {
+    switch (types[column]) {
+      case INT:
+        int value = getInt(row, column);
+        return value == NULL_INT ? null : value;
+      case AMOUNT:
+        return getAmount(row, column);
+      case DATE:
+        // java.sql.Date prints as yyyy-MM-dd, the same as the values straight from JDBC did.
+        LocalDate date = getDate(row, column);
+        return date == null ? null : java.sql.Date.valueOf(date);
+      default:
+        return getText(row, column);
+    }
+  }
+
+  private <T> void write(int row, T item, RowBinder<T> binder) {
+    writer.row = row;
+    writer.column = 0;
+    binder.bind(item, writer);
+    if (writer.column != types.length) {
+      throw new IllegalStateException(
+          "row binder wrote " + writer.column + " of " + types.length + " columns");
+    }
+  }
+
+  private void allocate(int size) {
+    capacity = size;
+    for (int c = 0; c < types.length; c++) {
+      columns[c] = newColumn(types[c], size);
+    }
+  }
+
+  private void grow(int size) {
+    capacity = size;
+    for (int c = 0; c < types.length; c++) {
+      Object old = columns[c];
+      switch (types[c]) {
+        case AMOUNT:
+          columns[c] = Arrays.copyOf((long[]) old, size);
+          break;
+        case TEXT:
+          columns[c] = Arrays.copyOf((String[]) old, size);
+          break;
+        default:
+          columns[c] = Arrays.copyOf((int[]) old, size);
+      }
+    }
+  }
+
+  private static Object newColumn(Type type, int size) {
+    switch (type) {
+      case AMOUNT:
+        return new long[size];
+      case TEXT:
+        return new String[size];
+      default:
+        return new int[size];
+    }
+  }
+
+  /** Writes the cells of the row being bound; each call fills the next column. */
+  final class RowWriter {
+    private int row;
+    private int column;
+
+    RowWriter integer(int value) {
+      ((int[]) next(Type.INT))[row] = value;
+      return this;
+    }
+
+    RowWriter integer(Integer value) {
+      return integer(value == null ? NULL_INT : value.intValue());
+    }
+
+    RowWriter amount(Money value) {
+      ((long[]) next(Type.AMOUNT))[row] = value == null ? NULL_AMOUNT : value.minorUnits();
+      return this;
+    }
+
+    RowWriter date(Date value) {
+      int day;
+      if (value == null) {
+        day = NULL_INT;
+      } else if (value instanceof java.sql.Date) {
+        day = (int) ((java.sql.Date) value).toLocalDate().toEpochDay();
+      } else {
+        day = (int) value.toInstant().atZone(ZoneId.systemDefault()).toLocalDate().toEpochDay();
+      }
+      ((int[]) next(Type.DATE))[row] = day;
+      return this;
+    }
+
+    RowWriter text(String value) {
+      ((String[]) next(Type.TEXT))[row] = value;
+      return this;
+    }
+
+    private Object next(Type expected) {
+      if (column >= types.length || types[column] != expected) {
+        throw new IllegalStateException(
+            "column " + column + " is " + (column < types.length ? types[column] : "past the end")
+                + ", not " + expected);
+      }
+      return columns[column++];
+    }
+  }
+}
@@ -8,8 +8,8 @@ import java.math.BigDecimal;
 import java.sql.Date;
 import java.time.LocalDate;
 import java.util.List;
-import javax.swing.table.DefaultTableModel;
 import models.FeeSummary;
+import models.Money;
 import models.Payment;
 import models.Student;
 
@@ -17,12 +17,22 @@ public class MainDashboard extends javax.swing.JFrame {
   private final int loggedUserId;
   private final StudentController studentController;
   private final PaymentController paymentController;
+  private final ColumnarTableModel studentsModel =
+      new ColumnarTableModel(
+          new String[] {"ID", "Full Name", "Program", "Total Fee"},
+          ColumnarTableModel.Type.INT,
+          ColumnarTableModel.Type.TEXT,
+          ColumnarTableModel.Type.TEXT,
+          ColumnarTableModel.Type.AMOUNT);
+  private final ColumnarTableModel paymentsModel = Tables.paymentsModel();
 
   public MainDashboard(int userId, StudentController studentController) {
     this.loggedUserId = userId;
     this.studentController = studentController;
     this.paymentController = new PaymentController();
     initComponents();
+    tableStudents.setModel(studentsModel);
+    tablePayments.setModel(paymentsModel);
     bindListeners();
     reloadStudents();
   }
@@ -38,25 +48,18 @@ public class MainDashboard extends javax.swing.JFrame {
 
   private void reloadStudents() {
     List<Student> students = studentController.listStudents();
-    DefaultTableModel model =
-        new DefaultTableModel(new Object[] {"ID", "Full Name", "Program", "Total Fee"}, 0);
-    for (Student student : students) {
-      model.addRow(
-          new Object[] {
-            student.getId(), student.getFullName(), student.getProgram(), student.getTotalFee()
-          });
-    }
-    tableStudents.setModel(model);
+    studentsModel.replaceAll(
+        students,
+        (Student student, ColumnarTableModel.RowWriter row) ->
+            row.integer(student.getId())
+                .text(student.getFullName())
+                .text(student.getProgram())
+                .amount(Money.ofNullable(student.getTotalFee())));
   }
 
   private void loadPaymentsForStudent(int studentId) {
     List<Payment> payments = paymentController.loadPayments(studentId);
-    DefaultTableModel model =
-        new DefaultTableModel(new Object[] {"Paid On", "Amount", "Method", "Note"}, 0);
-    for (Payment p : payments) {
-      model.addRow(new Object[] {p.getPaidOn(), p.getAmount(), p.getMethod(), p.getNote()});
-    }
-    tablePayments.setModel(model);
+    paymentsModel.replaceAll(payments, Tables.PAYMENT_ROW);
   }
 
   private class SaveStudentListener implements ActionListener {
@@ -104,7 +107,7 @@ public class MainDashboard extends javax.swing.JFrame {
     @Override
     public void actionPerformed(ActionEvent e) {
       Integer studentId = requireInteger(txtPayStudentId, "Student ID");
-      BigDecimal amount = requireAmount(txtAmount, "Amount");
+      Money amount = requireMoney(txtAmount, "Amount");
       String method = requireText(txtMethod, "Method");
       String note = txtNote.getText().trim();
       if (studentId == null || amount == null || method == null) {
@@ -504,6 +507,20 @@ public class MainDashboard extends javax.swing.JFrame {
     }
   }
 
+  private Money requireMoney(javax.swing.JTextField field, String label) {
+    String raw = field.getText().trim();
+    if (raw.isEmpty()) {
+      javax.swing.JOptionPane.showMessageDialog(this, label + " is required");
+      return null;
+    }
+    try {
+      return Money.parse(raw);
+    } catch (NumberFormatException ex) {
+      javax.swing.JOptionPane.showMessageDialog(this, label + " must be numeric");
+      return null;
+    }
+  }
+
   private String requireText(javax.swing.JTextField field, String label) {
     String raw = field.getText().trim();
     if (raw.isEmpty()) {
@@ -1,26 +1,82 @@
 package ui;
 
-import database.RegistrarDAO;
+import controllers.StudentImporter;
+import database.AsyncRegistrarDAO;
 import java.awt.Color;
 import java.awt.event.ActionEvent;
 import java.math.BigDecimal;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import javax.swing.JCheckBox;
 import javax.swing.JOptionPane;
 import javax.swing.JPanel;
 import javax.swing.JScrollPane;
-import javax.swing.table.DefaultTableModel;
+import javax.swing.SwingUtilities;
 import models.Course;
+import models.Money;
+import models.NewStudent;
+import models.Registration;
 
 /** Registrar main window with student registration tab wired to the DB. */
 public class RegistrarDashboard extends javax.swing.JFrame {
+  private static final int ENROLLED_PAGE_SIZE =
+      Integer.getInteger("fees.registrar.pageSize", 200);
 
   private final int userId;
+  private final BackgroundLoader<List<Course>> programCoursesLoader;
+  private final BackgroundLoader<List<Registration>> enrolledLoader;
+  private final BackgroundLoader<List<Course>> catalogLoader;
+  private final BackgroundLoader<StudentImporter.Result> importLoader;
+  private final BackgroundLoader<Registration> registerLoader;
+  private final BackgroundLoader<Boolean> courseUpdateLoader;
+  private final BackgroundLoader<String> regNumberLoader;
+  private final BackgroundLoader<List<Registration>> sampleLoader;
+  private final BackgroundLoader<Boolean> deleteLoader;
+  private final ColumnarTableModel enrolledModel =
+      new ColumnarTableModel(
+          new String[] {"Reg Number", "Full Name", "Program", "Courses", "Total Fee"},
+          ColumnarTableModel.Type.TEXT,
+          ColumnarTableModel.Type.TEXT,
+          ColumnarTableModel.Type.TEXT,
+          ColumnarTableModel.Type.TEXT,
+          ColumnarTableModel.Type.AMOUNT);
+  // Search the enrolled list was loaded with, and the reg number its last loaded row has.
+  private String enrolledSearch = "";
+  private String lastEnrolledRegNumber;
+  private boolean enrolledComplete;
+  private final ColumnarTableModel catalogModel =
+      new ColumnarTableModel(
+          new String[] {"ID", "Program", "Course", "Price"},
+          ColumnarTableModel.Type.INT,
+          ColumnarTableModel.Type.TEXT,
+          ColumnarTableModel.Type.TEXT,
+          ColumnarTableModel.Type.AMOUNT);
 
   public RegistrarDashboard(int userId) {
     this.userId = userId;
     initComponents();
+    tableEnrolled.setModel(enrolledModel);
+    tableCourses.setModel(catalogModel);
+    programCoursesLoader = new BackgroundLoader<>(coursesPanel);
+    enrolledLoader =
+        new BackgroundLoader<>(
+            tableEnrolled, busy -> btnLoadMore.setEnabled(!busy && !enrolledComplete));
+    catalogLoader = new BackgroundLoader<>(tableCourses);
+    importLoader = new BackgroundLoader<>(panelRegister, this::showImporting);
+    registerLoader =
+        new BackgroundLoader<>(panelRegister, busy -> btnRegRegister.setEnabled(!busy));
+    // Course add, update and delete; a price change or delete also recalculates every enrolled
+    // student's total.
+    courseUpdateLoader = new BackgroundLoader<>(tableCourses, this::showCourseSaving);
+    regNumberLoader =
+        new BackgroundLoader<>(panelRegister, busy -> btnRegGenerateReg.setEnabled(!busy));
+    sampleLoader = new BackgroundLoader<>(panelRegister, busy -> btnRegSample.setEnabled(!busy));
+    deleteLoader =
+        new BackgroundLoader<>(tableEnrolled, busy -> btnDeleteStudent.setEnabled(!busy));
     bindRegisterTab();
     loadCoursesForSelectedProgram();
     bindEnrolledListTab();
@@ -29,11 +85,25 @@ public class RegistrarDashboard extends javax.swing.JFrame {
     reloadCatalogTable();
   }
 
+  @Override
+  public void dispose() {
+    programCoursesLoader.cancel();
+    enrolledLoader.cancel();
+    catalogLoader.cancel();
+    importLoader.cancel();
+    registerLoader.cancel();
+    courseUpdateLoader.cancel();
+    regNumberLoader.cancel();
+    sampleLoader.cancel();
+    deleteLoader.cancel();
+    super.dispose();
+  }
+
   // ---------------- Register tab behaviour ----------------
 
   private void bindRegisterTab() {
     btnRegGenerateReg.addActionListener(
-        (ActionEvent e) -> txtRegNumber.setText(RegistrarDAO.generateNextRegNumber()));
+        (ActionEvent e) -> generateRegNumber());
 
     btnRegRegister.addActionListener(
         (ActionEvent e) -> registerSingleStudent());
@@ -41,6 +111,12 @@ public class RegistrarDashboard extends javax.swing.JFrame {
     btnRegSample.addActionListener(
         (ActionEvent e) -> generateSampleStudents());
 
+    btnRegImport.addActionListener(
+        (ActionEvent e) -> importStudents());
+
+    btnCancelImport.addActionListener(
+        (ActionEvent e) -> importLoader.cancel());
+
     comboProgram.addActionListener(
         (ActionEvent e) -> loadCoursesForSelectedProgram());
   }
@@ -48,6 +124,15 @@ public class RegistrarDashboard extends javax.swing.JFrame {
   private void bindEnrolledListTab() {
     btnDeleteStudent.addActionListener(
         (ActionEvent e) -> deleteSelectedStudent());
+
+    btnSearchEnrolled.addActionListener(
+        (ActionEvent e) -> reloadEnrolledTable());
+
+    txtSearchEnrolled.addActionListener(
+        (ActionEvent e) -> reloadEnrolledTable());
+
+    btnLoadMore.addActionListener(
+        (ActionEvent e) -> loadMoreEnrolled());
   }
 
   private void deleteSelectedStudent() {
@@ -70,13 +155,36 @@ public class RegistrarDashboard extends javax.swing.JFrame {
       return;
     }
     
-    boolean ok = RegistrarDAO.deleteStudent(regNumber);
-    if (ok) {
-      JOptionPane.showMessageDialog(this, "Student deleted successfully.");
-      reloadEnrolledTable();
-    } else {
-      JOptionPane.showMessageDialog(this, "Could not delete student.");
-    }
+    deleteLoader.load(
+        AsyncRegistrarDAO.deleteStudent(regNumber),
+        ok -> {
+          if (!Boolean.TRUE.equals(ok)) {
+            JOptionPane.showMessageDialog(this, "Could not delete student.");
+            return;
+          }
+          JOptionPane.showMessageDialog(this, "Student deleted successfully.");
+          int deleted = enrolledModel.findRow(0, regNumber);
+          if (deleted >= 0) {
+            enrolledModel.removeRow(deleted);
+          }
+        });
+  }
+
+  /** Fills in the next reg number, or says why there is none and leaves the field as it was. */
+  private void generateRegNumber() {
+    regNumberLoader.load(
+        AsyncRegistrarDAO.generateNextRegNumber(),
+        regNumber -> {
+          if (regNumber == null) {
+            JOptionPane.showMessageDialog(
+                this,
+                "Could not generate a reg number. Check the database connection, or type one in.",
+                "Reg Number",
+                JOptionPane.ERROR_MESSAGE);
+            return;
+          }
+          txtRegNumber.setText(regNumber);
+        });
   }
 
   private void loadCoursesForSelectedProgram() {
@@ -84,10 +192,14 @@ public class RegistrarDashboard extends javax.swing.JFrame {
     if (program == null) {
       return;
     }
+    programCoursesLoader.load(
+        AsyncRegistrarDAO.loadCoursesForProgram(program), this::showProgramCourses);
+  }
+
+  private void showProgramCourses(List<Course> courses) {
     coursesPanel.removeAll();
     currentCourseCheckboxes.clear();
 
-    List<Course> courses = RegistrarDAO.loadCoursesForProgram(program);
     coursesPanel.setLayout(new javax.swing.BoxLayout(coursesPanel, javax.swing.BoxLayout.Y_AXIS));
     for (Course c : courses) {
       JCheckBox box = new JCheckBox(c.toString());
@@ -126,22 +238,23 @@ public class RegistrarDashboard extends javax.swing.JFrame {
       return;
     }
 
-    int studentId = RegistrarDAO.createStudent(reg, name, program, password);
-    if (studentId == -1) {
-      JOptionPane.showMessageDialog(this, "Could not save student (maybe reg number exists).");
-      return;
-    }
-    boolean ok = RegistrarDAO.enrollStudentInCourses(studentId, courseIds);
-    if (!ok) {
-      JOptionPane.showMessageDialog(this, "Student saved but course enrollment failed.");
-    } else {
-      BigDecimal total = RegistrarDAO.computeTotalFee(courseIds);
-      JOptionPane.showMessageDialog(
-          this,
-          "Student registered.\nTotal fee for selected courses: " + total + " RWF");
-      reloadEnrolledTable();
-      clearRegisterForm();
-    }
+    registerLoader.load(
+        AsyncRegistrarDAO.registerStudent(
+            new NewStudent(reg, name, program, password, courseIds)),
+        registration -> {
+          if (registration == null) {
+            JOptionPane.showMessageDialog(
+                this, "Could not save student (maybe reg number exists).");
+            return;
+          }
+          JOptionPane.showMessageDialog(
+              this,
+              "Student registered.\nTotal fee for selected courses: "
+                  + registration.getTotalFee()
+                  + " RWF");
+          showEnrolledStudent(registration);
+          clearRegisterForm();
+        });
   }
 
   /**
@@ -153,31 +266,125 @@ public class RegistrarDashboard extends javax.swing.JFrame {
     String[] foreignLast = {"Smith", "Johnson", "Brown", "Garcia", "Williams"};
     String[] programs = {"SOFTWARE ENGINEERING", "INFO MANAGEMENT", "NETWORKING"};
 
-    int created = 0;
+    // Each program's courses are read once; every student registers as soon as theirs arrive.
+    Map<String, CompletableFuture<List<Course>>> coursePools = new HashMap<>();
+    List<CompletableFuture<Registration>> registrations = new ArrayList<>();
     for (int i = 0; i < 10; i++) {
-      String reg = RegistrarDAO.generateNextRegNumber();
       String name =
           kinyFirst[i % kinyFirst.length] + " " + foreignLast[(i * 2) % foreignLast.length];
       String program = programs[i % programs.length];
-
-      List<Course> coursePool = RegistrarDAO.loadCoursesForProgram(program);
-      if (coursePool.isEmpty()) {
-        continue;
-      }
-      List<Integer> courseIds = new ArrayList<>();
       int maxCourses = 1 + (i % 4); // 1..4
-      for (int c = 0; c < coursePool.size() && courseIds.size() < maxCourses; c++) {
-        courseIds.add(coursePool.get((i + c) % coursePool.size()).getId());
-      }
+      int first = i;
 
-      int studentId = RegistrarDAO.createStudent(reg, name, program, "123");
-      if (studentId != -1) {
-        RegistrarDAO.enrollStudentInCourses(studentId, courseIds);
-        created++;
-      }
+      registrations.add(
+          coursePools
+              .computeIfAbsent(program, AsyncRegistrarDAO::loadCoursesForProgram)
+              .thenCompose(
+                  coursePool -> {
+                    if (coursePool.isEmpty()) {
+                      return CompletableFuture.completedFuture(null);
+                    }
+                    List<Integer> courseIds = new ArrayList<>();
+                    for (int c = 0; c < coursePool.size() && courseIds.size() < maxCourses; c++) {
+                      courseIds.add(coursePool.get((first + c) % coursePool.size()).getId());
+                    }
+                    return AsyncRegistrarDAO.registerStudent(
+                        new NewStudent(null, name, program, "123", courseIds));
+                  }));
     }
-    reloadEnrolledTable();
-    JOptionPane.showMessageDialog(this, created + " sample students generated.");
+
+    sampleLoader.load(
+        CompletableFuture.allOf(registrations.toArray(new CompletableFuture<?>[0]))
+            .thenApply(
+                done -> {
+                  List<Registration> created = new ArrayList<>();
+                  for (CompletableFuture<Registration> registration : registrations) {
+                    if (registration.join() != null) {
+                      created.add(registration.join());
+                    }
+                  }
+                  return created;
+                }),
+        created -> {
+          for (Registration registration : created) {
+            showEnrolledStudent(registration);
+          }
+          JOptionPane.showMessageDialog(this, created.size() + " sample students generated.");
+        },
+        error -> {
+          error.printStackTrace();
+          reloadEnrolledTable();
+          JOptionPane.showMessageDialog(
+              this,
+              "Unable to generate sample students: " + error.getMessage(),
+              "Sample Students",
+              JOptionPane.ERROR_MESSAGE);
+        });
+  }
+
+  /** Asks for an intake CSV and registers its students in the background. */
+  private void importStudents() {
+    javax.swing.JFileChooser chooser = new javax.swing.JFileChooser();
+    chooser.setDialogTitle("Import students");
+    chooser.setFileFilter(
+        new javax.swing.filechooser.FileNameExtensionFilter("CSV file (*.csv)", "csv"));
+    if (chooser.showOpenDialog(this) != javax.swing.JFileChooser.APPROVE_OPTION) {
+      return;
+    }
+    java.nio.file.Path file = chooser.getSelectedFile().toPath();
+
+    progressImport.setValue(0);
+    progressImport.setString("Starting import...");
+    importLoader.load(
+        StudentImporter.importStudentsAsync(
+            file,
+            (read, total, imported, rejected) ->
+                SwingUtilities.invokeLater(
+                    () -> showImportProgress(read, total, imported, rejected))),
+        result -> {
+          progressImport.setValue(progressImport.getMaximum());
+          progressImport.setString(
+              "Imported " + result.getImported() + ", rejected " + result.getRejected());
+          reloadEnrolledTable();
+          String message = "Imported " + result.getImported() + " students.";
+          if (result.getErrorReport() != null) {
+            message +=
+                "\n"
+                    + result.getRejected()
+                    + " rows were rejected; see\n"
+                    + result.getErrorReport();
+          }
+          JOptionPane.showMessageDialog(this, message, "Import", JOptionPane.INFORMATION_MESSAGE);
+        },
+        error -> {
+          error.printStackTrace();
+          progressImport.setString("Import failed");
+          reloadEnrolledTable();
+          JOptionPane.showMessageDialog(
+              this,
+              "Unable to import students: " + error.getMessage(),
+              "Import Error",
+              JOptionPane.ERROR_MESSAGE);
+        });
+  }
+
+  private void showImporting(boolean importing) {
+    btnRegImport.setEnabled(!importing);
+    btnCancelImport.setEnabled(importing);
+    if (!importing && progressImport.getValue() < progressImport.getMaximum()) {
+      // Chunks committed before the cancel stay registered.
+      progressImport.setString("Import stopped");
+      reloadEnrolledTable();
+    }
+  }
+
+  private void showImportProgress(long read, long total, long imported, long rejected) {
+    if (!importLoader.isLoading()) {
+      return; // late update from a cancelled import
+    }
+    int percent = total > 0 ? (int) Math.min(100, read * 100 / total) : 0;
+    progressImport.setValue(percent);
+    progressImport.setString(imported + " imported, " + rejected + " rejected");
   }
 
   private void clearRegisterForm() {
@@ -190,36 +397,87 @@ public class RegistrarDashboard extends javax.swing.JFrame {
     }
   }
 
+  /** Loads the first page of the enrolled list for the current search. */
   private void reloadEnrolledTable() {
-    String sql =
-        "SELECT s.reg_number, s.full_name, s.program, "
-            + "GROUP_CONCAT(c.course_name ORDER BY c.course_name SEPARATOR ', ') AS courses, "
-            + "SUM(c.price_rwf) AS total_fee "
-            + "FROM fees_students s "
-            + "JOIN fees_enrollments e ON e.student_id = s.student_id "
-            + "JOIN fees_courses c ON c.course_id = e.course_id "
-            + "GROUP BY s.reg_number, s.full_name, s.program "
-            + "ORDER BY s.reg_number";
-    DefaultTableModel model =
-        new DefaultTableModel(
-            new Object[] {"Reg Number", "Full Name", "Program", "Courses", "Total Fee"}, 0);
-    try (java.sql.Connection conn = database.DBConnection.getConnection();
-        java.sql.PreparedStatement ps = conn.prepareStatement(sql);
-        java.sql.ResultSet rs = ps.executeQuery()) {
-      while (rs.next()) {
-        model.addRow(
-            new Object[] {
-              rs.getString("reg_number"),
-              rs.getString("full_name"),
-              rs.getString("program"),
-              rs.getString("courses"),
-              rs.getBigDecimal("total_fee")
-            });
-      }
-    } catch (Exception ex) {
-      ex.printStackTrace();
+    String search = txtSearchEnrolled.getText().trim();
+    enrolledLoader.load(
+        AsyncRegistrarDAO.loadEnrolledStudentPage(search, null, ENROLLED_PAGE_SIZE),
+        page -> {
+          enrolledSearch = search;
+          enrolledModel.replaceAll(page, RegistrarDashboard::bindEnrolledRow);
+          pageLoaded(page);
+        });
+  }
+
+  /** Appends the next page after the last loaded row. */
+  private void loadMoreEnrolled() {
+    enrolledLoader.load(
+        AsyncRegistrarDAO.loadEnrolledStudentPage(
+            enrolledSearch, lastEnrolledRegNumber, ENROLLED_PAGE_SIZE),
+        page -> {
+          for (Registration r : page) {
+            enrolledModel.addRow(r, RegistrarDashboard::bindEnrolledRow);
+          }
+          pageLoaded(page);
+        });
+  }
+
+  private void pageLoaded(List<Registration> page) {
+    if (!page.isEmpty()) {
+      lastEnrolledRegNumber = page.get(page.size() - 1).getRegNumber();
+    }
+    enrolledComplete = page.size() < ENROLLED_PAGE_SIZE;
+    btnLoadMore.setEnabled(!enrolledComplete);
+  }
+
+  /**
+   * Patches one student into the enrolled list instead of reloading it: replaces their row, or
+   * inserts it in reg-number order if it falls within the rows loaded so far. Later rows arrive
+   * with "Load more" as usual.
+   */
+  private void showEnrolledStudent(Registration registration) {
+    String regNumber = registration.getRegNumber();
+    int row = enrolledModel.findRow(0, regNumber);
+    if (row >= 0) {
+      enrolledModel.patchRow(row, registration, RegistrarDashboard::bindEnrolledRow);
+      return;
+    }
+    if (registration.getCourses().isEmpty() || !matchesEnrolledSearch(registration)) {
+      return;
+    }
+    if (!enrolledComplete
+        && (lastEnrolledRegNumber == null || regNumber.compareTo(lastEnrolledRegNumber) > 0)) {
+      return;
+    }
+    int insertAt = 0;
+    while (insertAt < enrolledModel.getRowCount()
+        && enrolledModel.getText(insertAt, 0).compareTo(regNumber) < 0) {
+      insertAt++;
+    }
+    enrolledModel.insertRow(insertAt, registration, RegistrarDashboard::bindEnrolledRow);
+  }
+
+  /** The search test {@code RegistrarDAO.loadEnrolledStudentPage} applies, ignoring case. */
+  private boolean matchesEnrolledSearch(Registration registration) {
+    if (enrolledSearch.isEmpty()) {
+      return true;
     }
-    tableEnrolled.setModel(model);
+    String search = enrolledSearch.toLowerCase(Locale.ROOT);
+    return registration.getRegNumber().toLowerCase(Locale.ROOT).startsWith(search)
+        || registration.getFullName().toLowerCase(Locale.ROOT).contains(search);
+  }
+
+  private static void bindEnrolledRow(Registration r, ColumnarTableModel.RowWriter row) {
+    List<String> names = new ArrayList<>(r.getCourses().size());
+    for (Course course : r.getCourses()) {
+      names.add(course.getName());
+    }
+    names.sort(String.CASE_INSENSITIVE_ORDER);
+    row.text(r.getRegNumber())
+        .text(r.getFullName())
+        .text(r.getProgram())
+        .text(String.join(", ", names))
+        .amount(r.getTotalFee());
   }
 
   // ------------- Catalog tab (courses CRUD) -------------
@@ -234,21 +492,26 @@ public class RegistrarDashboard extends javax.swing.JFrame {
             JOptionPane.showMessageDialog(this, "Program, course name and price are required.");
             return;
           }
+          Money price;
           try {
-            BigDecimal price = new BigDecimal(priceStr);
-            boolean ok = RegistrarDAO.addCourse(program, name, price);
-            if (ok) {
-              JOptionPane.showMessageDialog(this, "Course added.");
-              reloadCatalogTable();
-              loadCoursesForSelectedProgram();
-              txtCourseName.setText("");
-              txtCoursePrice.setText("");
-            } else {
-              JOptionPane.showMessageDialog(this, "Could not add course.");
-            }
+            price = Money.parse(priceStr);
           } catch (NumberFormatException ex) {
             JOptionPane.showMessageDialog(this, "Price must be numeric.");
+            return;
           }
+          courseUpdateLoader.load(
+              AsyncRegistrarDAO.addCourse(program, name, price),
+              ok -> {
+                if (ok) {
+                  JOptionPane.showMessageDialog(this, "Course added.");
+                  reloadCatalogTable();
+                  loadCoursesForSelectedProgram();
+                  txtCourseName.setText("");
+                  txtCoursePrice.setText("");
+                } else {
+                  JOptionPane.showMessageDialog(this, "Could not add course.");
+                }
+              });
         });
 
     btnCourseUpdate.addActionListener(
@@ -266,19 +529,24 @@ public class RegistrarDashboard extends javax.swing.JFrame {
             JOptionPane.showMessageDialog(this, "Program, course name and price are required.");
             return;
           }
+          Money price;
           try {
-            BigDecimal price = new BigDecimal(priceStr);
-            boolean ok = RegistrarDAO.updateCourse(id, program, name, price);
-            if (ok) {
-              JOptionPane.showMessageDialog(this, "Course updated.");
-              reloadCatalogTable();
-              loadCoursesForSelectedProgram();
-            } else {
-              JOptionPane.showMessageDialog(this, "Could not update course.");
-            }
+            price = Money.parse(priceStr);
           } catch (NumberFormatException ex) {
             JOptionPane.showMessageDialog(this, "Price must be numeric.");
+            return;
           }
+          courseUpdateLoader.load(
+              AsyncRegistrarDAO.updateCourse(id, program, name, price),
+              ok -> {
+                if (ok) {
+                  JOptionPane.showMessageDialog(this, "Course updated.");
+                  reloadCatalogTable();
+                  loadCoursesForSelectedProgram();
+                } else {
+                  JOptionPane.showMessageDialog(this, "Could not update course.");
+                }
+              });
         });
 
     btnCourseDelete.addActionListener(
@@ -295,14 +563,17 @@ public class RegistrarDashboard extends javax.swing.JFrame {
           if (confirm != JOptionPane.YES_OPTION) {
             return;
           }
-          boolean ok = RegistrarDAO.deleteCourse(id);
-          if (ok) {
-            JOptionPane.showMessageDialog(this, "Course deleted.");
-            reloadCatalogTable();
-            loadCoursesForSelectedProgram();
-          } else {
-            JOptionPane.showMessageDialog(this, "Could not delete course.");
-          }
+          courseUpdateLoader.load(
+              AsyncRegistrarDAO.deleteCourse(id),
+              ok -> {
+                if (ok) {
+                  JOptionPane.showMessageDialog(this, "Course deleted.");
+                  reloadCatalogTable();
+                  loadCoursesForSelectedProgram();
+                } else {
+                  JOptionPane.showMessageDialog(this, "Could not delete course.");
+                }
+              });
         });
 
     tableCourses
@@ -318,19 +589,21 @@ public class RegistrarDashboard extends javax.swing.JFrame {
             });
   }
 
+  private void showCourseSaving(boolean saving) {
+    btnCourseAdd.setEnabled(!saving);
+    btnCourseUpdate.setEnabled(!saving);
+    btnCourseDelete.setEnabled(!saving);
+  }
+
   private void reloadCatalogTable() {
-    List<Course> courses = RegistrarDAO.loadAllCourses();
-    DefaultTableModel model =
-        new DefaultTableModel(new Object[] {"ID", "Program", "Course", "Price"}, 0) {
-          @Override
-          public boolean isCellEditable(int row, int column) {
-            return false;
-          }
-        };
-    for (Course c : courses) {
-      model.addRow(new Object[] {c.getId(), c.getProgram(), c.getName(), c.getPrice()});
-    }
-    tableCourses.setModel(model);
+    catalogLoader.load(AsyncRegistrarDAO.loadAllCourses(), this::showCatalog);
+  }
+
+  private void showCatalog(List<Course> courses) {
+    catalogModel.replaceAll(
+        courses,
+        (Course c, ColumnarTableModel.RowWriter row) ->
+            row.integer(c.getId()).text(c.getProgram()).text(c.getName()).amount(c.getPrice()));
   }
 
   // ---------------- UI boilerplate ----------------
@@ -356,6 +629,9 @@ public class RegistrarDashboard extends javax.swing.JFrame {
     scrollCourses = new JScrollPane(coursesPanel);
     btnRegRegister = new javax.swing.JButton();
     btnRegSample = new javax.swing.JButton();
+    btnRegImport = new javax.swing.JButton();
+    progressImport = new javax.swing.JProgressBar();
+    btnCancelImport = new javax.swing.JButton();
 
     // Catalog + list panels are still placeholders
     panelCatalog = new javax.swing.JPanel();
@@ -412,6 +688,14 @@ public class RegistrarDashboard extends javax.swing.JFrame {
     btnRegSample.setBackground(new Color(230, 235, 242));
     btnRegSample.setForeground(text);
     btnRegSample.setFocusPainted(false);
+    btnRegImport.setText("Import Students from CSV...");
+    btnRegImport.setBackground(new Color(230, 235, 242));
+    btnRegImport.setForeground(text);
+    btnRegImport.setFocusPainted(false);
+    progressImport.setStringPainted(true);
+    progressImport.setString("");
+    btnCancelImport.setText("Cancel");
+    btnCancelImport.setEnabled(false);
 
     javax.swing.GroupLayout regLayout = new javax.swing.GroupLayout(panelRegister);
     panelRegister.setLayout(regLayout);
@@ -431,7 +715,8 @@ public class RegistrarDashboard extends javax.swing.JFrame {
                             .addComponent(lblPassword)
                             .addComponent(lblCourses)
                             .addComponent(btnRegRegister)
-                            .addComponent(btnRegSample))
+                            .addComponent(btnRegSample)
+                            .addComponent(btnRegImport))
                     .addGap(15)
                     .addGroup(
                         regLayout
@@ -461,7 +746,17 @@ public class RegistrarDashboard extends javax.swing.JFrame {
                                 scrollCourses,
                                 javax.swing.GroupLayout.PREFERRED_SIZE,
                                 320,
-                                javax.swing.GroupLayout.PREFERRED_SIZE))
+                                javax.swing.GroupLayout.PREFERRED_SIZE)
+                            .addGroup(
+                                regLayout
+                                    .createSequentialGroup()
+                                    .addComponent(
+                                        progressImport,
+                                        javax.swing.GroupLayout.PREFERRED_SIZE,
+                                        220,
+                                        javax.swing.GroupLayout.PREFERRED_SIZE)
+                                    .addGap(10)
+                                    .addComponent(btnCancelImport)))
                     .addGap(20)));
     regLayout.setVerticalGroup(
         regLayout
@@ -532,6 +827,21 @@ public class RegistrarDashboard extends javax.swing.JFrame {
                         javax.swing.GroupLayout.PREFERRED_SIZE,
                         32,
                         javax.swing.GroupLayout.PREFERRED_SIZE)
+                    .addGap(10)
+                    .addGroup(
+                        regLayout
+                            .createParallelGroup(javax.swing.GroupLayout.Alignment.CENTER)
+                            .addComponent(
+                                btnRegImport,
+                                javax.swing.GroupLayout.PREFERRED_SIZE,
+                                32,
+                                javax.swing.GroupLayout.PREFERRED_SIZE)
+                            .addComponent(
+                                progressImport,
+                                javax.swing.GroupLayout.PREFERRED_SIZE,
+                                24,
+                                javax.swing.GroupLayout.PREFERRED_SIZE)
+                            .addComponent(btnCancelImport))
                     .addGap(15)));
 
     // --- Enrolled list tab (with delete button) ---
@@ -541,6 +851,23 @@ public class RegistrarDashboard extends javax.swing.JFrame {
     btnDeleteStudent.setBackground(new Color(200, 80, 80));
     btnDeleteStudent.setForeground(Color.WHITE);
     btnDeleteStudent.setFocusPainted(false);
+    lblSearchEnrolled = new javax.swing.JLabel();
+    lblSearchEnrolled.setText("Reg number or name:");
+    lblSearchEnrolled.setForeground(text);
+    txtSearchEnrolled = new javax.swing.JTextField();
+    txtSearchEnrolled.setBackground(new Color(230, 248, 255));
+    txtSearchEnrolled.setForeground(text);
+    btnSearchEnrolled = new javax.swing.JButton();
+    btnSearchEnrolled.setText("Search");
+    btnSearchEnrolled.setBackground(accent);
+    btnSearchEnrolled.setForeground(Color.WHITE);
+    btnSearchEnrolled.setFocusPainted(false);
+    btnLoadMore = new javax.swing.JButton();
+    btnLoadMore.setText("Load more");
+    btnLoadMore.setBackground(new Color(220, 224, 235));
+    btnLoadMore.setForeground(text);
+    btnLoadMore.setFocusPainted(false);
+    btnLoadMore.setEnabled(false);
     
     tableEnrolled.setModel(
         new javax.swing.table.DefaultTableModel(
@@ -561,12 +888,29 @@ public class RegistrarDashboard extends javax.swing.JFrame {
                     .addGroup(
                         listLayout
                             .createParallelGroup(javax.swing.GroupLayout.Alignment.LEADING)
+                            .addGroup(
+                                listLayout
+                                    .createSequentialGroup()
+                                    .addComponent(lblSearchEnrolled)
+                                    .addGap(10)
+                                    .addComponent(
+                                        txtSearchEnrolled,
+                                        javax.swing.GroupLayout.PREFERRED_SIZE,
+                                        260,
+                                        javax.swing.GroupLayout.PREFERRED_SIZE)
+                                    .addGap(10)
+                                    .addComponent(btnSearchEnrolled))
                             .addComponent(
                                 scrollEnrolled,
                                 javax.swing.GroupLayout.PREFERRED_SIZE,
                                 760,
                                 javax.swing.GroupLayout.PREFERRED_SIZE)
-                            .addComponent(btnDeleteStudent))
+                            .addGroup(
+                                listLayout
+                                    .createSequentialGroup()
+                                    .addComponent(btnDeleteStudent)
+                                    .addGap(10)
+                                    .addComponent(btnLoadMore)))
                     .addGap(15)));
     listLayout.setVerticalGroup(
         listLayout
@@ -575,17 +919,36 @@ public class RegistrarDashboard extends javax.swing.JFrame {
                 listLayout
                     .createSequentialGroup()
                     .addGap(15)
+                    .addGroup(
+                        listLayout
+                            .createParallelGroup(javax.swing.GroupLayout.Alignment.BASELINE)
+                            .addComponent(lblSearchEnrolled)
+                            .addComponent(
+                                txtSearchEnrolled,
+                                javax.swing.GroupLayout.PREFERRED_SIZE,
+                                28,
+                                javax.swing.GroupLayout.PREFERRED_SIZE)
+                            .addComponent(btnSearchEnrolled))
+                    .addGap(10)
                     .addComponent(
                         scrollEnrolled,
                         javax.swing.GroupLayout.PREFERRED_SIZE,
-                        380,
+                        340,
                         javax.swing.GroupLayout.PREFERRED_SIZE)
                     .addGap(10)
-                    .addComponent(
-                        btnDeleteStudent,
-                        javax.swing.GroupLayout.PREFERRED_SIZE,
-                        32,
-                        javax.swing.GroupLayout.PREFERRED_SIZE)
+                    .addGroup(
+                        listLayout
+                            .createParallelGroup(javax.swing.GroupLayout.Alignment.BASELINE)
+                            .addComponent(
+                                btnDeleteStudent,
+                                javax.swing.GroupLayout.PREFERRED_SIZE,
+                                32,
+                                javax.swing.GroupLayout.PREFERRED_SIZE)
+                            .addComponent(
+                                btnLoadMore,
+                                javax.swing.GroupLayout.PREFERRED_SIZE,
+                                32,
+                                javax.swing.GroupLayout.PREFERRED_SIZE))
                     .addGap(15)));
 
     // --- Catalog tab layout (courses CRUD) ---
@@ -748,7 +1111,7 @@ public class RegistrarDashboard extends javax.swing.JFrame {
                     .addComponent(
                         tabs,
                         javax.swing.GroupLayout.PREFERRED_SIZE,
-                        500,
+                        550,
                         javax.swing.GroupLayout.PREFERRED_SIZE)
                     .addGap(10)));
 
@@ -766,9 +1129,14 @@ public class RegistrarDashboard extends javax.swing.JFrame {
   private javax.swing.JButton btnCourseDelete;
   private javax.swing.JButton btnCourseUpdate;
   private javax.swing.JButton btnDeleteStudent;
+  private javax.swing.JButton btnSearchEnrolled;
+  private javax.swing.JButton btnLoadMore;
   private javax.swing.JButton btnRegGenerateReg;
   private javax.swing.JButton btnRegRegister;
   private javax.swing.JButton btnRegSample;
+  private javax.swing.JButton btnRegImport;
+  private javax.swing.JButton btnCancelImport;
+  private javax.swing.JProgressBar progressImport;
   private javax.swing.JComboBox<String> comboProgram;
   private javax.swing.JComboBox<String> comboCourseProgram;
   private JPanel coursesPanel;
@@ -780,6 +1148,7 @@ public class RegistrarDashboard extends javax.swing.JFrame {
   private javax.swing.JLabel lblPassword;
   private javax.swing.JLabel lblProgram;
   private javax.swing.JLabel lblRegNumber;
+  private javax.swing.JLabel lblSearchEnrolled;
   private javax.swing.JPanel panelCatalog;
   private javax.swing.JPanel panelList;
   private javax.swing.JPanel panelRegister;
@@ -794,6 +1163,7 @@ public class RegistrarDashboard extends javax.swing.JFrame {
   private javax.swing.JTextField txtCoursePrice;
   private javax.swing.JTextField txtPassword;
   private javax.swing.JTextField txtRegNumber;
+  private javax.swing.JTextField txtSearchEnrolled;
 
   private final List<JCheckBox> currentCourseCheckboxes = new ArrayList<>();
 }
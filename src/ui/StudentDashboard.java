@@ -1,31 +1,74 @@
 package ui;
 
+import database.AsyncStudentPortalDAO;
 import database.StudentPortalDAO;
 import java.awt.Color;
-import java.math.BigDecimal;
+import java.util.EnumMap;
 import java.util.List;
-import javax.swing.table.DefaultTableModel;
+import java.util.Map;
 import models.Course;
 import models.FeeSummary;
+import models.Money;
 import models.Payment;
+import models.PaymentStatus;
 import models.StudentInfo;
 
 /** Student main window with info, pay and status tabs. */
 public class StudentDashboard extends javax.swing.JFrame {
+  private static final Map<PaymentStatus, Color> STATUS_COLORS =
+      new EnumMap<>(
+          Map.of(
+              PaymentStatus.NO_COURSES, Color.GRAY,
+              PaymentStatus.PAID, new Color(0, 128, 0), // green
+              PaymentStatus.PARTIAL, new Color(255, 140, 0), // orange
+              PaymentStatus.UNPAID, Color.RED));
 
   private final int studentId;
+  private final BackgroundLoader<StudentInfo> infoLoader;
+  private final BackgroundLoader<List<Payment>> paymentsLoader;
+  private final BackgroundLoader<FeeSummary> statusLoader;
+  private final ColumnarTableModel coursesModel =
+      new ColumnarTableModel(
+          new String[] {"Course", "Price (RWF)"},
+          ColumnarTableModel.Type.TEXT,
+          ColumnarTableModel.Type.AMOUNT);
+  private final ColumnarTableModel paymentsModel = Tables.paymentsModel();
 
   public StudentDashboard(int studentId) {
     this.studentId = studentId;
     initComponents();
+    tableCourses.setModel(coursesModel);
+    tablePayments.setModel(paymentsModel);
+    infoLoader = new BackgroundLoader<>(panelInfo);
+    paymentsLoader = new BackgroundLoader<>(tablePayments);
+    statusLoader =
+        new BackgroundLoader<>(
+            panelStatus,
+            loading -> {
+              if (loading) {
+                lblStatusText.setText("Loading...");
+                lblStatusText.setForeground(Color.GRAY);
+              }
+            });
     loadInfoTab();
     loadPaymentsTab();
     loadStatusTab();
     bindPayTab();
   }
 
+  @Override
+  public void dispose() {
+    infoLoader.cancel();
+    paymentsLoader.cancel();
+    statusLoader.cancel();
+    super.dispose();
+  }
+
   private void loadInfoTab() {
-    StudentInfo info = StudentPortalDAO.loadStudentInfo(studentId);
+    infoLoader.load(AsyncStudentPortalDAO.loadStudentInfo(studentId), this::showInfo);
+  }
+
+  private void showInfo(StudentInfo info) {
     if (info == null) {
       lblInfoReg.setText("Reg: -");
       lblInfoName.setText("Name: -");
@@ -38,60 +81,34 @@ public class StudentDashboard extends javax.swing.JFrame {
     lblInfoProgram.setText("Program: " + info.getProgram());
     lblInfoTotal.setText("Total fee: " + info.getTotalFee() + " RWF");
 
-    DefaultTableModel model =
-        new DefaultTableModel(new Object[] {"Course", "Price (RWF)"}, 0) {
-          @Override
-          public boolean isCellEditable(int row, int column) {
-            return false;
-          }
-        };
-    for (Course c : info.getCourses()) {
-      model.addRow(new Object[] {c.getName(), c.getPrice()});
-    }
-    tableCourses.setModel(model);
+    coursesModel.replaceAll(
+        info.getCourses(),
+        (Course c, ColumnarTableModel.RowWriter row) -> row.text(c.getName()).amount(c.getPrice()));
   }
 
   private void loadPaymentsTab() {
-    List<Payment> payments = StudentPortalDAO.loadPayments(studentId);
-    DefaultTableModel model =
-        new DefaultTableModel(new Object[] {"Paid On", "Amount", "Method", "Note"}, 0) {
-          @Override
-          public boolean isCellEditable(int row, int column) {
-            return false;
-          }
-        };
-    for (Payment p : payments) {
-      model.addRow(new Object[] {p.getPaidOn(), p.getAmount(), p.getMethod(), p.getNote()});
-    }
-    tablePayments.setModel(model);
+    paymentsLoader.load(AsyncStudentPortalDAO.loadPayments(studentId), this::showPayments);
+  }
+
+  private void showPayments(List<Payment> payments) {
+    paymentsModel.replaceAll(payments, Tables.PAYMENT_ROW);
   }
 
   private void loadStatusTab() {
-    FeeSummary summary = StudentPortalDAO.loadSummary(studentId);
-    BigDecimal total = summary.getTotalFee();
-    BigDecimal paid = summary.getTotalPaid();
-    BigDecimal remaining = summary.getOutstanding();
+    statusLoader.load(AsyncStudentPortalDAO.loadSummary(studentId), this::showStatus);
+  }
+
+  private void showStatus(FeeSummary summary) {
+    Money total = summary.getTotalFee();
+    Money paid = summary.getTotalPaid();
+    Money remaining = summary.getOutstanding();
 
     lblStatusAmounts.setText(
         "Total: " + total + " | Paid: " + paid + " | Remaining: " + remaining);
 
-    String status;
-    Color color;
-    if (total.compareTo(BigDecimal.ZERO) == 0) {
-      status = "No courses registered";
-      color = Color.GRAY;
-    } else if (remaining.compareTo(BigDecimal.ZERO) <= 0 && paid.compareTo(BigDecimal.ZERO) > 0) {
-      status = "Fully paid";
-      color = new Color(0, 128, 0); // green
-    } else if (paid.compareTo(BigDecimal.ZERO) > 0) {
-      status = "Partially paid";
-      color = new Color(255, 140, 0); // orange
-    } else {
-      status = "Not paid";
-      color = Color.RED;
-    }
-    lblStatusText.setText(status);
-    lblStatusText.setForeground(color);
+    PaymentStatus status = summary.getStatus();
+    lblStatusText.setText(status.getLabel());
+    lblStatusText.setForeground(STATUS_COLORS.get(status));
   }
 
   private void bindPayTab() {
@@ -106,8 +123,8 @@ public class StudentDashboard extends javax.swing.JFrame {
             return;
           }
           try {
-            BigDecimal amount = new BigDecimal(amountStr);
-            if (amount.compareTo(BigDecimal.ZERO) <= 0) {
+            Money amount = Money.parse(amountStr);
+            if (!amount.isPositive()) {
               javax.swing.JOptionPane.showMessageDialog(this, "Amount must be positive.");
               return;
             }
@@ -0,0 +1,282 @@
+package ui;
+
+import database.AsyncAccountantDAO;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import javax.swing.SwingUtilities;
+import javax.swing.table.AbstractTableModel;
+import models.AccountantStudentSummary;
+import models.StudentSummaryQuery;
+
+/**
+ * Accountant report rows, fetched a page at a time as the table asks for them.
+ *
+ * <p>Only the row count is known up front ({@link #reset}). A cell in a page that is not loaded
+ * reads as {@code null} and queues a keyset query for that page; the rows are painted when it
+ * arrives. Pages are chained by the last row of the page before, and a jump past unloaded pages
+ * first looks that boundary row up by offset. At most {@code maxPages} pages are kept: those
+ * farthest from the page last asked for are evicted, and loads for pages the user has scrolled
+ * far away from are cancelled. Sorting and filtering follow the current {@link
+ * StudentSummaryQuery} and happen in the database. Use from the EDT only.
+ */
+final class StudentSummaryTableModel extends AbstractTableModel {
+  static final int COL_STUDENT_ID = 0;
+  static final int COL_TOTAL = 4;
+  static final int COL_PAID = 5;
+  static final int COL_REMAINING = 6;
+  static final int COL_STATUS = 7;
+
+  private static final String[] COLUMNS = {
+    "Student ID", "Reg Number", "Full Name", "Program", "Total", "Paid", "Remaining", "Status",
+  };
+
+  private final int pageSize;
+  private final int maxPages;
+  private final Map<Integer, List<AccountantStudentSummary>> pages = new HashMap<>();
+  /** Row just before the first row of a page; page 0 starts at the beginning. */
+  private final Map<Integer, AccountantStudentSummary> pageStartsAfter = new HashMap<>();
+  private final Map<Integer, CompletableFuture<List<AccountantStudentSummary>>> loading =
+      new HashMap<>();
+  private final Set<Integer> failed = new HashSet<>();
+  private StudentSummaryQuery query = StudentSummaryQuery.ALL;
+  private int rowCount;
+  private int currentPage;
+  private int generation;
+
+  StudentSummaryTableModel() {
+    this(100, 10);
+  }
+
+  StudentSummaryTableModel(int pageSize, int maxPages) {
+    this.pageSize = pageSize;
+    this.maxPages = maxPages;
+  }
+
+  /** Drops every cached page and starts over with {@code rowCount} rows. */
+  void reset(int rowCount) {
+    reset(query, rowCount);
+  }
+
+  /** Starts over with the rows of {@code query}; {@code rowCount} must be its count. */
+  void reset(StudentSummaryQuery query, int rowCount) {
+    this.query = query;
+    cancelLoads();
+    pages.clear();
+    pageStartsAfter.clear();
+    failed.clear();
+    this.rowCount = rowCount;
+    fireTableDataChanged();
+  }
+
+  /**
+   * Replaces the cached rows of students in {@code changed} and repaints them. Students on pages
+   * that are not loaded are skipped; their fresh values arrive with the page.
+   */
+  void patch(List<AccountantStudentSummary> changed) {
+    if (changed.isEmpty()) {
+      return;
+    }
+    Map<Integer, AccountantStudentSummary> byId = new HashMap<>();
+    for (AccountantStudentSummary s : changed) {
+      byId.put(s.getStudentId(), s);
+    }
+    for (Map.Entry<Integer, List<AccountantStudentSummary>> page : pages.entrySet()) {
+      List<AccountantStudentSummary> rows = page.getValue();
+      for (int i = 0; i < rows.size(); i++) {
+        AccountantStudentSummary fresh = byId.get(rows.get(i).getStudentId());
+        if (fresh != null) {
+          rows.set(i, fresh);
+          int row = page.getKey() * pageSize + i;
+          if (row < rowCount) {
+            fireTableRowsUpdated(row, row);
+          }
+        }
+      }
+    }
+  }
+
+  /** Cancels in-flight page loads; their results are dropped. */
+  void cancelLoads() {
+    generation++;
+    for (CompletableFuture<?> request : loading.values()) {
+      request.cancel(true);
+    }
+    loading.clear();
+  }
+
+  /** The row's summary, or {@code null} while its page is still loading. */
+  AccountantStudentSummary getRow(int row) {
+    int page = row / pageSize;
+    List<AccountantStudentSummary> rows = pages.get(page);
+    if (rows == null) {
+      request(page);
+      return null;
+    }
+    int index = row % pageSize;
+    return index < rows.size() ? rows.get(index) : null;
+  }
+
+  /** The sort order and filters the rows follow. */
+  StudentSummaryQuery getQuery() {
+    return query;
+  }
+
+  /** Whether the student is on one of the cached pages. */
+  boolean isLoaded(int studentId) {
+    for (List<AccountantStudentSummary> rows : pages.values()) {
+      for (AccountantStudentSummary row : rows) {
+        if (row.getStudentId() == studentId) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  int getLoadedPageCount() {
+    return pages.size();
+  }
+
+  @Override
+  public int getRowCount() {
+    return rowCount;
+  }
+
+  @Override
+  public int getColumnCount() {
+    return COLUMNS.length;
+  }
+
+  @Override
+  public String getColumnName(int column) {
+    return COLUMNS[column];
+  }
+
+  @Override
+  public Object getValueAt(int row, int column) {
+    AccountantStudentSummary s = getRow(row);
+    if (s == null) {
+      return null;
+    }
+    switch (column) {
+      case COL_STUDENT_ID:
+        return s.getStudentId();
+      case 1:
+        return s.getRegNumber();
+      case 2:
+        return s.getFullName();
+      case 3:
+        return s.getProgram();
+      case COL_TOTAL:
+        return s.getTotalFee();
+      case COL_PAID:
+        return s.getTotalPaid();
+      case COL_REMAINING:
+        return s.getRemaining();
+      case COL_STATUS:
+        return s.getStatus().getLabel();
+      default:
+        return null;
+    }
+  }
+
+  private void request(int page) {
+    currentPage = page;
+    if (loading.containsKey(page) || failed.contains(page)) {
+      return;
+    }
+    cancelFarLoads();
+
+    CompletableFuture<List<AccountantStudentSummary>> request;
+    StudentSummaryQuery pageQuery = query;
+    AccountantStudentSummary after = pageStartsAfter.get(page);
+    if (page == 0 || after != null) {
+      request = AsyncAccountantDAO.loadStudentSummaryPage(pageQuery, after, pageSize);
+    } else {
+      request =
+          AsyncAccountantDAO.findStudentSummaryAt(pageQuery, page * pageSize - 1)
+              .thenCompose(
+                  key ->
+                      key == null
+                          ? CompletableFuture.completedFuture(List.of())
+                          : AsyncAccountantDAO.loadStudentSummaryPage(pageQuery, key, pageSize));
+    }
+    loading.put(page, request);
+
+    int current = generation;
+    request.whenComplete(
+        (rows, error) ->
+            SwingUtilities.invokeLater(
+                () -> {
+                  if (current != generation) {
+                    return;
+                  }
+                  if (loading.get(page) == request) {
+                    loading.remove(page);
+                  }
+                  if (error != null) {
+                    Throwable cause = unwrap(error);
+                    if (!(cause instanceof CancellationException)) {
+                      // Don't hammer the database on every repaint; reset() retries.
+                      failed.add(page);
+                      cause.printStackTrace();
+                    }
+                    return;
+                  }
+                  store(page, rows);
+                }));
+  }
+
+  private void store(int page, List<AccountantStudentSummary> rows) {
+    pages.put(page, new ArrayList<>(rows));
+    if (!rows.isEmpty()) {
+      pageStartsAfter.put(page + 1, rows.get(rows.size() - 1));
+    }
+    evictFarPages();
+    int first = page * pageSize;
+    int last = Math.min(rowCount, first + pageSize) - 1;
+    if (first <= last) {
+      fireTableRowsUpdated(first, last);
+    }
+  }
+
+  private void evictFarPages() {
+    while (pages.size() > maxPages) {
+      pages.remove(farthest(pages.keySet()));
+    }
+  }
+
+  private void cancelFarLoads() {
+    for (Integer page : new ArrayList<>(loading.keySet())) {
+      if (Math.abs(page - currentPage) > maxPages) {
+        loading.remove(page).cancel(true);
+      }
+    }
+  }
+
+  private int farthest(Set<Integer> candidates) {
+    int farthest = currentPage;
+    int distance = -1;
+    for (int page : candidates) {
+      int d = Math.abs(page - currentPage);
+      if (d > distance) {
+        farthest = page;
+        distance = d;
+      }
+    }
+    return farthest;
+  }
+
+  private static Throwable unwrap(Throwable error) {
+    return error instanceof CompletionException && error.getCause() != null
+        ? error.getCause()
+        : error;
+  }
+}
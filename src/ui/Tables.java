@@ -0,0 +1,22 @@
+package ui;
+
+import models.Payment;
+
+/** Grid layouts shared by more than one dashboard. */
+final class Tables {
+  static final ColumnarTableModel.RowBinder<Payment> PAYMENT_ROW =
+      (p, row) ->
+          row.date(p.getPaidOn()).amount(p.getAmount()).text(p.getMethod()).text(p.getNote());
+
+  private Tables() {}
+
+  /** Paid On / Amount / Method / Note, filled with {@link #PAYMENT_ROW}. */
+  static ColumnarTableModel paymentsModel() {
+    return new ColumnarTableModel(
+        new String[] {"Paid On", "Amount", "Method", "Note"},
+        ColumnarTableModel.Type.DATE,
+        ColumnarTableModel.Type.AMOUNT,
+        ColumnarTableModel.Type.TEXT,
+        ColumnarTableModel.Type.TEXT);
+  }
+}